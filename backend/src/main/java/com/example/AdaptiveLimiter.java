@@ -0,0 +1,306 @@
+package com.example;
+
+import io.javalin.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the calls in flight to the AI service with a limit it finds by
+ * itself, since the right number depends on the service's hardware and
+ * whatever else it is serving.
+ *
+ * <p>The limit follows AIMD: it grows by one for every limit's worth of calls
+ * that come back in normal time while the limit is in use, and halves when a
+ * call takes more than {@link #TOLERANCE} times the usual latency, times out
+ * or is refused with 429 or 503. At most one decrease happens per round
+ * trip, since every call already in flight sees the same congestion. The
+ * usual latency is the fastest call of the same operation and size class
+ * (a power of two of the request bytes) within the last
+ * {@link #BASELINE_WINDOW}, so a long recording is not taken for a slow
+ * service and a service that became slower for good is relearned.
+ *
+ * <p>Calls beyond the limit wait in arrival order for up to
+ * {@code maxWait}, at most {@code maxQueued} of them; the rest are turned away
+ * with 503 instead of piling up at the service. Batch jobs, whose own
+ * parallelism already bounds what they queue, {@link #acquireWaiting wait}
+ * in the same line for as long as it takes.
+ */
+public class AdaptiveLimiter {
+    static final double TOLERANCE = 2.0;
+    static final double BACKOFF = 0.5;
+    static final int INITIAL_LIMIT = 4;
+    private static final long BASELINE_WINDOW = TimeUnit.MINUTES.toNanos(10);
+    /** Upper bounds of the round trip histogram buckets, in seconds. */
+    private static final double[] RTT_BUCKETS_SECONDS = {0.5, 1, 2, 5, 10, 30, 60, 120, 300, 600};
+    /** Weight of the latest call in the smoothed round trip time. */
+    private static final double SMOOTHING = 0.1;
+
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    // Waiters from acquireWaiting, which do not count against maxQueued
+    private int unboundedWaiters;
+    private final long[] rttBuckets = new long[RTT_BUCKETS_SECONDS.length];
+    private int minLimit;
+    private int maxLimit;
+    private int maxQueued;
+    private long maxWaitNanos;
+    private double limit;
+    private int inflight;
+    private long lastDecrease = System.nanoTime();
+    private double smoothedRtt;
+    private double rttSum;
+    private long rttCount;
+    private long decreases;
+    private long shedQueueFull;
+    private long shedTimeout;
+
+    public AdaptiveLimiter(int minLimit, int maxLimit, int maxQueued, Duration maxWait) {
+        setLimits(minLimit, maxLimit, maxQueued, maxWait);
+        limit = Math.max(minLimit, Math.min(maxLimit, INITIAL_LIMIT));
+    }
+
+    /** Applies to waiting and future calls; the current limit is moved into the new bounds. */
+    public synchronized void setLimits(int minLimit, int maxLimit, int maxQueued, Duration maxWait) {
+        if (minLimit < 1 || maxLimit < minLimit || maxQueued < 0 || maxWait.isNegative()) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max and the queue must not be negative");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+        grant();
+    }
+
+    /**
+     * Waits for a slot to call {@code operation} with a request of
+     * {@code bytes} (negative if unknown). The permit must be closed when the
+     * response has arrived.
+     *
+     * @throws AdmissionControl.Rejected with 503 if the queue is full or the wait runs out
+     */
+    public Permit acquire(String operation, long bytes) throws InterruptedException {
+        return acquire(operation, bytes, true);
+    }
+
+    /**
+     * Like {@link #acquire}, but waits in line however long it takes and is
+     * never shed, for batch jobs that have nobody waiting on an answer.
+     */
+    public Permit acquireWaiting(String operation, long bytes) throws InterruptedException {
+        return acquire(operation, bytes, false);
+    }
+
+    private Permit acquire(String operation, long bytes, boolean bounded) throws InterruptedException {
+        String key = operation + "/" + (bytes <= 0 ? 0 : 64 - Long.numberOfLeadingZeros(bytes));
+        synchronized (this) {
+            if (queue.isEmpty() && inflight < currentLimit()) {
+                inflight++;
+                return new Permit(key, inflight);
+            }
+            if (bounded && queue.size() - unboundedWaiters >= maxQueued) {
+                shedQueueFull++;
+                throw rejected("AI service is at capacity");
+            }
+            Waiter waiter = new Waiter();
+            queue.add(waiter);
+            if (!bounded) {
+                unboundedWaiters++;
+            }
+            long deadline = System.nanoTime() + maxWaitNanos;
+            try {
+                while (!waiter.granted) {
+                    if (!bounded) {
+                        wait();
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        queue.remove(waiter);
+                        shedTimeout++;
+                        throw rejected("Timed out waiting for the AI service");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    inflight--;
+                    grant();
+                } else {
+                    queue.remove(waiter);
+                }
+                throw e;
+            } finally {
+                if (!bounded) {
+                    unboundedWaiters--;
+                }
+            }
+            return new Permit(key, inflight);
+        }
+    }
+
+    /** The number of calls currently allowed in flight. */
+    public synchronized int currentLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int inflight() {
+        return inflight;
+    }
+
+    /** Appends the metrics in the Prometheus text exposition format. */
+    public synchronized void write(StringBuilder out) {
+        out.append("# HELP ai_concurrency_limit Calls to the AI service currently allowed in flight\n");
+        out.append("# TYPE ai_concurrency_limit gauge\n");
+        out.append("ai_concurrency_limit ").append(currentLimit()).append('\n');
+        out.append("# HELP ai_inflight Calls to the AI service in flight\n");
+        out.append("# TYPE ai_inflight gauge\n");
+        out.append("ai_inflight ").append(inflight).append('\n');
+        out.append("# HELP ai_queued Calls waiting for the concurrency limit\n");
+        out.append("# TYPE ai_queued gauge\n");
+        out.append("ai_queued ").append(queue.size()).append('\n');
+
+        out.append("# HELP ai_rtt_seconds Round trip time of calls to the AI service\n");
+        out.append("# TYPE ai_rtt_seconds histogram\n");
+        long cumulative = 0;
+        for (int i = 0; i < RTT_BUCKETS_SECONDS.length; i++) {
+            cumulative += rttBuckets[i];
+            out.append("ai_rtt_seconds_bucket{le=\"").append(RTT_BUCKETS_SECONDS[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        out.append("ai_rtt_seconds_bucket{le=\"+Inf\"} ").append(rttCount).append('\n');
+        out.append("ai_rtt_seconds_sum ").append(rttSum).append('\n');
+        out.append("ai_rtt_seconds_count ").append(rttCount).append('\n');
+        out.append("# HELP ai_rtt_smoothed_seconds Exponentially weighted round trip time of recent calls\n");
+        out.append("# TYPE ai_rtt_smoothed_seconds gauge\n");
+        out.append("ai_rtt_smoothed_seconds ").append(smoothedRtt).append('\n');
+
+        out.append("# HELP ai_concurrency_decreases_total Times the limit was lowered\n");
+        out.append("# TYPE ai_concurrency_decreases_total counter\n");
+        out.append("ai_concurrency_decreases_total ").append(decreases).append('\n');
+        out.append("# HELP ai_shed_total Calls turned away without reaching the AI service, by reason\n");
+        out.append("# TYPE ai_shed_total counter\n");
+        out.append("ai_shed_total{reason=\"queue_full\"} ").append(shedQueueFull).append('\n');
+        out.append("ai_shed_total{reason=\"timeout\"} ").append(shedTimeout).append('\n');
+    }
+
+    private synchronized void release(Permit permit) {
+        inflight--;
+        if (!permit.ignored) {
+            sample(permit);
+        }
+        grant();
+    }
+
+    private void sample(Permit permit) {
+        long now = System.nanoTime();
+        long rtt = now - permit.start;
+        double seconds = rtt / 1e9;
+        rttSum += seconds;
+        rttCount++;
+        smoothedRtt = rttCount == 1 ? seconds : smoothedRtt + SMOOTHING * (seconds - smoothedRtt);
+        for (int i = 0; i < RTT_BUCKETS_SECONDS.length; i++) {
+            if (seconds <= RTT_BUCKETS_SECONDS[i]) {
+                rttBuckets[i]++;
+                break;
+            }
+        }
+
+        long usual = baselines.computeIfAbsent(permit.key, key -> new Baseline(now)).add(rtt, now);
+        if (permit.overloaded || rtt > TOLERANCE * usual) {
+            // Calls sent before the last decrease saw the old limit's congestion
+            if (permit.start - lastDecrease > 0) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                lastDecrease = now;
+                decreases++;
+            }
+        } else if (permit.inflightAtStart * 2 >= limit) {
+            // Only a limit that is actually reached says anything about the service
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private void grant() {
+        boolean granted = false;
+        while (!queue.isEmpty() && inflight < currentLimit()) {
+            queue.poll().granted = true;
+            inflight++;
+            granted = true;
+        }
+        if (granted) {
+            notifyAll();
+        }
+    }
+
+    private AdmissionControl.Rejected rejected(String message) {
+        return new AdmissionControl.Rejected(HttpStatus.SERVICE_UNAVAILABLE, message,
+                Math.max(1, (long) Math.ceil(smoothedRtt)));
+    }
+
+    /** A slot for one call; closing it records how the call went. */
+    public class Permit implements AutoCloseable {
+        private final String key;
+        private final int inflightAtStart;
+        private final long start = System.nanoTime();
+        private boolean overloaded;
+        private boolean ignored;
+        private boolean closed;
+
+        private Permit(String key, int inflightAtStart) {
+            this.key = key;
+            this.inflightAtStart = inflightAtStart;
+        }
+
+        /** The service timed out or refused the call for load. */
+        public void overloaded() {
+            overloaded = true;
+        }
+
+        /** The call failed for a reason that says nothing about load, e.g. the service is down. */
+        public void ignore() {
+            ignored = true;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(this);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        boolean granted;
+    }
+
+    /** The fastest round trip in the current and the previous window. */
+    private static final class Baseline {
+        private long min = Long.MAX_VALUE;
+        private long previous = Long.MAX_VALUE;
+        private long since;
+
+        Baseline(long now) {
+            since = now;
+        }
+
+        long add(long rtt, long now) {
+            if (now - since > 2 * BASELINE_WINDOW) {
+                previous = Long.MAX_VALUE;
+                min = rtt;
+                since = now;
+            } else if (now - since > BASELINE_WINDOW) {
+                previous = min;
+                min = rtt;
+                since = now;
+            } else {
+                min = Math.min(min, rtt);
+            }
+            return Math.min(min, previous);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+import io.javalin.http.HttpStatus;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * Decides whether a request may run before its body is read.
+ *
+ * <p>Every client gets two token buckets: a generous one for cheap reads and a
+ * strict one for AI-backed writes. Writes additionally reserve their
+ * {@code Content-Length} against a global in-flight byte budget, and media
+ * uploads take one of a fixed number of job slots. Reads are never queued
+ * behind those gates, and writes are shed while fewer than
+ * {@link Limits#reservedReadThreads} server threads are free, so listing and
+ * searching stay responsive while uploads pile up.
+ *
+ * <p>Rejections are immediate: 429 with the time until the client's next token,
+ * or 503 when the server is at capacity. {@link #setLimits} applies new limits
+ * to existing clients without a restart.
+ */
+public class AdmissionControl {
+    public enum Kind { READ, WRITE, MEDIA }
+
+    /** Charged for chunked uploads that do not announce their size. */
+    static final long UNKNOWN_LENGTH_BYTES = 64L * 1024 * 1024;
+    private static final long IDLE_CLIENT_NANOS = 10L * 60 * 1_000_000_000L;
+
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    private final IntSupplier availableThreads;
+    private volatile Set<String> trustedProxies;
+    private final AtomicLong rejectedRate = new AtomicLong();
+    private final AtomicLong rejectedCapacity = new AtomicLong();
+    private volatile Limits limits;
+    private volatile boolean draining;
+    private volatile long nextSweep = System.nanoTime() + IDLE_CLIENT_NANOS;
+    private long inflightBytes;
+    private int mediaJobs;
+
+    public AdmissionControl(Limits limits, IntSupplier availableThreads, Set<String> trustedProxies) {
+        this.limits = limits;
+        this.availableThreads = availableThreads;
+        this.trustedProxies = trustedProxies;
+    }
+
+    /** Limits currently in force; a copy, so callers may modify it and pass it to {@link #setLimits}. */
+    public Limits limits() {
+        return limits.copy();
+    }
+
+    public void setLimits(Limits newLimits) {
+        newLimits.validate();
+        limits = newLimits.copy();
+        for (Client client : clients.values()) {
+            client.apply(limits);
+        }
+    }
+
+    public void setTrustedProxies(Set<String> trustedProxies) {
+        this.trustedProxies = Set.copyOf(trustedProxies);
+    }
+
+    /** Refuses every write from now on, e.g. while the server shuts down; reads are still served. */
+    public void drain() {
+        draining = true;
+    }
+
+    /**
+     * The address rate limits are keyed by: the first {@code X-Forwarded-For}
+     * hop when the request came through a trusted proxy, otherwise the peer.
+     */
+    public String clientKey(String remoteAddress, String forwardedFor) {
+        if (forwardedFor != null && trustedProxies.contains(remoteAddress)) {
+            int comma = forwardedFor.indexOf(',');
+            String first = (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            if (!first.isEmpty()) {
+                return first;
+            }
+        }
+        return remoteAddress;
+    }
+
+    /**
+     * Admits a request or throws {@link Rejected}. The returned ticket must be
+     * closed when the request finishes to free its bytes and job slot.
+     *
+     * @param contentLength the request's {@code Content-Length}, or a negative value if unknown
+     */
+    public Ticket admit(String client, Kind kind, long contentLength) {
+        Limits current = limits;
+        long now = System.nanoTime();
+        if (now - nextSweep > 0) {
+            sweep(now);
+        }
+
+        if (draining && kind != Kind.READ) {
+            rejectedCapacity.incrementAndGet();
+            throw new Rejected(HttpStatus.SERVICE_UNAVAILABLE, "Server is shutting down", current.retryAfterSeconds);
+        }
+
+        Client state = clients.computeIfAbsent(client, key -> new Client(current));
+        state.lastSeen = now;
+        TokenBucket bucket = kind == Kind.READ ? state.reads : state.writes;
+        if (!bucket.tryAcquire()) {
+            rejectedRate.incrementAndGet();
+            throw new Rejected(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded",
+                    seconds(bucket.nanosUntilNextToken()));
+        }
+        if (kind == Kind.READ) {
+            return new Ticket(0, false);
+        }
+
+        long bytes = contentLength < 0 ? UNKNOWN_LENGTH_BYTES : contentLength;
+        if (bytes > Math.min(current.maxUploadBytes, current.maxInflightBytes)) {
+            throw new Rejected(HttpStatus.CONTENT_TOO_LARGE, "Upload is larger than the server accepts", 0);
+        }
+        if (availableThreads.getAsInt() < current.reservedReadThreads) {
+            rejectedCapacity.incrementAndGet();
+            throw new Rejected(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy", current.retryAfterSeconds);
+        }
+        boolean media = kind == Kind.MEDIA;
+        synchronized (this) {
+            if (inflightBytes + bytes > current.maxInflightBytes
+                    || (media && mediaJobs >= current.maxMediaJobs)) {
+                rejectedCapacity.incrementAndGet();
+                throw new Rejected(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress",
+                        current.retryAfterSeconds);
+            }
+            inflightBytes += bytes;
+            if (media) {
+                mediaJobs++;
+            }
+        }
+        return new Ticket(bytes, media);
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("limits", limits);
+        status.put("draining", draining);
+        status.put("clients", clients.size());
+        status.put("inflight_bytes", inflightBytes);
+        status.put("media_jobs", mediaJobs);
+        status.put("rejected_rate_limited", rejectedRate.get());
+        status.put("rejected_over_capacity", rejectedCapacity.get());
+        return status;
+    }
+
+    private synchronized void release(long bytes, boolean media) {
+        inflightBytes -= bytes;
+        if (media) {
+            mediaJobs--;
+        }
+    }
+
+    private void sweep(long now) {
+        nextSweep = now + IDLE_CLIENT_NANOS;
+        for (Iterator<Client> it = clients.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().lastSeen > IDLE_CLIENT_NANOS) {
+                it.remove();
+            }
+        }
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (long) Math.ceil(Math.min(nanos, Long.MAX_VALUE / 2) / 1_000_000_000.0));
+    }
+
+    /** Capacity held by an admitted request. */
+    public class Ticket implements AutoCloseable {
+        private final long bytes;
+        private final boolean media;
+        private boolean closed;
+
+        private Ticket(long bytes, boolean media) {
+            this.bytes = bytes;
+            this.media = media;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                if (bytes > 0 || media) {
+                    release(bytes, media);
+                }
+            }
+        }
+    }
+
+    /** A request turned away before any work was done. */
+    public static class Rejected extends RuntimeException {
+        public final HttpStatus status;
+        public final long retryAfterSeconds;
+
+        public Rejected(HttpStatus status, String message, long retryAfterSeconds) {
+            super(message);
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+
+    /** Adjustable limits; field names in snake case are the JSON keys of {@code /admin/limits}. */
+    @JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+    public static class Limits {
+        public double readsPerSecond = 20;
+        public double readBurst = 40;
+        public double writesPerMinute = 6;
+        public double writeBurst = 3;
+        public long maxInflightBytes = 512L * 1024 * 1024;
+        public long maxUploadBytes = 512L * 1024 * 1024;
+        public int maxMediaJobs = 4;
+        public int reservedReadThreads = 4;
+        public long retryAfterSeconds = 5;
+
+        Limits copy() {
+            Limits copy = new Limits();
+            copy.readsPerSecond = readsPerSecond;
+            copy.readBurst = readBurst;
+            copy.writesPerMinute = writesPerMinute;
+            copy.writeBurst = writeBurst;
+            copy.maxInflightBytes = maxInflightBytes;
+            copy.maxUploadBytes = maxUploadBytes;
+            copy.maxMediaJobs = maxMediaJobs;
+            copy.reservedReadThreads = reservedReadThreads;
+            copy.retryAfterSeconds = retryAfterSeconds;
+            return copy;
+        }
+
+        /**
+         * A copy of these limits with every field that differs between {@code before} and
+         * {@code after} taken from {@code after}; the others, e.g. set through
+         * {@code /admin/limits}, are kept.
+         */
+        Limits withChanges(Limits before, Limits after) {
+            Limits merged = copy();
+            if (before.readsPerSecond != after.readsPerSecond) merged.readsPerSecond = after.readsPerSecond;
+            if (before.readBurst != after.readBurst) merged.readBurst = after.readBurst;
+            if (before.writesPerMinute != after.writesPerMinute) merged.writesPerMinute = after.writesPerMinute;
+            if (before.writeBurst != after.writeBurst) merged.writeBurst = after.writeBurst;
+            if (before.maxInflightBytes != after.maxInflightBytes) merged.maxInflightBytes = after.maxInflightBytes;
+            if (before.maxUploadBytes != after.maxUploadBytes) merged.maxUploadBytes = after.maxUploadBytes;
+            if (before.maxMediaJobs != after.maxMediaJobs) merged.maxMediaJobs = after.maxMediaJobs;
+            if (before.reservedReadThreads != after.reservedReadThreads) merged.reservedReadThreads = after.reservedReadThreads;
+            if (before.retryAfterSeconds != after.retryAfterSeconds) merged.retryAfterSeconds = after.retryAfterSeconds;
+            return merged;
+        }
+
+        void validate() {
+            if (readsPerSecond < 0 || writesPerMinute < 0 || readBurst < 1 || writeBurst < 1
+                    || maxInflightBytes < 0 || maxUploadBytes < 0 || maxMediaJobs < 0 || reservedReadThreads < 0 || retryAfterSeconds < 0) {
+                throw new IllegalArgumentException("Limits must not be negative and bursts must be at least 1");
+            }
+        }
+    }
+
+    private static final class Client {
+        final TokenBucket reads;
+        final TokenBucket writes;
+        volatile long lastSeen;
+
+        Client(Limits limits) {
+            reads = new TokenBucket(limits.readsPerSecond, limits.readBurst);
+            writes = new TokenBucket(limits.writesPerMinute / 60, limits.writeBurst);
+        }
+
+        void apply(Limits limits) {
+            reads.setRate(limits.readsPerSecond, limits.readBurst);
+            writes.setRate(limits.writesPerMinute / 60, limits.writeBurst);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Calls the Flask AI service. Shared by the interactive endpoints and the
+ * batch jobs so every path talks to the service the same way, and every call
+ * goes through the same {@link AdaptiveLimiter}.
+ */
+public class AiClient {
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    private final HttpClient httpClient;
+    private final ObjectMapper mapper;
+    private final String baseUrl;
+    private final AdaptiveLimiter limiter;
+    private volatile Duration timeout;
+
+    public AiClient(HttpClient httpClient, ObjectMapper mapper, String baseUrl, Duration timeout,
+                    AdaptiveLimiter limiter) {
+        this.httpClient = httpClient;
+        this.mapper = mapper;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.limiter = limiter;
+    }
+
+    /** Applies to requests started from now on. */
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /** Summarizes a transcript; {@code requestBody} is the JSON sent by the frontend. */
+    public Map<String, Object> summarizeText(String requestBody) throws IOException, InterruptedException {
+        return send(jsonRequest("/text-summary", requestBody), "text", requestBody.length(), true);
+    }
+
+    /**
+     * Like {@link #summarizeText}, for batch jobs: the call waits for the
+     * limiter as long as it takes instead of being shed under load.
+     */
+    public Map<String, Object> summarizeTextWaiting(String requestBody) throws IOException, InterruptedException {
+        return send(jsonRequest("/text-summary", requestBody), "text", requestBody.length(), false);
+    }
+
+    /** Embeds text for semantic search; the response holds the vector as {@code embedding}. */
+    public Map<String, Object> embed(String text) throws IOException, InterruptedException {
+        String body = mapper.writeValueAsString(Map.of("text", text));
+        return send(jsonRequest("/embed", body), "embed", body.length(), true);
+    }
+
+    /** Like {@link #embed}, for indexing in the background: waits for the limiter instead of being shed. */
+    public Map<String, Object> embedWaiting(String text) throws IOException, InterruptedException {
+        String body = mapper.writeValueAsString(Map.of("text", text));
+        return send(jsonRequest("/embed", body), "embed", body.length(), false);
+    }
+
+    /** Summarizes an uploaded recording sent as a ready-made multipart body. */
+    public Map<String, Object> summarizeMedia(String mediaType, String boundary, HttpRequest.BodyPublisher body)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + (mediaType.equals("video") ? "/video-summary" : "/audio-summary")))
+                .timeout(timeout)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(body)
+                .build();
+        return send(request, mediaType, body.contentLength(), true);
+    }
+
+    private HttpRequest jsonRequest(String path, String requestBody) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .build();
+    }
+
+    /**
+     * @param shed whether the limiter may turn the call away rather than wait
+     * @throws AdmissionControl.Rejected if the limiter sheds the call
+     */
+    private Map<String, Object> send(HttpRequest request, String operation, long bytes, boolean shed)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response;
+        try (AdaptiveLimiter.Permit permit = shed ? limiter.acquire(operation, bytes)
+                : limiter.acquireWaiting(operation, bytes)) {
+            StageEvents.AiCall call = new StageEvents.AiCall();
+            call.operation = operation;
+            call.bytes = bytes;
+            call.begin();
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                call.status = response.statusCode();
+            } catch (HttpTimeoutException e) {
+                // A connect timeout means the service is unreachable, not that it is busy
+                if (e instanceof HttpConnectTimeoutException) {
+                    permit.ignore();
+                } else {
+                    permit.overloaded();
+                }
+                throw e;
+            } catch (IOException | InterruptedException e) {
+                permit.ignore();
+                throw e;
+            } finally {
+                call.commit();
+            }
+            if (response.statusCode() == 429 || response.statusCode() == 503) {
+                permit.overloaded();
+            } else if (response.statusCode() != 200) {
+                permit.ignore();
+            }
+        }
+
+        if (response.statusCode() != 200) {
+            throw new RuntimeException("AI service error: " + response.body());
+        }
+        return mapper.readValue(response.body(), RESPONSE_TYPE);
+    }
+}
@@ -0,0 +1,370 @@
+package com.example;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Typed backend settings. Each key is looked up in the process environment,
+ * then {@code .env}, then the properties file named by {@code CONFIG_FILE}
+ * (default {@code summary-app.properties}, optional), then its default.
+ *
+ * <p>All values are parsed and checked up front and every problem is reported
+ * at once, so a bad deploy fails at startup instead of at the first request.
+ * A loaded config is immutable; reloading produces a new one, and
+ * {@link #restartRequired} names the settings that only take effect after a
+ * restart. Everything else is applied to the running server.
+ */
+public final class AppConfig {
+    public static final String DEFAULT_FILE = "summary-app.properties";
+
+    // Server
+    public final int port;
+    public final int jettyMaxThreads;
+    public final int jettyMinThreads;
+    public final Duration jettyIdleTimeout;
+    public final String compression;
+    public final int compressionMinBytes;
+    public final long maxUploadBytes;
+    public final Duration shutdownGrace;
+    public final Duration reloadInterval;
+
+    // Dependencies
+    public final String mongoUri;
+    public final int mongoMaxPoolSize;
+    public final int mongoMinPoolSize;
+    public final int mongoMaxConnecting;
+    public final Duration mongoPoolWait;
+    public final Duration mongoConnectTimeout;
+    public final Duration mongoSocketTimeout;
+    public final Duration mongoServerSelectionTimeout;
+    public final List<String> mongoCompressors;
+    public final String mongoListReadPreference;
+    public final Duration mongoMaxStaleness;
+    public final String flaskAiUrl;
+    public final Duration aiConnectTimeout;
+    public final Duration aiRequestTimeout;
+    public final int aiMinConcurrency;
+    public final int aiMaxConcurrency;
+    public final int aiMaxQueued;
+    public final Duration aiQueueWait;
+    public final String transcriptionEngine;
+    public final Path voskModelDir;
+    public final int transcriptionThreads;
+    public final String ffmpeg;
+
+    // Storage and indexes
+    public final String mediaStore;
+    public final Path mediaDir;
+    public final Path listingIndexDir;
+    public final Path semanticIndexDir;
+    public final Path jobJournalDir;
+    public final String embedder;
+    public final int embeddingDim;
+    public final int retentionMonths;
+    public final String retentionMode;
+    public final Path archiveDir;
+
+    // Admission control
+    public final double readsPerSecond;
+    public final double writesPerMinute;
+    public final long maxInflightBytes;
+    public final int maxMediaJobs;
+    public final int reservedReadThreads;
+    public final Set<String> trustedProxies;
+
+    // Jobs
+    public final String jobMode;
+    public final int queueWorkers;
+    public final Duration queueLease;
+    public final Duration queueWait;
+
+    // Drop folder
+    public final String dropDir;
+    public final int dropParallelism;
+    public final Duration dropPoll;
+    public final Duration dropSettle;
+    public final String dropWatch;
+
+    // Profiling
+    public final String profiling;
+    public final Path profilingDir;
+    public final Duration profilingMaxDuration;
+    public final int profilingMaxMb;
+
+    public final String adminToken;
+
+    private final Map<String, String> raw = new LinkedHashMap<>();
+    private final List<String> errors = new ArrayList<>();
+    private final Function<String, String> source;
+
+    private AppConfig(Function<String, String> source) {
+        this.source = source;
+
+        port = intValue("PORT", 5001, 0, 65535);
+        jettyMaxThreads = intValue("JETTY_MAX_THREADS", 250, 8, 10_000);
+        jettyMinThreads = intValue("JETTY_MIN_THREADS", 8, 1, 10_000);
+        jettyIdleTimeout = seconds("JETTY_IDLE_TIMEOUT_SECONDS", 60);
+        compression = choice("COMPRESSION", "brotli", "brotli", "gzip", "none");
+        compressionMinBytes = intValue("COMPRESSION_MIN_BYTES", 1024, 0, Integer.MAX_VALUE);
+        maxUploadBytes = megabytes("MAX_UPLOAD_MB", 512);
+        shutdownGrace = seconds("SHUTDOWN_GRACE_SECONDS", 30);
+        reloadInterval = seconds("CONFIG_RELOAD_SECONDS", 10);
+
+        mongoUri = string("MONGO_URI", "mongodb://localhost:27017");
+        mongoMaxPoolSize = intValue("MONGO_MAX_POOL_SIZE", 100, 1, 10_000);
+        mongoMinPoolSize = intValue("MONGO_MIN_POOL_SIZE", 0, 0, 10_000);
+        mongoMaxConnecting = intValue("MONGO_MAX_CONNECTING", 2, 1, 100);
+        mongoPoolWait = seconds("MONGO_POOL_WAIT_SECONDS", 10);
+        mongoConnectTimeout = seconds("MONGO_CONNECT_TIMEOUT_SECONDS", 10);
+        mongoSocketTimeout = seconds("MONGO_SOCKET_TIMEOUT_SECONDS", 120);
+        mongoServerSelectionTimeout = seconds("MONGO_SERVER_SELECTION_TIMEOUT_SECONDS", 10);
+        mongoCompressors = choices("MONGO_COMPRESSORS", "zstd,snappy", "zstd", "snappy", "zlib", "none");
+        mongoListReadPreference = choice("MONGO_LIST_READ_PREFERENCE", "secondaryPreferred",
+                "primary", "primaryPreferred", "secondaryPreferred", "secondary", "nearest");
+        mongoMaxStaleness = seconds("MONGO_MAX_STALENESS_SECONDS", 90);
+        flaskAiUrl = url("FLASK_AI_URL", "http://localhost:5000");
+        aiConnectTimeout = seconds("AI_CONNECT_TIMEOUT_SECONDS", 10);
+        aiRequestTimeout = seconds("AI_REQUEST_TIMEOUT_SECONDS", 600);
+        aiMinConcurrency = intValue("AI_MIN_CONCURRENCY", 1, 1, 10_000);
+        aiMaxConcurrency = intValue("AI_MAX_CONCURRENCY", 32, 1, 10_000);
+        aiMaxQueued = intValue("AI_MAX_QUEUED", 100, 0, 100_000);
+        aiQueueWait = seconds("AI_QUEUE_WAIT_SECONDS", 120);
+        transcriptionEngine = choice("TRANSCRIPTION_ENGINE", "flask", "flask", "local");
+        voskModelDir = Path.of(string("VOSK_MODEL_DIR", "vosk-model"));
+        transcriptionThreads = intValue("TRANSCRIPTION_THREADS", Runtime.getRuntime().availableProcessors(), 1, 1024);
+        ffmpeg = string("FFMPEG", "ffmpeg");
+
+        mediaStore = choice("MEDIA_STORE", "none", "none", "local", "gridfs");
+        mediaDir = Path.of(string("MEDIA_DIR", "media"));
+        listingIndexDir = Path.of(string("LISTING_INDEX_DIR", "listing-index"));
+        semanticIndexDir = Path.of(string("SEMANTIC_INDEX_DIR", "semantic-index"));
+        jobJournalDir = Path.of(string("JOB_JOURNAL_DIR", "job-journal"));
+        embedder = choice("EMBEDDER", "local", "local", "remote");
+        embeddingDim = intValue("EMBEDDING_DIM", "remote".equals(embedder) ? 384 : 256, 8, 4096);
+        retentionMonths = intValue("RETENTION_MONTHS", 0, 0, 1200);
+        retentionMode = choice("RETENTION_MODE", "archive", "archive", "compact");
+        archiveDir = Path.of(string("ARCHIVE_DIR", "archive"));
+
+        readsPerSecond = doubleValue("RATE_LIMIT_READS_PER_SEC", 20);
+        writesPerMinute = doubleValue("RATE_LIMIT_WRITES_PER_MIN", 6);
+        maxInflightBytes = megabytes("MAX_INFLIGHT_UPLOAD_MB", 512);
+        maxMediaJobs = intValue("MAX_MEDIA_JOBS", 4, 0, 10_000);
+        reservedReadThreads = intValue("RESERVED_READ_THREADS", 4, 0, 10_000);
+        trustedProxies = list("TRUSTED_PROXIES");
+
+        jobMode = choice("JOB_MODE", "local", "local", "queue");
+        queueWorkers = intValue("QUEUE_WORKERS", 2, 1, 1000);
+        queueLease = seconds("QUEUE_LEASE_SECONDS", 60);
+        queueWait = seconds("QUEUE_WAIT_SECONDS", 600);
+
+        dropDir = string("DROP_DIR", "");
+        dropParallelism = intValue("DROP_PARALLELISM", 2, 1, 64);
+        dropPoll = seconds("DROP_POLL_SECONDS", 10);
+        dropSettle = seconds("DROP_SETTLE_SECONDS", 5);
+        dropWatch = choice("DROP_WATCH", "auto", "auto", "poll");
+
+        profiling = choice("PROFILING", "off", "off", "continuous");
+        profilingDir = Path.of(string("PROFILING_DIR", "profiles"));
+        profilingMaxDuration = seconds("PROFILING_MAX_SECONDS", 3600);
+        profilingMaxMb = intValue("PROFILING_MAX_MB", 250, 1, 100_000);
+
+        adminToken = source.apply("ADMIN_TOKEN");
+
+        if (jettyMinThreads > jettyMaxThreads) {
+            errors.add("JETTY_MIN_THREADS must not exceed JETTY_MAX_THREADS");
+        }
+        if (mongoMinPoolSize > mongoMaxPoolSize) {
+            errors.add("MONGO_MIN_POOL_SIZE must not exceed MONGO_MAX_POOL_SIZE");
+        }
+        if (mongoMaxStaleness.getSeconds() < 90) {
+            // The driver rejects anything shorter
+            errors.add("MONGO_MAX_STALENESS_SECONDS must be at least 90");
+        }
+        if (aiMinConcurrency > aiMaxConcurrency) {
+            errors.add("AI_MIN_CONCURRENCY must not exceed AI_MAX_CONCURRENCY");
+        }
+        if (reservedReadThreads >= jettyMaxThreads) {
+            errors.add("RESERVED_READ_THREADS must be below JETTY_MAX_THREADS");
+        }
+        if (maxUploadBytes > maxInflightBytes) {
+            errors.add("MAX_UPLOAD_MB must not exceed MAX_INFLIGHT_UPLOAD_MB");
+        }
+        if (queueLease.toMillis() < 3000) {
+            errors.add("QUEUE_LEASE_SECONDS must be at least 3");
+        }
+        if (profilingMaxDuration.getSeconds() < 10) {
+            errors.add("PROFILING_MAX_SECONDS must be at least 10");
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration: " + String.join("; ", errors));
+        }
+    }
+
+    /** Reads the environment, {@code .env} and the config file. */
+    public static AppConfig load() throws IOException {
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        Properties file = new Properties();
+        Path path = file(dotenv);
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path)) {
+                file.load(reader);
+            }
+        }
+        return new AppConfig(key -> {
+            String value = dotenv.get(key);
+            return value != null ? value : file.getProperty(key);
+        });
+    }
+
+    /** A config from {@code source} alone, for tests. */
+    static AppConfig parse(Function<String, String> source) {
+        return new AppConfig(source);
+    }
+
+    /** Newest modification time of the files settings are read from, to notice edits. */
+    public static long sourcesModified() {
+        long newest = 0;
+        for (Path path : List.of(Path.of(".env"), file(Dotenv.configure().ignoreIfMissing().load()))) {
+            try {
+                if (Files.exists(path)) {
+                    newest = Math.max(newest, Files.getLastModifiedTime(path).toMillis());
+                }
+            } catch (IOException e) {
+                // Treat an unreadable file as unchanged
+            }
+        }
+        return newest;
+    }
+
+    /** Settings that differ from {@code previous} but are only read at startup. */
+    public List<String> restartRequired(AppConfig previous) {
+        List<String> changed = new ArrayList<>();
+        for (String key : List.of("PORT", "JETTY_MAX_THREADS", "JETTY_MIN_THREADS", "JETTY_IDLE_TIMEOUT_SECONDS",
+                // Jetty's request and multipart size ceilings are set once, when the server is built
+                "MAX_UPLOAD_MB", "COMPRESSION", "COMPRESSION_MIN_BYTES", "CONFIG_RELOAD_SECONDS", "MONGO_URI",
+                "MONGO_MAX_POOL_SIZE", "MONGO_MIN_POOL_SIZE", "MONGO_MAX_CONNECTING", "MONGO_POOL_WAIT_SECONDS",
+                "MONGO_CONNECT_TIMEOUT_SECONDS",
+                "MONGO_SOCKET_TIMEOUT_SECONDS", "MONGO_SERVER_SELECTION_TIMEOUT_SECONDS", "MONGO_COMPRESSORS",
+                "MONGO_LIST_READ_PREFERENCE", "MONGO_MAX_STALENESS_SECONDS",
+                "FLASK_AI_URL", "AI_CONNECT_TIMEOUT_SECONDS", "TRANSCRIPTION_ENGINE", "VOSK_MODEL_DIR",
+                "TRANSCRIPTION_THREADS", "FFMPEG", "MEDIA_STORE", "MEDIA_DIR", "LISTING_INDEX_DIR",
+                "SEMANTIC_INDEX_DIR", "JOB_JOURNAL_DIR", "EMBEDDER", "EMBEDDING_DIM", "JOB_MODE", "QUEUE_WORKERS",
+                "QUEUE_LEASE_SECONDS", "DROP_DIR", "DROP_PARALLELISM", "DROP_POLL_SECONDS", "DROP_SETTLE_SECONDS",
+                "DROP_WATCH", "PROFILING", "PROFILING_DIR")) {
+            if (!raw.get(key).equals(previous.raw.get(key))) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    /** Effective settings with credentials masked, for {@code GET /admin/config}. */
+    public Map<String, String> describe() {
+        Map<String, String> described = new LinkedHashMap<>(raw);
+        described.put("MONGO_URI", mongoUri.replaceAll("//[^@/]*@", "//***@"));
+        described.put("ADMIN_TOKEN", adminToken == null || adminToken.isEmpty() ? "(unset)" : "***");
+        return described;
+    }
+
+    private String string(String key, String fallback) {
+        String value = source.apply(key);
+        String result = value == null || value.isBlank() ? fallback : value.trim();
+        raw.put(key, result);
+        return result;
+    }
+
+    private int intValue(String key, int fallback, int min, int max) {
+        String value = string(key, Integer.toString(fallback));
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < min || parsed > max) {
+                errors.add(key + " must be between " + min + " and " + max + ", got " + parsed);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            errors.add(key + " must be a whole number, got '" + value + "'");
+            return fallback;
+        }
+    }
+
+    private double doubleValue(String key, double fallback) {
+        String value = string(key, Double.toString(fallback));
+        try {
+            double parsed = Double.parseDouble(value);
+            if (!(parsed >= 0)) {
+                errors.add(key + " must not be negative, got " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            errors.add(key + " must be a number, got '" + value + "'");
+            return fallback;
+        }
+    }
+
+    private Duration seconds(String key, int fallback) {
+        return Duration.ofSeconds(intValue(key, fallback, 0, Integer.MAX_VALUE));
+    }
+
+    private long megabytes(String key, int fallback) {
+        return intValue(key, fallback, 1, 1_000_000) * 1024L * 1024;
+    }
+
+    private String choice(String key, String fallback, String... allowed) {
+        String value = string(key, fallback);
+        if (!List.of(allowed).contains(value)) {
+            errors.add(key + " must be one of " + String.join(", ", allowed) + ", got '" + value + "'");
+        }
+        return value;
+    }
+
+    /** Comma-separated values from {@code allowed}, in order; {@code none} on its own means an empty list. */
+    private List<String> choices(String key, String fallback, String... allowed) {
+        List<String> values = new ArrayList<>();
+        for (String value : string(key, fallback).split(",")) {
+            value = value.trim();
+            if (!List.of(allowed).contains(value)) {
+                errors.add(key + " entries must be among " + String.join(", ", allowed) + ", got '" + value + "'");
+            } else if (!"none".equals(value)) {
+                values.add(value);
+            }
+        }
+        return List.copyOf(values);
+    }
+
+    private String url(String key, String fallback) {
+        String value = string(key, fallback);
+        if (!value.startsWith("http://") && !value.startsWith("https://")) {
+            errors.add(key + " must be an http(s) URL, got '" + value + "'");
+        }
+        // Endpoints are appended as "/path"
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    private Set<String> list(String key) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String value : string(key, "").split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        return Set.copyOf(values);
+    }
+
+    private static Path file(Dotenv dotenv) {
+        String name = dotenv.get("CONFIG_FILE");
+        return Path.of(name == null || name.isBlank() ? DEFAULT_FILE : name);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Normalizes attendee names and maintains the per-person lookup structures.
+ *
+ * <p>Meetings carry an {@code attendee_keys} array (lower-cased names) with a
+ * multikey index for "all meetings with X". The {@code attendees} collection
+ * holds one document per person keyed by the same value, which makes prefix
+ * autocomplete an index range scan.
+ */
+public class AttendeeIndex {
+    private static final int MIGRATION_BATCH = 500;
+
+    private final MongoCollection<Document> meetings;
+    private final MongoCollection<Document> attendees;
+
+    public AttendeeIndex(MongoCollection<Document> meetings, MongoCollection<Document> attendees) {
+        this.meetings = meetings;
+        this.attendees = attendees;
+    }
+
+    /** Splits a newline separated attendee list into trimmed, de-duplicated display names. */
+    public static List<String> normalize(String raw) {
+        if (raw == null) {
+            return List.of();
+        }
+        Map<String, String> byKey = new LinkedHashMap<>();
+        for (String line : raw.split("\r?\n")) {
+            String name = line.strip().replaceAll("\\s+", " ");
+            if (!name.isEmpty()) {
+                byKey.putIfAbsent(key(name), name);
+            }
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    public static List<String> normalize(List<String> names) {
+        return normalize(String.join("\n", names));
+    }
+
+    public static String key(String name) {
+        return name.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> keys(List<String> names) {
+        Set<String> keys = new LinkedHashSet<>();
+        names.forEach(name -> keys.add(key(name)));
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Normalizes meetings stored before attendee keys existed. Those are still
+     * in the unpartitioned collection, so run this before
+     * {@link MeetingPartitions#init()} moves them.
+     *
+     * @return the number of meetings that were migrated
+     */
+    public int init() {
+        if (meetings.countDocuments(Filters.exists("attendee_keys", false)) == 0) {
+            return 0;
+        }
+        int migrated = 0;
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        for (Document meeting : meetings.find(Filters.exists("attendee_keys", false))
+                .projection(Projections.include("attendees"))) {
+            List<String> names = normalize(asNames(meeting.get("attendees")));
+            updates.add(new UpdateOneModel<>(Filters.eq("_id", meeting.getObjectId("_id")),
+                    Updates.combine(Updates.set("attendees", names), Updates.set("attendee_keys", keys(names)))));
+            record(names);
+            migrated++;
+            if (updates.size() == MIGRATION_BATCH) {
+                meetings.bulkWrite(updates);
+                updates.clear();
+            }
+        }
+        if (!updates.isEmpty()) {
+            meetings.bulkWrite(updates);
+        }
+        return migrated;
+    }
+
+    /** Adds the meeting's attendees to the autocomplete collection. */
+    public void record(List<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        for (String name : names) {
+            updates.add(new UpdateOneModel<>(Filters.eq("_id", key(name)),
+                    Updates.combine(Updates.setOnInsert("name", name), Updates.inc("meetings", 1)),
+                    new UpdateOptions().upsert(true)));
+        }
+        attendees.bulkWrite(updates);
+    }
+
+    /** Attendees whose normalized name starts with {@code prefix}, in name order. */
+    public List<Map<String, Object>> complete(String prefix, int limit) {
+        String start = key(prefix == null ? "" : prefix);
+        List<Map<String, Object>> result = new ArrayList<>();
+        // A half-open range on _id rather than a regex keeps this a pure index scan
+        attendees.find(Filters.and(Filters.gte("_id", start), Filters.lt("_id", start + Character.MAX_VALUE)))
+                .sort(Sorts.ascending("_id"))
+                .limit(limit)
+                .forEach(doc -> {
+                    Map<String, Object> attendee = new LinkedHashMap<>();
+                    attendee.put("name", doc.getString("name"));
+                    attendee.put("meetings", ((Number) doc.get("meetings")).longValue());
+                    result.add(attendee);
+                });
+        return result;
+    }
+
+    static List<String> asNames(Object attendees) {
+        List<String> names = new ArrayList<>();
+        if (attendees instanceof List) {
+            for (Object name : (List<?>) attendees) {
+                if (name != null) {
+                    names.add(name.toString());
+                }
+            }
+        } else if (attendees != null) {
+            names.add(attendees.toString());
+        }
+        return names;
+    }
+}
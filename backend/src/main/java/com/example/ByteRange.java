@@ -0,0 +1,78 @@
+package com.example;
+
+/**
+ * A single inclusive byte range parsed from an HTTP {@code Range} header.
+ * Multi-range requests are answered with the first range only.
+ */
+public final class ByteRange {
+    public final long start;
+    public final long end;
+
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long totalLength) {
+        return "bytes " + start + "-" + end + "/" + totalLength;
+    }
+
+    /**
+     * Parses {@code header} against a resource of {@code totalLength} bytes.
+     *
+     * @return the requested range, or {@code null} when the header is absent,
+     *         malformed or inverted and the whole resource should be sent
+     * @throws IllegalArgumentException when the range starts past the end (416)
+     */
+    public static ByteRange parse(String header, long totalLength) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int comma = spec.indexOf(',');
+        if (comma >= 0) {
+            spec = spec.substring(0, comma).trim();
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    throw new IllegalArgumentException("Unsatisfiable range: " + header);
+                }
+                start = Math.max(0, totalLength - suffix);
+                end = totalLength - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (last.isEmpty()) {
+                    end = totalLength - 1;
+                } else {
+                    end = Long.parseLong(last);
+                    if (end < start) {
+                        // An inverted range is invalid rather than unsatisfiable, so it is ignored (RFC 9110)
+                        return null;
+                    }
+                    end = Math.min(end, totalLength - 1);
+                }
+            }
+            if (start >= totalLength) {
+                throw new IllegalArgumentException("Unsatisfiable range: " + header);
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Summarizes a transcript chunk by chunk so that an edited transcript only
+ * costs AI calls for the chunks the edit touched.
+ *
+ * <p>Chunks are made of whole sentences (or words, for sentences too long to
+ * fit one), and where one ends depends only on its last sentence and its
+ * length: a chunk of at least {@link #MIN_CHARS} ends after a sentence whose
+ * hash picks it as a boundary, and any chunk ends once it reaches
+ * {@link #MAX_CHARS}. An edit therefore changes the chunk it
+ * falls in and, while lengths realign, the next one or two; the chunks before
+ * and after keep their content and their SHA-256. Each chunk's summary is
+ * cached under that hash, and the meeting's summary is the chunk summaries in
+ * transcript order.
+ */
+public class ChunkedSummarizer {
+    static final int MIN_CHARS = 1500;
+    static final int MAX_CHARS = 6000;
+    /** One sentence in this many ends a chunk once it is long enough, for chunks of about 3000 characters. */
+    private static final int BOUNDARY_ONE_IN = 4;
+    private static final Pattern SENTENCE_END = Pattern.compile("(?<=[.!?])\\s+|\\s*\\n\\s*");
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final AiClient aiClient;
+
+    public ChunkedSummarizer(AiClient aiClient) {
+        this.aiClient = aiClient;
+    }
+
+    /**
+     * Summarizes {@code transcript}, reusing {@code cached} chunk summaries
+     * ({@code {hash, summary}} documents, e.g. the meeting's
+     * {@code summary_chunks}) wherever a chunk is unchanged.
+     *
+     * @param context {@code date}, {@code meeting_title} and {@code attendees} sent along with every chunk
+     */
+    public Result summarize(String transcript, List<Document> cached, Map<String, Object> context)
+            throws IOException, InterruptedException {
+        Map<String, String> known = new HashMap<>();
+        for (Document chunk : cached) {
+            known.put(chunk.getString("hash"), chunk.getString("summary"));
+        }
+        List<Document> chunks = new ArrayList<>();
+        List<String> summaries = new ArrayList<>();
+        int summarized = 0;
+        for (String text : chunks(transcript)) {
+            String hash = sha256(text);
+            String summary = known.get(hash);
+            if (summary == null) {
+                Map<String, Object> request = new LinkedHashMap<>(context);
+                request.put("text", text);
+                summary = String.valueOf(aiClient.summarizeText(mapper.writeValueAsString(request)).get("summary")).strip();
+                known.put(hash, summary);
+                summarized++;
+            }
+            chunks.add(new Document("hash", hash).append("summary", summary));
+            summaries.add(summary);
+        }
+        return new Result(String.join("\n\n", summaries), chunks, summarized);
+    }
+
+    /** The transcript cut into chunks of whole sentences, with whitespace between sentences normalized. */
+    static List<String> chunks(String transcript) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        for (String sentence : SENTENCE_END.split(transcript.strip())) {
+            // Unpunctuated speech can be one endless sentence; its words are cut the same way instead
+            for (String unit : sentence.length() > MAX_CHARS ? sentence.split("\\s+") : new String[] {sentence}) {
+                if (unit.isEmpty()) {
+                    continue;
+                }
+                if (chunk.length() > 0) {
+                    chunk.append(' ');
+                }
+                chunk.append(unit);
+                int hash = unit.hashCode();
+                boolean boundary = Math.floorMod(hash ^ (hash >>> 16), BOUNDARY_ONE_IN) == 0;
+                if (chunk.length() >= MAX_CHARS || (chunk.length() >= MIN_CHARS && boundary)) {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                }
+            }
+        }
+        if (chunk.length() > 0) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
+    static String sha256(String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param chunks     the transcript's chunks as {@code {hash, summary}}, in order
+     * @param summarized how many of them needed an AI call
+     */
+    public record Result(String summary, List<Document> chunks, int summarized) {
+    }
+}
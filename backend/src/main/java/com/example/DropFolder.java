@@ -0,0 +1,384 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingests recordings that another system drops into a directory. New files
+ * are noticed through a {@link WatchService} where the file system supports
+ * it and by rescanning every poll interval regardless, since network shares
+ * often deliver no events. A file is taken once its size and modification
+ * time, and those of its sidecar, have not changed for the settle time.
+ *
+ * <p>Metadata comes from an optional sidecar, {@code <file>.json} or
+ * {@code <name>.json}, with {@code meeting_title}, {@code date} and
+ * {@code attendees} (a string or a list). A file is claimed by moving it
+ * into {@code processing/} and ends up in {@code done/} or, with a
+ * {@code .error.txt} beside it, in {@code failed/}. Files are only ever streamed, never read
+ * into memory whole. Content seen before, by SHA-256, is moved to
+ * {@code done/} without being summarized again.
+ */
+public class DropFolder implements Closeable {
+    static final Map<String, String> MEDIA_TYPES = Map.ofEntries(
+            Map.entry("mp4", "video/mp4"), Map.entry("mov", "video/quicktime"), Map.entry("avi", "video/x-msvideo"),
+            Map.entry("mkv", "video/x-matroska"), Map.entry("webm", "video/webm"),
+            Map.entry("wav", "audio/wav"), Map.entry("mp3", "audio/mpeg"), Map.entry("ogg", "audio/ogg"),
+            Map.entry("m4a", "audio/mp4"), Map.entry("flac", "audio/flac"),
+            Map.entry("txt", "text/plain"));
+    private static final Set<String> SKIPPED_SUFFIXES = Set.of(".json", ".part", ".tmp", ".crdownload", ".error.txt");
+
+    /** A claimed file ready to be summarized. */
+    public record Dropped(Path file, String name, String mediaType, String contentType, Map<String, String> form,
+                          String sha256) {
+    }
+
+    /** Where dropped files are summarized and stored. */
+    public interface Pipeline {
+        /** Whether a meeting from this content is stored or on its way. */
+        boolean isDuplicate(String sha256);
+
+        /** Summarizes and stores the file, returning once the meeting is stored. */
+        void summarize(Dropped dropped) throws Exception;
+    }
+
+    private final Path root;
+    private final Path processing;
+    private final Path done;
+    private final Path failed;
+    private final Pipeline pipeline;
+    private final ObjectMapper mapper;
+    private final long pollMillis;
+    private final long settleMillis;
+    private final boolean watch;
+    private final ExecutorService workers;
+    // Scanner thread only: last size and times seen per waiting file
+    private final Map<Path, Observed> observed = new HashMap<>();
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> hashesInFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger ingested = new AtomicInteger();
+    private final AtomicInteger duplicates = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile boolean running;
+    private WatchService watchService;
+    private Thread scanner;
+
+    private record Observed(long size, long modified, long sidecarModified, long since) {
+    }
+
+    public DropFolder(Path root, int parallelism, Duration poll, Duration settle, boolean watch, Pipeline pipeline,
+                      ObjectMapper mapper) {
+        this.root = root;
+        this.processing = root.resolve("processing");
+        this.done = root.resolve("done");
+        this.failed = root.resolve("failed");
+        this.pipeline = pipeline;
+        this.mapper = mapper;
+        this.pollMillis = Math.max(100, poll.toMillis());
+        this.settleMillis = settle.toMillis();
+        this.watch = watch;
+        this.workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "drop-folder-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(processing);
+        Files.createDirectories(done);
+        Files.createDirectories(failed);
+        // Claimed by a run that stopped before finishing them
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(processing)) {
+            for (Path file : leftovers) {
+                moveInto(root, file);
+            }
+        }
+        if (watch) {
+            try {
+                watchService = root.getFileSystem().newWatchService();
+                root.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException | UnsupportedOperationException e) {
+                System.err.println("Watching " + root + " failed, polling instead: " + e.getMessage());
+                watchService = null;
+            }
+        }
+        running = true;
+        scanner = new Thread(this::scanLoop, "drop-folder-scanner");
+        scanner.setDaemon(true);
+        scanner.start();
+        System.out.println("Ingesting files dropped into " + root + (watchService != null ? "" : " (polling)"));
+    }
+
+    /** Stops taking files; those being summarized finish, or return to the folder on the next start. */
+    @Override
+    public void close() {
+        running = false;
+        if (scanner != null) {
+            scanner.interrupt();
+        }
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        workers.shutdown();
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("directory", root.toString());
+        status.put("watching", watchService != null);
+        status.put("in_flight", inFlight.size());
+        status.put("ingested", ingested.get());
+        status.put("duplicates", duplicates.get());
+        status.put("failed", failures.get());
+        return status;
+    }
+
+    private void scanLoop() {
+        long wait = 0;
+        while (running) {
+            try {
+                if (watchService != null) {
+                    WatchKey key = watchService.poll(wait, TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        // Which files changed does not matter, the scan looks at all of them
+                        key.pollEvents();
+                        key.reset();
+                    }
+                } else {
+                    Thread.sleep(wait);
+                }
+                wait = scan();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Drop folder scan failed: " + e.getMessage());
+                wait = pollMillis;
+            }
+        }
+    }
+
+    /**
+     * Hands settled files to the workers.
+     *
+     * @return how long to wait before scanning again without an event
+     */
+    long scan() throws IOException {
+        long now = System.currentTimeMillis();
+        long wait = pollMillis;
+        Set<Path> present = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, this::isCandidate)) {
+            for (Path file : files) {
+                present.add(file);
+                if (inFlight.contains(file)) {
+                    continue;
+                }
+                Path sidecar = sidecar(file);
+                Observed seen = new Observed(Files.size(file), Files.getLastModifiedTime(file).toMillis(),
+                        sidecar != null ? Files.getLastModifiedTime(sidecar).toMillis() : 0, now);
+                Observed before = observed.get(file);
+                if (before == null || before.size() != seen.size() || before.modified() != seen.modified()
+                        || before.sidecarModified() != seen.sidecarModified()) {
+                    observed.put(file, seen);
+                    wait = Math.min(wait, settleMillis);
+                } else if (now - before.since() >= settleMillis) {
+                    observed.remove(file);
+                    inFlight.add(file);
+                    workers.execute(() -> ingest(file));
+                } else {
+                    wait = Math.min(wait, settleMillis - (now - before.since()));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // A file went away while being looked at; the next scan sees the folder as it is
+        }
+        observed.keySet().retainAll(present);
+        return Math.max(wait, 10);
+    }
+
+    private boolean isCandidate(Path file) {
+        String name = file.getFileName().toString();
+        if (name.startsWith(".") || !Files.isRegularFile(file)) {
+            return false;
+        }
+        for (String suffix : SKIPPED_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return false;
+            }
+        }
+        return MEDIA_TYPES.containsKey(extension(name));
+    }
+
+    private void ingest(Path file) {
+        Path claimed = null;
+        Path claimedSidecar = null;
+        String hash = null;
+        try {
+            Path sidecar = sidecar(file);
+            try {
+                claimed = Files.move(file, processing.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException | FileAlreadyExistsException e) {
+                // Deleted or renamed since the scan
+                return;
+            }
+            if (sidecar != null) {
+                claimedSidecar = Files.move(sidecar, processing.resolve(sidecar.getFileName()),
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            String name = file.getFileName().toString();
+            String extension = extension(name);
+            String contentType = MEDIA_TYPES.get(extension);
+            String mediaType = contentType.startsWith("video/") ? "video"
+                    : contentType.startsWith("audio/") ? "audio" : "text";
+            Map<String, String> form = form(claimed, claimedSidecar);
+            hash = sha256(claimed);
+
+            // Two copies of one recording dropped together must not both be summarized
+            if (!hashesInFlight.add(hash)) {
+                hash = null;
+            }
+            if (hash == null || pipeline.isDuplicate(hash)) {
+                System.out.println("Skipping " + name + ": the same recording was already ingested");
+                duplicates.incrementAndGet();
+                finish(done, claimed, claimedSidecar, null);
+                return;
+            }
+            pipeline.summarize(new Dropped(claimed, name, mediaType, contentType, form, hash));
+            ingested.incrementAndGet();
+            finish(done, claimed, claimedSidecar, null);
+        } catch (Exception e) {
+            if (!running) {
+                // Shutting down: the file is picked up again on the next start
+                return;
+            }
+            failures.incrementAndGet();
+            System.err.println("Ingesting " + file.getFileName() + " failed: " + e.getMessage());
+            if (claimed != null) {
+                finish(failed, claimed, claimedSidecar, e);
+            }
+        } finally {
+            if (hash != null) {
+                hashesInFlight.remove(hash);
+            }
+            inFlight.remove(file);
+        }
+    }
+
+    private Map<String, String> form(Path file, Path sidecar) throws IOException {
+        Map<String, String> form = new HashMap<>();
+        if (sidecar != null) {
+            Map<?, ?> metadata = mapper.readValue(sidecar.toFile(), Map.class);
+            Object title = metadata.get("meeting_title") != null ? metadata.get("meeting_title") : metadata.get("title");
+            Object date = metadata.get("date") != null ? metadata.get("date") : metadata.get("meeting_date");
+            Object attendees = metadata.get("attendees");
+            if (title != null) {
+                form.put("meeting_title", title.toString());
+            }
+            if (date != null) {
+                form.put("date", LocalDate.parse(date.toString()).toString());
+            }
+            if (attendees instanceof List<?> names) {
+                form.put("attendees", String.join("\n", names.stream().map(Object::toString).toList()));
+            } else if (attendees != null) {
+                form.put("attendees", attendees.toString());
+            }
+        }
+        String name = file.getFileName().toString();
+        form.putIfAbsent("meeting_title", name.substring(0, name.lastIndexOf('.')));
+        // Recording systems write the file when the meeting ends
+        form.putIfAbsent("date", LocalDate.ofInstant(Instant.ofEpochMilli(Files.getLastModifiedTime(file).toMillis()),
+                ZoneId.systemDefault()).toString());
+        return form;
+    }
+
+    /** Moves a finished file, its sidecar and any error into {@code target}. */
+    private void finish(Path target, Path file, Path sidecar, Exception error) {
+        try {
+            Path moved = moveInto(target, file);
+            if (sidecar != null) {
+                moveInto(target, sidecar);
+            }
+            if (error != null) {
+                Files.writeString(target.resolve(moved.getFileName() + ".error.txt"), String.valueOf(error.getMessage()));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to move " + file + " to " + target + ": " + e.getMessage());
+        }
+    }
+
+    /** Moves {@code file} into {@code directory}, prefixing a timestamp if the name is taken. */
+    private static Path moveInto(Path directory, Path file) throws IOException {
+        Path target = directory.resolve(file.getFileName());
+        if (Files.exists(target)) {
+            target = directory.resolve(System.currentTimeMillis() + "-" + file.getFileName());
+        }
+        return Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path sidecar(Path file) {
+        String name = file.getFileName().toString();
+        for (Path candidate : List.of(file.resolveSibling(name + ".json"),
+                file.resolveSibling(name.substring(0, name.lastIndexOf('.')) + ".json"))) {
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
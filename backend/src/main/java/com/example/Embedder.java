@@ -0,0 +1,34 @@
+package com.example;
+
+/**
+ * Turns meeting text into a fixed-size, L2-normalized vector for the
+ * semantic search index.
+ */
+public interface Embedder {
+
+    int dimensions();
+
+    float[] embed(String text) throws Exception;
+
+    /**
+     * Embeds text for the index rather than for a waiting user, where a busy
+     * service is waited for instead of refusing the call.
+     */
+    default float[] embedWaiting(String text) throws Exception {
+        return embed(text);
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example;
+
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Sends recordings to the Flask service, which transcribes and summarizes
+ * them. The multipart body is streamed from the file, so large recordings
+ * are never held in memory.
+ */
+public class FlaskTranscriptionEngine implements TranscriptionEngine {
+    private static final String[] FORM_FIELDS = {"date", "meeting_title", "attendees"};
+
+    private final AiClient aiClient;
+
+    public FlaskTranscriptionEngine(AiClient aiClient) {
+        this.aiClient = aiClient;
+    }
+
+    @Override
+    public Map<String, Object> summarize(String mediaType, Path recording, String contentType, Map<String, String> form)
+            throws Exception {
+        String boundary = "----JavaBoundary" + System.currentTimeMillis();
+        StringBuilder head = new StringBuilder();
+        head.append("--").append(boundary).append("\r\n");
+        head.append("Content-Disposition: form-data; name=\"file\"; filename=\"").append(recording.getFileName().toString()).append("\"\r\n");
+        head.append("Content-Type: ").append(contentType).append("\r\n\r\n");
+
+        StringBuilder tail = new StringBuilder("\r\n");
+        for (String field : FORM_FIELDS) {
+            String value = form.get(field);
+            if (value != null) {
+                tail.append("--").append(boundary).append("\r\n");
+                tail.append("Content-Disposition: form-data; name=\"").append(field).append("\"\r\n\r\n");
+                tail.append(value).append("\r\n");
+            }
+        }
+        tail.append("--").append(boundary).append("--\r\n");
+
+        return aiClient.summarizeMedia(mediaType, boundary, HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofString(head.toString()),
+                HttpRequest.BodyPublishers.ofFile(recording),
+                HttpRequest.BodyPublishers.ofString(tail.toString())));
+    }
+}
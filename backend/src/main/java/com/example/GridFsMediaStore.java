@@ -0,0 +1,76 @@
+package com.example;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import io.javalin.http.Context;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Stores media in a GridFS bucket next to the meeting documents, so every
+ * backend instance pointing at the same database can serve it.
+ */
+public class GridFsMediaStore implements MediaStore {
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private final GridFSBucket bucket;
+
+    public GridFsMediaStore(MongoDatabase database) {
+        this.bucket = GridFSBuckets.create(database, "media");
+    }
+
+    @Override
+    public String name() {
+        return "gridfs";
+    }
+
+    @Override
+    public Document store(Path file, String contentType, String fileName) throws IOException {
+        long length = Files.size(file);
+        GridFSUploadOptions options = new GridFSUploadOptions()
+                .chunkSizeBytes(CHUNK_SIZE)
+                .metadata(new Document("content_type", contentType));
+        ObjectId id;
+        try (InputStream in = Files.newInputStream(file)) {
+            id = bucket.uploadFromStream(fileName, in, options);
+        }
+        Files.deleteIfExists(file);
+        return MediaStore.reference(name(), id.toHexString(), contentType, fileName, length);
+    }
+
+    @Override
+    public void serve(Context ctx, Document media) throws IOException {
+        try (GridFSDownloadStream in = bucket.openDownloadStream(new ObjectId(media.getString("key")))) {
+            ByteRange range = MediaStore.prepareResponse(ctx, media, in.getGridFSFile().getLength());
+            if (range == null || range.length() == 0) {
+                return;
+            }
+            // GridFS seeks by chunk, so skipping does not read the leading data
+            long skipped = 0;
+            while (skipped < range.start) {
+                skipped += in.skip(range.start - skipped);
+            }
+            OutputStream out = ctx.res().getOutputStream();
+            byte[] buffer = new byte[64 * 1024];
+            long remaining = range.length();
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example;
+
+import java.util.Locale;
+
+/**
+ * CPU-only embedder for nodes without an embedding model. Words and word pairs
+ * are hashed into a fixed number of signed buckets with sublinear term
+ * weighting. It captures shared vocabulary rather than meaning, so it is a
+ * fallback for the AI service's {@code /embed} endpoint, not a replacement.
+ */
+public class HashingEmbedder implements Embedder {
+    private final int dimensions;
+
+    public HashingEmbedder(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] counts = new float[dimensions];
+        String[] words = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        String previous = null;
+        for (String word : words) {
+            if (word.length() < 2) {
+                continue;
+            }
+            add(counts, word.hashCode(), 1f);
+            if (previous != null) {
+                add(counts, (previous + ' ' + word).hashCode(), 0.5f);
+            }
+            previous = word;
+        }
+        // Sublinear weighting so long transcripts are not dominated by filler words
+        for (int i = 0; i < counts.length; i++) {
+            float c = counts[i];
+            counts[i] = c == 0 ? 0 : (float) Math.copySign(1 + Math.log(Math.abs(c)), c);
+        }
+        return Embedder.normalize(counts);
+    }
+
+    private void add(float[] counts, int hash, float weight) {
+        int mixed = hash * 0x9E3779B9;
+        mixed ^= mixed >>> 16;
+        int bucket = Math.floorMod(mixed, dimensions);
+        counts[bucket] += (mixed & 0x40000000) == 0 ? weight : -weight;
+    }
+}
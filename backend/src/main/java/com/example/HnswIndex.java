@@ -0,0 +1,528 @@
+package com.example;
+
+import org.bson.types.ObjectId;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approximate nearest-neighbour index (HNSW) over normalized vectors, ranked by
+ * cosine similarity.
+ *
+ * <p>Vectors live off-heap in a memory-mapped file of fixed-width records
+ * ({@code ObjectId} followed by the floats), appended as meetings are added
+ * and overwritten in place when their summary changes. The graph is kept on
+ * heap and snapshotted to a second file by {@link #save()}. On open, records
+ * that were appended after the last snapshot are linked into the graph again,
+ * so a crash only costs re-linking, never re-embedding.
+ */
+public class HnswIndex implements Closeable {
+    private static final int MAGIC = 0x484E5357;
+    private static final int HEADER_BYTES = 16;
+    private static final int ID_BYTES = 12;
+    private static final Comparator<Candidate> CLOSEST_FIRST = (a, b) -> Float.compare(a.distance, b.distance);
+    private static final Comparator<Candidate> FARTHEST_FIRST = (a, b) -> Float.compare(b.distance, a.distance);
+
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final int recordBytes;
+    private final Path vectorFile;
+    private final Path graphFile;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Visited> visited = ThreadLocal.withInitial(Visited::new);
+    private final ThreadLocal<float[]> scratch;
+
+    private FileChannel channel;
+    private MappedByteBuffer vectors;
+    // Float view of the same mapping; records start on 4-byte boundaries
+    private FloatBuffer floats;
+    private int capacity;
+    private int count;
+    // neighbours[node][level][0] is the neighbour count, followed by the node ids
+    private final List<int[][]> neighbours = new ArrayList<>();
+    private final Map<ObjectId, Integer> nodes = new HashMap<>();
+    private ObjectId maxId;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private boolean dirty;
+
+    public HnswIndex(Path directory, int dimensions, int m, int efConstruction) throws IOException {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+        this.recordBytes = ID_BYTES + dimensions * Float.BYTES;
+        this.scratch = ThreadLocal.withInitial(() -> new float[dimensions]);
+        Files.createDirectories(directory);
+        this.vectorFile = directory.resolve("vectors.bin");
+        this.graphFile = directory.resolve("graph.bin");
+        open();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Id of the most recently added vector, or {@code null} when empty. */
+    public ObjectId lastId() {
+        lock.readLock().lock();
+        try {
+            return count == 0 ? null : idAt(count - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The highest id with a vector stored, or {@code null} when empty. */
+    public ObjectId maxId() {
+        lock.readLock().lock();
+        try {
+            return maxId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Whether a vector is stored for {@code id}. */
+    public boolean contains(ObjectId id) {
+        lock.readLock().lock();
+        try {
+            return nodes.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Adds the vector for {@code id}, unless one is already stored. */
+    public void add(ObjectId id, float[] vector) throws IOException {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            if (nodes.containsKey(id)) {
+                return;
+            }
+            if (count == capacity) {
+                map((int) Math.min(Math.max(1024, capacity * 2L), (Integer.MAX_VALUE - HEADER_BYTES) / recordBytes));
+            }
+            int offset = recordOffset(count);
+            vectors.put(offset, id.toByteArray());
+            for (int i = 0; i < dimensions; i++) {
+                vectors.putFloat(offset + ID_BYTES + i * Float.BYTES, vector[i]);
+            }
+            count++;
+            vectors.putInt(8, count);
+            nodes.put(id, count - 1);
+            if (maxId == null || id.compareTo(maxId) > 0) {
+                maxId = id;
+            }
+            link(count - 1);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores {@code vector} as the one for {@code id}, overwriting the stored
+     * vector in place and linking the node to its new neighbours. Links other
+     * nodes still hold to it are left; they only cost a detour while searching.
+     */
+    public void replace(ObjectId id, float[] vector) throws IOException {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        lock.writeLock().lock();
+        try {
+            Integer node = nodes.get(id);
+            if (node == null) {
+                add(id, vector);
+                return;
+            }
+            int offset = recordOffset(node);
+            for (int i = 0; i < dimensions; i++) {
+                vectors.putFloat(offset + ID_BYTES + i * Float.BYTES, vector[i]);
+            }
+            if (count > 1) {
+                connectNeighbours(node, neighbours.get(node).length - 1);
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** The ids of the {@code k} nearest vectors, closest first. */
+    public List<ObjectId> search(float[] query, int k, int ef) {
+        lock.readLock().lock();
+        try {
+            List<ObjectId> ids = new ArrayList<>(k);
+            if (entryPoint < 0) {
+                return ids;
+            }
+            int current = entryPoint;
+            for (int level = maxLevel; level > 0; level--) {
+                current = greedy(query, current, level);
+            }
+            PriorityQueue<Candidate> found = searchLayer(query, current, Math.max(ef, k), 0);
+            List<Candidate> sorted = new ArrayList<>(found);
+            sorted.sort(CLOSEST_FIRST);
+            for (int i = 0; i < Math.min(k, sorted.size()); i++) {
+                ids.add(idAt(sorted.get(i).node));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Writes the graph snapshot if anything changed since the last one. */
+    public void save() throws IOException {
+        lock.readLock().lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            vectors.force();
+            Path temp = graphFile.resolveSibling("graph.bin.tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(count);
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+                for (int node = 0; node < count; node++) {
+                    int[][] levels = neighbours.get(node);
+                    out.writeInt(levels.length);
+                    for (int[] links : levels) {
+                        out.writeInt(links[0]);
+                        for (int i = 1; i <= links[0]; i++) {
+                            out.writeInt(links[i]);
+                        }
+                    }
+                }
+            }
+            Files.move(temp, graphFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        save();
+        channel.close();
+    }
+
+    private void open() throws IOException {
+        boolean existing = Files.exists(vectorFile);
+        channel = FileChannel.open(vectorFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        int stored = 0;
+        if (existing && channel.size() >= HEADER_BYTES) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) == MAGIC && header.getInt(4) == dimensions) {
+                stored = header.getInt(8);
+            } else {
+                // Different embedder or a foreign file: start over
+                channel.truncate(0);
+                Files.deleteIfExists(graphFile);
+            }
+        }
+        map(Math.max(1024, stored));
+        vectors.putInt(0, MAGIC);
+        vectors.putInt(4, dimensions);
+        count = stored;
+        vectors.putInt(8, count);
+        for (int node = 0; node < count; node++) {
+            ObjectId id = idAt(node);
+            nodes.put(id, node);
+            if (maxId == null || id.compareTo(maxId) > 0) {
+                maxId = id;
+            }
+        }
+
+        int linked = loadGraph();
+        for (int node = linked; node < count; node++) {
+            link(node);
+            dirty = true;
+        }
+    }
+
+    private int loadGraph() throws IOException {
+        if (!Files.exists(graphFile)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(graphFile)))) {
+            if (in.readInt() != MAGIC) {
+                return 0;
+            }
+            int nodes = in.readInt();
+            if (nodes > count) {
+                return 0;
+            }
+            entryPoint = in.readInt();
+            maxLevel = in.readInt();
+            for (int node = 0; node < nodes; node++) {
+                int[][] levels = new int[in.readInt()][];
+                for (int level = 0; level < levels.length; level++) {
+                    int size = in.readInt();
+                    int[] links = new int[maxConnections(level) + 1];
+                    links[0] = size;
+                    for (int i = 1; i <= size; i++) {
+                        links[i] = in.readInt();
+                    }
+                    levels[level] = links;
+                }
+                neighbours.add(levels);
+            }
+            return nodes;
+        }
+    }
+
+    private void map(int newCapacity) throws IOException {
+        long bytes = HEADER_BYTES + (long) newCapacity * recordBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            // A single mapping is limited to 2 GB; shard by time range before reaching it
+            throw new IllegalStateException("Vector file would exceed 2 GB at " + newCapacity + " vectors");
+        }
+        capacity = newCapacity;
+        vectors = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        // Little-endian matches x86/ARM, so float reads need no byte swapping
+        vectors.order(ByteOrder.LITTLE_ENDIAN);
+        floats = vectors.asFloatBuffer();
+    }
+
+    private void link(int node) {
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        int[][] levels = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            levels[l] = new int[maxConnections(l) + 1];
+        }
+        neighbours.add(levels);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        connectNeighbours(node, level);
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /** Replaces the node's links on each level up to {@code level} with its closest nodes, both ways. */
+    private void connectNeighbours(int node, int level) {
+        float[] vector = vectorAt(node);
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedy(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            PriorityQueue<Candidate> candidates = searchLayer(vector, current, efConstruction, l);
+            List<Candidate> closest = new ArrayList<>(candidates);
+            closest.removeIf(candidate -> candidate.node == node);
+            if (closest.isEmpty()) {
+                continue;
+            }
+            closest.sort(CLOSEST_FIRST);
+            current = closest.get(0).node;
+            neighbours.get(node)[l][0] = 0;
+            int max = maxConnections(l);
+            for (int i = 0; i < Math.min(m, closest.size()); i++) {
+                int other = closest.get(i).node;
+                connect(node, other, l, max);
+                connect(other, node, l, max);
+            }
+        }
+    }
+
+    private void connect(int from, int to, int level, int max) {
+        int[] links = neighbours.get(from)[level];
+        for (int i = 1; i <= links[0]; i++) {
+            if (links[i] == to) {
+                return;
+            }
+        }
+        if (links[0] < max) {
+            links[++links[0]] = to;
+            return;
+        }
+        // Full: replace the farthest neighbour if the new one is closer
+        float[] origin = vectorAt(from);
+        int worst = -1;
+        float worstDistance = distance(origin, to);
+        for (int i = 1; i <= links[0]; i++) {
+            float d = distance(origin, links[i]);
+            if (d > worstDistance) {
+                worstDistance = d;
+                worst = i;
+            }
+        }
+        if (worst > 0) {
+            links[worst] = to;
+        }
+    }
+
+    private int greedy(float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] links = neighbours.get(current)[level];
+            for (int i = 1; i <= links[0]; i++) {
+                float d = distance(query, links[i]);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = links[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private PriorityQueue<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        Visited seen = visited.get();
+        seen.reset(count);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(CLOSEST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(FARTHEST_FIRST);
+        Candidate first = new Candidate(start, distance(query, start));
+        candidates.add(first);
+        results.add(first);
+        seen.mark(start);
+
+        while (!candidates.isEmpty()) {
+            Candidate closest = candidates.poll();
+            if (closest.distance > results.peek().distance && results.size() >= ef) {
+                break;
+            }
+            int[][] levels = neighbours.get(closest.node);
+            if (level >= levels.length) {
+                continue;
+            }
+            int[] links = levels[level];
+            for (int i = 1; i <= links[0]; i++) {
+                int next = links[i];
+                if (!seen.mark(next)) {
+                    continue;
+                }
+                float d = distance(query, next);
+                if (results.size() < ef || d < results.peek().distance) {
+                    Candidate candidate = new Candidate(next, d);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    private int recordOffset(int node) {
+        return HEADER_BYTES + node * recordBytes;
+    }
+
+    private ObjectId idAt(int node) {
+        byte[] id = new byte[ID_BYTES];
+        vectors.get(recordOffset(node), id);
+        return new ObjectId(id);
+    }
+
+    private float[] vectorAt(int node) {
+        float[] vector = new float[dimensions];
+        floats.get((recordOffset(node) + ID_BYTES) / Float.BYTES, vector, 0, dimensions);
+        return vector;
+    }
+
+    /**
+     * Cosine distance against a mapped record. The record is bulk-copied into a
+     * per-thread scratch array, which is much cheaper than element-wise reads
+     * from a mapped buffer and lets the JIT vectorize the dot product.
+     */
+    private float distance(float[] query, int node) {
+        float[] other = scratch.get();
+        floats.get((recordOffset(node) + ID_BYTES) / Float.BYTES, other, 0, dimensions);
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * other[i];
+        }
+        return 1 - dot;
+    }
+
+    private static final class Candidate {
+        final int node;
+        final float distance;
+
+        Candidate(int node, float distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    /** Per-thread visited marks, cleared in O(1) by bumping the epoch. */
+    private static final class Visited {
+        private int[] marks = new int[0];
+        private int epoch;
+
+        void reset(int size) {
+            if (marks.length < size) {
+                marks = new int[Math.max(size, marks.length * 2)];
+                epoch = 0;
+            }
+            epoch++;
+            if (epoch == Integer.MAX_VALUE) {
+                java.util.Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        /** @return {@code true} if the node was not visited yet */
+        boolean mark(int node) {
+            if (marks[node] == epoch) {
+                return false;
+            }
+            marks[node] = epoch;
+            return true;
+        }
+    }
+}
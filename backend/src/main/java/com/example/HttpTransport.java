@@ -0,0 +1,62 @@
+package com.example;
+
+import io.javalin.compression.Brotli;
+import io.javalin.compression.CompressionStrategy;
+import io.javalin.compression.Gzip;
+import io.javalin.config.JavalinConfig;
+import io.javalin.config.SizeUnit;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+/**
+ * Wire-level settings for the API server: response compression and a
+ * connector that speaks both HTTP/1.1 and cleartext HTTP/2 (h2c, by prior
+ * knowledge or {@code Upgrade}), so clients can multiplex requests over one
+ * connection.
+ */
+public class HttpTransport {
+    public static final int GZIP_LEVEL = 6;
+    public static final int BROTLI_LEVEL = 6;
+
+    /**
+     * Applies {@link AppConfig#compression} ({@code brotli}, which falls back to
+     * gzip for clients without it, {@code gzip} or {@code none}), the Jetty
+     * thread pool and the upload size limit.
+     */
+    public static void configure(JavalinConfig config, AppConfig settings) {
+        CompressionStrategy strategy = switch (settings.compression) {
+            case "brotli" -> new CompressionStrategy(new Brotli(BROTLI_LEVEL), new Gzip(GZIP_LEVEL));
+            case "gzip" -> new CompressionStrategy(null, new Gzip(GZIP_LEVEL));
+            case "none" -> CompressionStrategy.NONE;
+            default -> throw new IllegalArgumentException("Unknown compression: " + settings.compression);
+        };
+        if (strategy != CompressionStrategy.NONE) {
+            strategy.setMinSizeForCompression(settings.compressionMinBytes);
+        }
+        config.compression.custom(strategy);
+
+        // Admission control enforces lower limits set at runtime; these are the hard ceilings
+        config.http.maxRequestSize = settings.maxUploadBytes;
+        config.jetty.multipartConfig.maxFileSize(settings.maxUploadBytes, SizeUnit.BYTES);
+        config.jetty.multipartConfig.maxTotalRequestSize(settings.maxUploadBytes, SizeUnit.BYTES);
+
+        config.jetty.server(() -> {
+            QueuedThreadPool threadPool = new QueuedThreadPool(settings.jettyMaxThreads, settings.jettyMinThreads,
+                    (int) settings.jettyIdleTimeout.toMillis());
+            threadPool.setName("JettyServerThreadPool");
+            Server server = new Server(threadPool);
+            HttpConfiguration httpConfig = new HttpConfiguration();
+            httpConfig.setSendServerVersion(false);
+            ServerConnector connector = new ServerConnector(server,
+                    new HttpConnectionFactory(httpConfig), new HTTP2CServerConnectionFactory(httpConfig));
+            connector.setPort(settings.port);
+            connector.setIdleTimeout(settings.jettyIdleTimeout.toMillis());
+            server.addConnector(connector);
+            return server;
+        });
+    }
+}
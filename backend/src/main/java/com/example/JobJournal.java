@@ -0,0 +1,188 @@
+package com.example;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Local journal of summarization jobs that have been accepted but not yet
+ * stored. Each job is a directory holding the upload, {@code request.json}
+ * with everything needed to call the AI service again, and, once the AI
+ * service has answered, {@code result.json}. The directory is deleted when the
+ * meeting is in MongoDB, so whatever is left after a crash or an expired
+ * shutdown grace period is work to resume on the next start.
+ */
+public class JobJournal {
+    private static final String REQUEST = "request.json";
+    private static final String RESULT = "result.json";
+    private static final String FAILED_PREFIX = "failed-";
+
+    private final Path root;
+    private final ObjectMapper mapper;
+    private int active;
+
+    public JobJournal(Path root, ObjectMapper mapper) throws IOException {
+        this.root = root;
+        this.mapper = mapper;
+        Files.createDirectories(root);
+    }
+
+    public Entry begin() throws IOException {
+        Entry entry = new Entry(Files.createDirectory(root.resolve(new ObjectId().toHexString())));
+        synchronized (this) {
+            active++;
+        }
+        return entry;
+    }
+
+    /** Jobs left over from a previous run, oldest first. */
+    public List<Entry> pending() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dir : dirs) {
+                if (dir.getFileName().toString().startsWith(FAILED_PREFIX)) {
+                    continue;
+                }
+                if (Files.exists(dir.resolve(REQUEST))) {
+                    entries.add(new Entry(dir));
+                } else {
+                    // Died before the request was recorded; nothing to resume
+                    deleteRecursively(dir);
+                }
+            }
+        }
+        entries.sort(Comparator.comparing(entry -> entry.dir.getFileName().toString()));
+        synchronized (this) {
+            active += entries.size();
+        }
+        return entries;
+    }
+
+    /** Waits until every job begun or resumed has finished, or the timeout passes. */
+    public synchronized boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (active > 0) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    public synchronized int active() {
+        return active;
+    }
+
+    private synchronized void finished() {
+        active--;
+        notifyAll();
+    }
+
+    static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /** One journaled job. Exactly one of {@link #complete}, {@link #abandon} or {@link #release} ends it. */
+    public class Entry implements SummaryJob {
+        private final Path dir;
+        private boolean ended;
+
+        private Entry(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        public String id() {
+            return dir.getFileName().toString();
+        }
+
+        @Override
+        public Path file(String name) {
+            return dir.resolve(name);
+        }
+
+        public void writeRequest(Map<String, Object> request) throws IOException {
+            write(REQUEST, request);
+        }
+
+        public Map<String, Object> readRequest() throws IOException {
+            return read(REQUEST);
+        }
+
+        /** Records the AI response (and later the stored media) so it is never paid for twice. */
+        @Override
+        public void writeResult(Map<String, Object> result) throws IOException {
+            write(RESULT, result);
+        }
+
+        @Override
+        public Map<String, Object> readResult() throws IOException {
+            return Files.exists(dir.resolve(RESULT)) ? read(RESULT) : null;
+        }
+
+        /** The job's meeting is stored; forget it. */
+        @Override
+        public void complete() throws IOException {
+            end();
+            deleteRecursively(dir);
+        }
+
+        /** The job failed and its client was told so; forget it. */
+        public void abandon() {
+            end();
+            try {
+                deleteRecursively(dir);
+            } catch (IOException e) {
+                System.err.println("Failed to delete journal entry " + id() + ": " + e.getMessage());
+            }
+        }
+
+        /** Keep the job on disk for a later attempt, e.g. because the server is stopping. */
+        public void release() {
+            end();
+        }
+
+        /** Moves a job that keeps failing aside so it is not retried on every start. */
+        public void quarantine() throws IOException {
+            end();
+            Files.move(dir, root.resolve(FAILED_PREFIX + id()), StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private synchronized void end() {
+            if (!ended) {
+                ended = true;
+                finished();
+            }
+        }
+
+        private void write(String name, Map<String, Object> value) throws IOException {
+            Path temp = dir.resolve(name + ".tmp");
+            mapper.writeValue(temp.toFile(), value);
+            Files.move(temp, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private Map<String, Object> read(String name) throws IOException {
+            return mapper.readValue(dir.resolve(name).toFile(), new TypeReference<Map<String, Object>>() {});
+        }
+    }
+}
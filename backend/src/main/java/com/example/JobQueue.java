@@ -0,0 +1,317 @@
+package com.example;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarization jobs shared by every backend instance, for running several
+ * instances behind a load balancer.
+ *
+ * <p>Jobs live in the {@code summary_jobs} collection and their uploads in the
+ * {@code job_uploads} GridFS bucket, so the instance that accepted a request
+ * need not be the one that runs it. Workers claim the oldest runnable job with
+ * a single {@code findOneAndUpdate}, which sets them as owner with a lease;
+ * a heartbeat keeps extending the lease while the job runs. When an instance
+ * dies its leases run out and any other instance re-claims the jobs, picking
+ * up the AI response recorded on the job if there already is one.
+ */
+public class JobQueue {
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long MAX_IDLE_POLL_MILLIS = 2000;
+
+    /** Runs a claimed job and returns the AI response. */
+    public interface Runner {
+        Map<String, Object> run(SummaryJob job, Map<String, Object> request) throws Exception;
+    }
+
+    private final MongoCollection<Document> jobs;
+    private final GridFSBucket uploads;
+    private final Runner runner;
+    private final String owner;
+    private final int workers;
+    private final long leaseMillis;
+    private final Set<ObjectId> claimed = ConcurrentHashMap.newKeySet();
+    private final List<Thread> threads = new ArrayList<>();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "job-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean stopped;
+
+    public JobQueue(MongoDatabase database, Runner runner, int workers, long leaseMillis) {
+        this.jobs = database.getCollection("summary_jobs");
+        this.uploads = GridFSBuckets.create(database, "job_uploads");
+        this.runner = runner;
+        this.workers = workers;
+        this.leaseMillis = leaseMillis;
+        this.owner = hostName() + ":" + ProcessHandle.current().pid() + ":" + new ObjectId().toHexString();
+    }
+
+    public void start() {
+        jobs.createIndex(Indexes.ascending("state", "created_at"));
+        jobs.createIndex(Indexes.ascending("state", "lease_until"));
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "job-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        heartbeat.scheduleAtFixedRate(this::renewLeases, leaseMillis / 3, leaseMillis / 3, TimeUnit.MILLISECONDS);
+        System.out.println("Job queue worker " + owner + " started with " + workers + " workers");
+    }
+
+    /** Enqueues a job; {@code upload} (may be {@code null}) is stored in GridFS as the file {@code request.upload}. */
+    public ObjectId submit(Map<String, Object> request, InputStream upload) {
+        ObjectId id = new ObjectId();
+        Document doc = new Document("_id", id)
+                .append("state", QUEUED)
+                .append("request", new Document(request))
+                .append("attempts", 0)
+                .append("created_at", new Date());
+        if (upload != null) {
+            doc.append("upload_id", uploads.uploadFromStream(id.toHexString(), upload));
+        }
+        jobs.insertOne(doc);
+        return id;
+    }
+
+    public Document find(ObjectId id) {
+        return jobs.find(Filters.eq("_id", id)).first();
+    }
+
+    /** Whether a queued or running job has {@code value} at {@code field} of its request. */
+    public boolean hasUnfinished(String field, Object value) {
+        return jobs.find(Filters.and(Filters.in("state", QUEUED, RUNNING), Filters.eq("request." + field, value)))
+                .first() != null;
+    }
+
+    /** Polls until the job is done or failed; returns its last known state if {@code timeoutMillis} passes first. */
+    public Document await(ObjectId id, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long poll = 100;
+        while (true) {
+            Document job = find(id);
+            if (job == null || DONE.equals(job.getString("state")) || FAILED.equals(job.getString("state"))
+                    || System.currentTimeMillis() >= deadline) {
+                return job;
+            }
+            Thread.sleep(poll);
+            poll = Math.min(poll * 2, 1000);
+        }
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("owner", owner);
+        status.put("workers", workers);
+        status.put("running_here", claimed.size());
+        Map<String, Object> states = new LinkedHashMap<>();
+        jobs.aggregate(List.of(Aggregates.group("$state", Accumulators.sum("count", 1))))
+                .forEach(doc -> states.put(doc.getString("_id"), doc.get("count")));
+        status.put("jobs", states);
+        return status;
+    }
+
+    /**
+     * Stops claiming new jobs, gives running ones {@code graceMillis} to finish
+     * and hands back whatever is left so another instance can take it over
+     * immediately instead of waiting for the lease to expire.
+     */
+    public void stop(long graceMillis) throws InterruptedException {
+        stopped = true;
+        long deadline = System.currentTimeMillis() + graceMillis;
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        heartbeat.shutdownNow();
+        for (ObjectId id : claimed) {
+            jobs.updateOne(Filters.and(Filters.eq("_id", id), Filters.eq("owner", owner), Filters.eq("state", RUNNING)),
+                    Updates.combine(Updates.set("state", QUEUED), Updates.unset("owner"), Updates.unset("lease_until")));
+        }
+        threads.forEach(Thread::interrupt);
+    }
+
+    private void work() {
+        long idle = 50;
+        while (!stopped) {
+            try {
+                Document job = claim();
+                if (job == null) {
+                    Thread.sleep(idle);
+                    idle = Math.min(idle * 2, MAX_IDLE_POLL_MILLIS);
+                    continue;
+                }
+                idle = 50;
+                run(job);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                System.err.println("Job worker error: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Atomically takes the oldest queued job, or a running one whose owner stopped renewing its lease. */
+    private Document claim() {
+        Date now = new Date();
+        Bson runnable = Filters.or(
+                Filters.eq("state", QUEUED),
+                Filters.and(Filters.eq("state", RUNNING), Filters.lt("lease_until", now)));
+        Document job = jobs.findOneAndUpdate(runnable,
+                Updates.combine(
+                        Updates.set("state", RUNNING),
+                        Updates.set("owner", owner),
+                        Updates.set("lease_until", new Date(now.getTime() + leaseMillis)),
+                        Updates.set("claimed_at", now),
+                        Updates.inc("attempts", 1)),
+                new FindOneAndUpdateOptions().sort(Sorts.ascending("created_at")).returnDocument(ReturnDocument.AFTER));
+        if (job != null) {
+            claimed.add(job.getObjectId("_id"));
+        }
+        return job;
+    }
+
+    private void run(Document job) {
+        ObjectId id = job.getObjectId("_id");
+        Path workDir = null;
+        try {
+            if (job.getInteger("attempts", 1) > MAX_ATTEMPTS) {
+                finish(id, Updates.combine(Updates.set("state", FAILED),
+                        Updates.set("error", "Gave up after " + MAX_ATTEMPTS + " attempts")));
+                return;
+            }
+            workDir = Files.createTempDirectory("queue-job-");
+            Document request = job.get("request", Document.class);
+            if (job.get("upload_id") != null && request.getString("upload") != null) {
+                try (OutputStream out = Files.newOutputStream(workDir.resolve(request.getString("upload")))) {
+                    uploads.downloadToStream(job.getObjectId("upload_id"), out);
+                }
+            }
+            runner.run(new ClaimedJob(job, workDir), request);
+        } catch (Exception e) {
+            System.err.println("Job " + id + " failed: " + e.getMessage());
+            // Back in the queue for any instance, unless it has used up its attempts
+            boolean lastAttempt = job.getInteger("attempts", 1) >= MAX_ATTEMPTS;
+            finish(id, Updates.combine(
+                    Updates.set("state", lastAttempt && !stopped ? FAILED : QUEUED),
+                    Updates.set("error", String.valueOf(e.getMessage()))));
+        } finally {
+            claimed.remove(id);
+            if (workDir != null) {
+                try {
+                    JobJournal.deleteRecursively(workDir);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete job work directory: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Applies {@code update} and gives up ownership, if this worker still owns the job. */
+    private boolean finish(ObjectId id, Bson update) {
+        return jobs.updateOne(Filters.and(Filters.eq("_id", id), Filters.eq("owner", owner)),
+                Updates.combine(update, Updates.unset("owner"), Updates.unset("lease_until"),
+                        Updates.set("finished_at", new Date()))).getMatchedCount() > 0;
+    }
+
+    private void renewLeases() {
+        for (ObjectId id : claimed) {
+            try {
+                jobs.updateOne(Filters.and(Filters.eq("_id", id), Filters.eq("owner", owner)),
+                        Updates.set("lease_until", new Date(System.currentTimeMillis() + leaseMillis)));
+            } catch (Exception e) {
+                System.err.println("Failed to renew lease for job " + id + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+
+    private class ClaimedJob implements SummaryJob {
+        private final Document job;
+        private final Path workDir;
+
+        ClaimedJob(Document job, Path workDir) {
+            this.job = job;
+            this.workDir = workDir;
+        }
+
+        @Override
+        public String id() {
+            return job.getObjectId("_id").toHexString();
+        }
+
+        @Override
+        public Path file(String name) {
+            return workDir.resolve(name);
+        }
+
+        @Override
+        public Map<String, Object> readResult() {
+            return job.get("result", Document.class);
+        }
+
+        @Override
+        public void writeResult(Map<String, Object> result) {
+            Document value = new Document(result);
+            boolean owned = jobs.updateOne(
+                    Filters.and(Filters.eq("_id", job.getObjectId("_id")), Filters.eq("owner", owner)),
+                    Updates.set("result", value)).getMatchedCount() > 0;
+            if (!owned) {
+                // Our lease ran out and another instance has the job now
+                throw new IllegalStateException("Lost the lease on job " + id());
+            }
+            job.put("result", value);
+        }
+
+        @Override
+        public void complete() {
+            finish(job.getObjectId("_id"), Updates.set("state", DONE));
+            if (job.get("upload_id") != null) {
+                uploads.delete(job.getObjectId("upload_id"));
+            }
+        }
+    }
+}
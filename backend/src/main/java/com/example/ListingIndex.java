@@ -0,0 +1,362 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local, memory-mapped listing index so the View Summaries tab can list and
+ * filter meetings by date without a MongoDB round trip.
+ *
+ * <p>{@code listing.idx} holds fixed-width records sorted by meeting date then
+ * id: {@code int yyyymmdd, 12-byte ObjectId, long titleOffset, long
+ * summaryOffset}. The offsets point into {@code listing.str}, an append-only
+ * file of length-prefixed UTF-8 strings. Range and recent-N lookups are binary
+ * searches over the mapped records, and serialization reuses per-thread
+ * scratch buffers, so no objects are allocated per record.
+ *
+ * <p>MongoDB stays the source of truth: the files are rebuilt from the
+ * collection whenever they are missing.
+ */
+public class ListingIndex implements Closeable {
+    private static final int MAGIC = 0x4C535449;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 32;
+    private static final int ID_OFFSET = 4;
+    private static final int TITLE_OFFSET = 16;
+    private static final int SUMMARY_OFFSET = 24;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Path recordFile;
+    private final Path stringFile;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private FileChannel records;
+    private FileChannel strings;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+
+    public ListingIndex(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.recordFile = directory.resolve("listing.idx");
+        this.stringFile = directory.resolve("listing.str");
+    }
+
+    /**
+     * Opens the index files.
+     *
+     * @return {@code false} if they were missing or invalid and were reset, in
+     *         which case the caller must {@link #rebuild} the index
+     */
+    public boolean open() throws IOException {
+        lock.writeLock().lock();
+        try {
+            boolean valid = Files.exists(recordFile) && Files.exists(stringFile);
+            openFiles();
+            if (valid && buffer.getInt(0) == MAGIC) {
+                count = buffer.getInt(4);
+                return true;
+            }
+            records.truncate(0);
+            strings.truncate(0);
+            map(1024);
+            buffer.putInt(0, MAGIC);
+            count = 0;
+            buffer.putInt(4, 0);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Re-reads every meeting; the partitions are read in date order so records are appended in order. */
+    public void rebuild(MeetingPartitions meetings) throws IOException {
+        lock.writeLock().lock();
+        try {
+            strings.truncate(0);
+            count = 0;
+            buffer.putInt(4, 0);
+            try (MeetingPartitions.Cursor cursor = meetings.find(null, null, null,
+                    Projections.include("meeting_date", "meeting_title", "summary"), false)) {
+                while (cursor.hasNext()) {
+                    addLocked(cursor.next());
+                }
+            }
+            buffer.force();
+            System.out.println("Listing index rebuilt with " + count + " meetings");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the meeting unless it is already listed, so it may be called more
+     * than once for the same meeting: once by the instance that stored it and
+     * again from the change stream.
+     */
+    public void add(Document meeting) throws IOException {
+        lock.writeLock().lock();
+        try {
+            addLocked(meeting);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Points the meeting's record at its new {@code summary}; the old string
+     * stays in {@code listing.str} until the next rebuild.
+     *
+     * @return whether the meeting was found
+     */
+    public boolean updateSummary(Document meeting) throws IOException {
+        String date = meeting.getString("meeting_date");
+        if (date == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            int index = indexOf(toInt(date), meeting.getObjectId("_id"));
+            if (index < 0) {
+                return false;
+            }
+            long summaryOffset = appendString(Objects.toString(meeting.get("summary"), ""));
+            buffer.putLong(recordOffset(index) + SUMMARY_OFFSET, summaryOffset);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Meetings dated within {@code [startDate, endDate]} (either may be
+     * {@code null}), newest first, at most {@code limit}, as a JSON array.
+     */
+    public byte[] listJson(String startDate, String endDate, int limit) throws IOException {
+        lock.readLock().lock();
+        try {
+            int from = startDate == null ? 0 : lowerBound(toInt(startDate));
+            int to = endDate == null ? count : lowerBound(toInt(endDate) + 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+                json.writeStartArray();
+                for (int i = to - 1; i >= from && to - 1 - i < limit; i--) {
+                    writeRecord(json, i);
+                }
+                json.writeEndArray();
+            }
+            return out.toByteArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+            records.close();
+            strings.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Document meeting) throws IOException {
+        String date = meeting.getString("meeting_date");
+        if (date == null) {
+            return;
+        }
+        int day = toInt(date);
+        ObjectId id = meeting.getObjectId("_id");
+        if (indexOf(day, id) >= 0) {
+            return;
+        }
+        // Strings first, so a crash never leaves a record pointing past the end of listing.str
+        long titleOffset = appendString(Objects.toString(meeting.get("meeting_title"), ""));
+        long summaryOffset = appendString(Objects.toString(meeting.get("summary"), ""));
+
+        if (count == capacity) {
+            map(capacity * 2);
+        }
+        // Insert after every record with the same or an earlier date; new meetings usually land at the end
+        int position = lowerBound(day + 1);
+        int offset = recordOffset(position);
+        if (position < count) {
+            buffer.put(offset + RECORD_BYTES, buffer, offset, (count - position) * RECORD_BYTES);
+        }
+        buffer.putInt(offset, day);
+        buffer.put(offset + ID_OFFSET, id.toByteArray());
+        buffer.putLong(offset + TITLE_OFFSET, titleOffset);
+        buffer.putLong(offset + SUMMARY_OFFSET, summaryOffset);
+        count++;
+        buffer.putInt(4, count);
+    }
+
+    private void writeRecord(JsonGenerator json, int index) throws IOException {
+        Scratch s = scratch.get();
+        int offset = recordOffset(index);
+        json.writeStartObject();
+
+        json.writeFieldName("_id");
+        for (int i = 0; i < 12; i++) {
+            int b = buffer.get(offset + ID_OFFSET + i) & 0xff;
+            s.chars[i * 2] = HEX[b >>> 4];
+            s.chars[i * 2 + 1] = HEX[b & 0xf];
+        }
+        json.writeString(s.chars, 0, 24);
+
+        json.writeFieldName("meeting_date");
+        int day = buffer.getInt(offset);
+        writeDigits(s.chars, 0, day / 10000, 4);
+        s.chars[4] = '-';
+        writeDigits(s.chars, 5, day / 100 % 100, 2);
+        s.chars[7] = '-';
+        writeDigits(s.chars, 8, day % 100, 2);
+        json.writeString(s.chars, 0, 10);
+
+        json.writeFieldName("meeting_title");
+        int length = readString(buffer.getLong(offset + TITLE_OFFSET), s);
+        json.writeUTF8String(s.bytes, 0, length);
+
+        json.writeFieldName("summary");
+        length = readString(buffer.getLong(offset + SUMMARY_OFFSET), s);
+        json.writeUTF8String(s.bytes, 0, length);
+
+        json.writeEndObject();
+    }
+
+    private int readString(long position, Scratch s) throws IOException {
+        s.length.clear();
+        strings.read(s.length, position);
+        int length = s.length.getInt(0);
+        s.ensure(length);
+        ByteBuffer target = ByteBuffer.wrap(s.bytes, 0, length);
+        long at = position + Integer.BYTES;
+        while (target.hasRemaining()) {
+            int read = strings.read(target, at);
+            if (read < 0) {
+                throw new IOException("Listing string file is truncated");
+            }
+            at += read;
+        }
+        return length;
+    }
+
+    private long appendString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+        entry.putInt(bytes.length).put(bytes).flip();
+        long position = strings.size();
+        long at = position;
+        while (entry.hasRemaining()) {
+            at += strings.write(entry, at);
+        }
+        return position;
+    }
+
+    /** The record of the meeting, among those of its day, or -1. */
+    private int indexOf(int day, ObjectId id) {
+        byte[] wanted = id.toByteArray();
+        byte[] candidate = new byte[wanted.length];
+        for (int i = lowerBound(day); i < count && buffer.getInt(recordOffset(i)) == day; i++) {
+            buffer.get(recordOffset(i) + ID_OFFSET, candidate);
+            if (Arrays.equals(wanted, candidate)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** First record whose date is {@code >= day}. */
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(recordOffset(mid)) < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void openFiles() throws IOException {
+        records = FileChannel.open(recordFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        strings = FileChannel.open(stringFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long existing = Math.max(0, (records.size() - HEADER_BYTES) / RECORD_BYTES);
+        map((int) Math.max(1024, existing));
+    }
+
+    private void map(int newCapacity) throws IOException {
+        capacity = newCapacity;
+        buffer = records.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int recordOffset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+
+    static int toInt(String date) {
+        return Integer.parseInt(date.substring(0, 4)) * 10000
+                + Integer.parseInt(date.substring(5, 7)) * 100
+                + Integer.parseInt(date.substring(8, 10));
+    }
+
+    private static void writeDigits(char[] target, int offset, int value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            target[offset + i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /** Reusable per-thread buffers for serialization. */
+    private static final class Scratch {
+        final char[] chars = new char[24];
+        final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] bytes = new byte[4096];
+
+        void ensure(int size) {
+            if (bytes.length < size) {
+                bytes = new byte[Math.max(size, bytes.length * 2)];
+            }
+        }
+    }
+}
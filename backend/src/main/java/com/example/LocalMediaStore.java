@@ -0,0 +1,115 @@
+package com.example;
+
+import io.javalin.http.Context;
+import org.bson.Document;
+import org.eclipse.jetty.server.HttpOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed media store on the local file system. Files are keyed by
+ * their SHA-256 so re-uploading the same recording does not use more disk.
+ */
+public class LocalMediaStore implements MediaStore {
+    private static final long MAP_CHUNK = 64L * 1024 * 1024;
+
+    private final Path root;
+
+    public LocalMediaStore(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public Document store(Path file, String contentType, String fileName) throws IOException {
+        String hash = sha256(file);
+        Path target = pathFor(hash);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(file);
+        } else {
+            Files.createDirectories(target.getParent());
+            // A temp file per upload, so concurrent uploads of the same recording never share one
+            Path part = Files.createTempFile(target.getParent(), hash, ".part");
+            try {
+                try {
+                    Files.move(file, part, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    // Temp dir lives on another file system
+                    Files.move(file, part, StandardCopyOption.REPLACE_EXISTING);
+                }
+                // Same hash, same bytes: replacing a file another upload just moved in is harmless
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(part);
+            }
+        }
+        return MediaStore.reference(name(), hash, contentType, fileName, Files.size(target));
+    }
+
+    @Override
+    public void serve(Context ctx, Document media) throws IOException {
+        Path file = pathFor(media.getString("key"));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteRange range = MediaStore.prepareResponse(ctx, media, channel.size());
+            if (range == null || range.length() == 0) {
+                return;
+            }
+            OutputStream out = ctx.res().getOutputStream();
+            if (out instanceof HttpOutput) {
+                // Jetty writes large direct buffers without copying them into its
+                // aggregate buffer, so mapped chunks go straight from the page cache
+                HttpOutput httpOutput = (HttpOutput) out;
+                for (long pos = range.start; pos <= range.end; pos += MAP_CHUNK) {
+                    long size = Math.min(MAP_CHUNK, range.end - pos + 1);
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, pos, size);
+                    httpOutput.write(buffer);
+                }
+            } else {
+                WritableByteChannel target = Channels.newChannel(out);
+                long pos = range.start;
+                while (pos <= range.end) {
+                    pos += channel.transferTo(pos, range.end - pos + 1, target);
+                }
+                out.flush();
+            }
+        }
+    }
+
+    private Path pathFor(String hash) {
+        if (hash == null || !hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid media key");
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    static String sha256(Path file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
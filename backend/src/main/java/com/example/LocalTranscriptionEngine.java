@@ -0,0 +1,315 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.vosk.LibVosk;
+import org.vosk.LogLevel;
+import org.vosk.Model;
+import org.vosk.Recognizer;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recognizes speech in this process with a Vosk model on the CPU, so only the
+ * transcript, not the recording, goes to the Flask service to be summarized.
+ * When the service cannot be reached at all, the summary is made of the
+ * utterances that best cover the meeting's most frequent words, and the
+ * meeting is still stored.
+ *
+ * <p>At most {@code threads} recordings are recognized at once, since each
+ * recognition keeps one core busy. Audio is streamed to the recognizer in
+ * small chunks: PCM WAV files are read directly, everything else is decoded
+ * to 16 kHz mono by {@code ffmpeg}, whose output is read as it is produced.
+ */
+public class LocalTranscriptionEngine implements TranscriptionEngine {
+    static final float DECODE_RATE = 16_000;
+    private static final int CHUNK_BYTES = 8192;
+    private static final int TIMELINE_SECONDS = 60;
+    private static final int TIMELINE_CHARS = 80;
+    private static final int SUMMARY_UTTERANCES = 5;
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "that", "this", "with", "have", "for", "you",
+            "are", "was", "but", "not", "they", "what", "just", "about", "there", "from", "will", "would", "can", "yeah",
+            "okay", "like", "know", "think", "going", "all", "one", "our", "out", "get", "were", "been", "some", "its",
+            "then", "them", "she", "his", "her", "him", "had", "how", "who", "which", "when", "your", "yes", "well",
+            "really", "right", "also", "very", "because", "into", "could", "should", "we're", "it's", "i'm", "don't");
+
+    private final Model model;
+    private final ExecutorService workers;
+    private final String ffmpeg;
+    private final AiClient aiClient;
+    private final ObjectMapper mapper;
+
+    public LocalTranscriptionEngine(Path modelDir, int threads, String ffmpeg, AiClient aiClient, ObjectMapper mapper)
+            throws IOException {
+        LibVosk.setLogLevel(LogLevel.WARNINGS);
+        this.model = new Model(modelDir.toString());
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "transcription-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ffmpeg = ffmpeg;
+        this.aiClient = aiClient;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Map<String, Object> summarize(String mediaType, Path recording, String contentType, Map<String, String> form)
+            throws Exception {
+        Transcript transcript = transcribe(recording);
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("text", transcript.text());
+        request.putAll(form);
+        Map<String, Object> response;
+        try {
+            response = new HashMap<>(aiClient.summarizeText(mapper.writeValueAsString(request)));
+        } catch (ConnectException | HttpConnectTimeoutException e) {
+            System.err.println("AI service unreachable, storing an extractive summary: " + e.getMessage());
+            response = new HashMap<>();
+            response.put("summary", extractiveSummary(transcript.utterances(), SUMMARY_UTTERANCES));
+            response.put("date", LocalDate.now().toString());
+        }
+        response.put("transcription", transcript.text());
+        // The service only sees text; the recognizer knows when things were said
+        response.put("timelines", transcript.timelines());
+        response.put("duration", transcript.seconds());
+        return response;
+    }
+
+    /** Recognizes {@code recording} on one of the workers. */
+    public Transcript transcribe(Path recording) throws Exception {
+        Future<Transcript> result = workers.submit(() -> recognize(recording));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        model.close();
+    }
+
+    private Transcript recognize(Path recording) throws Exception {
+        AudioInputStream wav = pcmWav(recording);
+        if (wav != null) {
+            try (wav) {
+                AudioFormat format = wav.getFormat();
+                return recognize(wav, format.getSampleRate(), format.getChannels());
+            }
+        }
+        Process process = new ProcessBuilder(ffmpeg, "-nostdin", "-loglevel", "error", "-i", recording.toString(),
+                "-vn", "-ac", "1", "-ar", Integer.toString((int) DECODE_RATE), "-f", "s16le", "-")
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (InputStream audio = process.getInputStream()) {
+            Transcript transcript = recognize(audio, DECODE_RATE, 1);
+            int exit = process.waitFor();
+            if (exit != 0) {
+                throw new IOException("ffmpeg could not decode " + recording.getFileName() + " (exit " + exit + ")");
+            }
+            return transcript;
+        } finally {
+            process.destroy();
+        }
+    }
+
+    /** 16-bit little-endian PCM from a WAV file, or {@code null} if it needs ffmpeg. */
+    private static AudioInputStream pcmWav(Path recording) throws IOException {
+        if (!recording.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".wav")) {
+            return null;
+        }
+        AudioInputStream source;
+        try {
+            source = AudioSystem.getAudioInputStream(recording.toFile());
+        } catch (UnsupportedAudioFileException e) {
+            return null;
+        }
+        AudioFormat format = source.getFormat();
+        AudioFormat target = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+        if (format.matches(target)) {
+            return source;
+        }
+        if (AudioSystem.isConversionSupported(target, format)) {
+            return AudioSystem.getAudioInputStream(target, source);
+        }
+        source.close();
+        return null;
+    }
+
+    private Transcript recognize(InputStream audio, float sampleRate, int channels) throws IOException {
+        TranscriptBuilder transcript = new TranscriptBuilder(mapper);
+        byte[] chunk = new byte[CHUNK_BYTES * channels];
+        byte[] mono = new byte[CHUNK_BYTES];
+        long bytes = 0;
+        try (Recognizer recognizer = new Recognizer(model, sampleRate)) {
+            recognizer.setWords(true);
+            int carry = 0;
+            for (int read; (read = audio.read(chunk, carry, chunk.length - carry)) >= 0; ) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Transcription cancelled");
+                }
+                int available = carry + read;
+                // Only whole frames go to the recognizer; the rest waits for the next read
+                int frames = available / (2 * channels);
+                int length = downmix(chunk, frames, channels, mono);
+                carry = available - frames * 2 * channels;
+                System.arraycopy(chunk, frames * 2 * channels, chunk, 0, carry);
+                bytes += length;
+                if (length > 0 && recognizer.acceptWaveForm(mono, length)) {
+                    transcript.add(recognizer.getResult());
+                }
+            }
+            transcript.add(recognizer.getFinalResult());
+        }
+        return transcript.build(bytes / 2.0 / sampleRate);
+    }
+
+    /**
+     * Averages the channels of {@code frames} 16-bit little-endian frames
+     * into {@code mono}.
+     *
+     * @return the number of bytes written to {@code mono}
+     */
+    static int downmix(byte[] pcm, int frames, int channels, byte[] mono) {
+        if (channels == 1) {
+            System.arraycopy(pcm, 0, mono, 0, frames * 2);
+            return frames * 2;
+        }
+        for (int frame = 0; frame < frames; frame++) {
+            int sum = 0;
+            for (int channel = 0; channel < channels; channel++) {
+                int at = (frame * channels + channel) * 2;
+                sum += (short) ((pcm[at] & 0xff) | (pcm[at + 1] << 8));
+            }
+            int sample = sum / channels;
+            mono[frame * 2] = (byte) sample;
+            mono[frame * 2 + 1] = (byte) (sample >> 8);
+        }
+        return frames * 2;
+    }
+
+    /**
+     * The {@code count} utterances whose words, other than the most common
+     * English ones, are most frequent across the meeting, in spoken order.
+     */
+    static String extractiveSummary(List<String> utterances, int count) {
+        Map<String, Integer> frequency = new HashMap<>();
+        for (String utterance : utterances) {
+            for (String word : words(utterance)) {
+                frequency.merge(word, 1, Integer::sum);
+            }
+        }
+        List<Integer> ranked = new ArrayList<>();
+        for (int i = 0; i < utterances.size(); i++) {
+            ranked.add(i);
+        }
+        Map<Integer, Double> scores = new HashMap<>();
+        for (int i : ranked) {
+            List<String> words = words(utterances.get(i));
+            double score = 0;
+            for (String word : words) {
+                score += frequency.get(word);
+            }
+            // Favour content over length, but not one-word fragments
+            scores.put(i, words.size() < 4 ? 0 : score / Math.sqrt(words.size()));
+        }
+        ranked.sort(Comparator.comparing(scores::get).reversed());
+        List<Integer> chosen = new ArrayList<>(ranked.subList(0, Math.min(count, ranked.size())));
+        chosen.sort(null);
+        StringBuilder summary = new StringBuilder();
+        for (int i : chosen) {
+            String utterance = utterances.get(i);
+            summary.append(Character.toUpperCase(utterance.charAt(0))).append(utterance.substring(1)).append(".\n");
+        }
+        return summary.toString().strip();
+    }
+
+    private static List<String> words(String utterance) {
+        List<String> words = new ArrayList<>();
+        for (String word : utterance.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (word.length() > 2 && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /** What the recognizer heard, with one timeline entry per minute or so. */
+    public record Transcript(String text, List<String> utterances, List<String> timelines, double seconds) {
+    }
+
+    /** Collects recognizer results, which are JSON with the text and, per word, its start time. */
+    static final class TranscriptBuilder {
+        private final ObjectMapper mapper;
+        private final List<String> utterances = new ArrayList<>();
+        private final List<String> timelines = new ArrayList<>();
+        private double lastEntry = -TIMELINE_SECONDS;
+
+        TranscriptBuilder(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        void add(String result) throws IOException {
+            JsonNode json = mapper.readTree(result);
+            String text = json.path("text").asText("").strip();
+            if (text.isEmpty()) {
+                return;
+            }
+            utterances.add(text);
+            double start = json.path("result").path(0).path("start").asDouble(lastEntry + TIMELINE_SECONDS);
+            if (start - lastEntry >= TIMELINE_SECONDS) {
+                timelines.add(timestamp(start) + " " + (text.length() > TIMELINE_CHARS
+                        ? text.substring(0, text.lastIndexOf(' ', TIMELINE_CHARS) > 0
+                                ? text.lastIndexOf(' ', TIMELINE_CHARS) : TIMELINE_CHARS) + "…"
+                        : text));
+                lastEntry = start;
+            }
+        }
+
+        Transcript build(double seconds) {
+            return new Transcript(String.join("\n", utterances), List.copyOf(utterances), List.copyOf(timelines),
+                    seconds);
+        }
+
+        static String timestamp(double seconds) {
+            long whole = (long) seconds;
+            return whole >= 3600
+                    ? String.format("%d:%02d:%02d", whole / 3600, whole / 60 % 60, whole % 60)
+                    : String.format("%02d:%02d", whole / 60, whole % 60);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example;
+
+import io.javalin.http.Context;
+import io.javalin.http.HttpStatus;
+import org.bson.Document;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Keeps original meeting recordings so they can be replayed or reprocessed
+ * without another upload. The returned reference document is stored under
+ * {@code media} in the meeting document.
+ */
+public interface MediaStore {
+
+    /** Name recorded in the reference document's {@code store} field. */
+    String name();
+
+    /**
+     * Takes ownership of {@code file}; the caller must not rely on it existing
+     * afterwards.
+     */
+    Document store(Path file, String contentType, String fileName) throws IOException;
+
+    /** Writes the stored media to the response, honouring the Range header. */
+    void serve(Context ctx, Document media) throws IOException;
+
+    static Document reference(String store, String key, String contentType, String fileName, long length) {
+        return new Document()
+                .append("store", store)
+                .append("key", key)
+                .append("content_type", contentType)
+                .append("filename", fileName)
+                .append("length", length);
+    }
+
+    /**
+     * Sets status and headers for a (possibly partial) media response.
+     *
+     * @return the range to send, or {@code null} if the request was rejected
+     */
+    static ByteRange prepareResponse(Context ctx, Document media, long totalLength) {
+        ctx.header("Accept-Ranges", "bytes");
+        ctx.contentType(media.getString("content_type") != null
+                ? media.getString("content_type") : "application/octet-stream");
+        ByteRange range;
+        try {
+            range = ByteRange.parse(ctx.header("Range"), totalLength);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.RANGE_NOT_SATISFIABLE).header("Content-Range", "bytes */" + totalLength);
+            return null;
+        }
+        if (range == null) {
+            range = new ByteRange(0, totalLength - 1);
+            ctx.status(HttpStatus.OK);
+        } else {
+            ctx.status(HttpStatus.PARTIAL_CONTENT).header("Content-Range", range.contentRange(totalLength));
+        }
+        ctx.header("Content-Length", Long.toString(range.length()));
+        return range;
+    }
+}
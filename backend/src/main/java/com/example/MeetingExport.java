@@ -0,0 +1,297 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Bulk export of stored meetings for {@code GET /export}, streamed from
+ * MongoDB cursors to the response so memory use does not grow with the
+ * number of meetings. Only the monthly partitions within the requested dates
+ * are read.
+ *
+ * <p>Meetings are written in {@code (meeting_date, _id)} order. A broken
+ * export is resumed by passing the date and id of the last meeting received
+ * as the cursor token {@code <meeting_date>:<_id>}; the export then starts
+ * with the next meeting. The zip format holds one {@code meetings.ndjson}
+ * entry rather than a file per meeting, since a zip's central directory keeps
+ * every entry in memory until the end, and a {@code manifest.json} with the
+ * count and the token of the last meeting.
+ */
+public class MeetingExport {
+    public enum Format { NDJSON, CSV, ZIP }
+
+    static final String[] CSV_COLUMNS = {"_id", "meeting_date", "meeting_day", "meeting_title", "attendees",
+            "summary", "transcription", "timelines"};
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final MeetingPartitions meetings;
+
+    public MeetingExport(MeetingPartitions meetings) {
+        this.meetings = meetings;
+    }
+
+    /** Meetings dated within {@code [startDate, endDate]} (either may be {@code null}) after the cursor token. */
+    public MeetingPartitions.Cursor find(String startDate, String endDate, String after) {
+        Bson filter = filter(startDate, endDate, after);
+        // Months before the token's have been exported already
+        String from = after != null && (startDate == null || after.compareTo(startDate) > 0) ? after : startDate;
+        return meetings.find(filter, from, endDate, Projections.exclude("attendee_keys", "media", "summary_chunks"), false);
+    }
+
+    static Bson filter(String startDate, String endDate, String after) {
+        List<Bson> conditions = new ArrayList<>();
+        if (startDate != null) {
+            conditions.add(Filters.gte("meeting_date", date(startDate)));
+        }
+        if (endDate != null) {
+            conditions.add(Filters.lte("meeting_date", date(endDate)));
+        }
+        if (after != null) {
+            int separator = after.lastIndexOf(':');
+            if (separator < 0 || !ObjectId.isValid(after.substring(separator + 1))) {
+                throw new IllegalArgumentException("Invalid cursor token: " + after);
+            }
+            String date = date(after.substring(0, separator));
+            ObjectId id = new ObjectId(after.substring(separator + 1));
+            // The date bound on its own lets the server seek in the index before checking the id
+            conditions.add(Filters.gte("meeting_date", date));
+            conditions.add(Filters.or(Filters.gt("meeting_date", date),
+                    Filters.and(Filters.eq("meeting_date", date), Filters.gt("_id", id))));
+        }
+        return conditions.isEmpty() ? new Document() : Filters.and(conditions);
+    }
+
+    private static String date(String value) {
+        try {
+            return LocalDate.parse(value).toString();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    /** The cursor token that resumes an export after {@code meeting}. */
+    static String token(Document meeting) {
+        return meeting.getString("meeting_date") + ":" + meeting.getObjectId("_id").toHexString();
+    }
+
+    public static Format format(String name) {
+        try {
+            return Format.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format: " + name + " (ndjson, csv or zip)");
+        }
+    }
+
+    public static String contentType(Format format, boolean gzip) {
+        if (gzip) {
+            return "application/gzip";
+        }
+        return switch (format) {
+            case NDJSON -> "application/x-ndjson";
+            case CSV -> "text/csv; charset=utf-8";
+            case ZIP -> "application/zip";
+        };
+    }
+
+    public static String fileName(Format format, boolean gzip) {
+        String name = "meetings." + format.name().toLowerCase(Locale.ROOT);
+        return gzip ? name + ".gz" : name;
+    }
+
+    /**
+     * Writes {@code meetings} to {@code out} in the given format, gzipped if
+     * asked (the zip format is compressed already and ignores it), and closes
+     * {@code out}.
+     *
+     * @return the number of meetings written
+     */
+    public static long write(Format format, boolean gzip, Iterable<Document> meetings, OutputStream out)
+            throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out, BUFFER_BYTES);
+        try (OutputStream target = gzip && format != Format.ZIP ? new FastGzip(buffered) : buffered) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(meetings, target);
+                case CSV -> writeCsv(meetings, target);
+                case ZIP -> writeZip(meetings, target);
+            };
+        }
+    }
+
+    private static long writeNdjson(Iterable<Document> meetings, OutputStream out) throws IOException {
+        return writeNdjson(meetings, out, null);
+    }
+
+    private static long writeNdjson(Iterable<Document> meetings, OutputStream out, String[] last) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Lines are separated by the newline below, not the default space
+            json.setRootValueSeparator(null);
+            for (Document meeting : meetings) {
+                writeValue(json, meeting);
+                json.writeRaw('\n');
+                count++;
+                if (last != null) {
+                    last[0] = token(meeting);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long writeCsv(Iterable<Document> meetings, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(CSV_COLUMNS[i]);
+        }
+        writer.write("\r\n");
+        long count = 0;
+        for (Document meeting : meetings) {
+            for (int i = 0; i < CSV_COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvField(writer, text(meeting.get(CSV_COLUMNS[i])));
+            }
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static long writeZip(Iterable<Document> meetings, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        zip.setLevel(Deflater.BEST_SPEED);
+        zip.putNextEntry(new ZipEntry("meetings.ndjson"));
+        String[] last = new String[1];
+        long count = writeNdjson(meetings, zip, last);
+        zip.closeEntry();
+
+        zip.putNextEntry(new ZipEntry("manifest.json"));
+        try (JsonGenerator json = jsonFactory.createGenerator(zip, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartObject();
+            json.writeNumberField("count", count);
+            json.writeStringField("last", last[0]);
+            json.writeEndObject();
+        }
+        zip.closeEntry();
+        zip.finish();
+        return count;
+    }
+
+    private static void writeValue(JsonGenerator json, Object value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else if (value instanceof String text) {
+            json.writeString(text);
+        } else if (value instanceof ObjectId id) {
+            json.writeString(id.toHexString());
+        } else if (value instanceof Date date) {
+            json.writeString(date.toInstant().toString());
+        } else if (value instanceof Map<?, ?> map) {
+            json.writeStartObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                json.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(json, entry.getValue());
+            }
+            json.writeEndObject();
+        } else if (value instanceof List<?> list) {
+            json.writeStartArray();
+            for (Object item : list) {
+                writeValue(json, item);
+            }
+            json.writeEndArray();
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.writeObject(value);
+        } else {
+            json.writeString(value.toString());
+        }
+    }
+
+    /** Lists become one line per item; documents their JSON. */
+    private static String text(Object value) {
+        if (value == null) {
+            return "";
+        } else if (value instanceof ObjectId id) {
+            return id.toHexString();
+        } else if (value instanceof Document document) {
+            return document.toJson();
+        } else if (value instanceof List<?> list) {
+            StringBuilder text = new StringBuilder();
+            for (Object item : list) {
+                if (!text.isEmpty()) {
+                    text.append('\n');
+                }
+                text.append(text(item));
+            }
+            return text.toString();
+        }
+        return value.toString();
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling the quotes
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                writer.write(value, start, i + 1 - start);
+                writer.write('"');
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    /**
+     * Gzip at the fastest level, which gives up some compression for about
+     * twice the throughput; at the default level compression, not the
+     * database or the network, limits how fast an export runs.
+     */
+    private static final class FastGzip extends GZIPOutputStream {
+        FastGzip(OutputStream out) throws IOException {
+            super(out, BUFFER_BYTES);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package com.example;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Meetings split into one collection per month of their meeting date,
+ * {@code details_<yyyy>_<mm>}, so a date-range query only reads the months it
+ * covers and its indexes only span those months.
+ *
+ * <p>The {@code meeting_partitions} catalog lists every month that has
+ * meetings and its state: {@code active}, {@code compacted} (transcripts and
+ * timelines dropped, summaries kept) or {@code archived} (written to an
+ * NDJSON file and dropped from MongoDB). Queries are routed through the
+ * catalog and skip archived months. Partitions never overlap in meeting date,
+ * so results sorted by date are merged by reading the partitions one after
+ * the other; results in {@code _id} order are merged from all partitions at
+ * once. Meetings stored in the single {@code details} collection used before
+ * partitioning are moved into their partitions by {@link #init()}.
+ */
+public class MeetingPartitions {
+    public static final String PREFIX = "details_";
+    public static final String ACTIVE = "active";
+    public static final String COMPACTED = "compacted";
+    public static final String ARCHIVED = "archived";
+    // Claimed by one instance for archiving or compaction
+    static final String RETIRING = "retiring";
+
+    static final String LEGACY = "details";
+    private static final Pattern NAME = Pattern.compile("details_\\d{4}_\\d{2}");
+    private static final int MIGRATION_BATCH = 1000;
+    private static final int BATCH_SIZE = 1000;
+
+    /** A query spanning several partitions; closing it closes the partition cursor that is open. */
+    public interface Cursor extends Iterator<Document>, Closeable {
+        @Override
+        void close();
+    }
+
+    private final MongoDatabase database;
+    private final MongoCollection<Document> catalog;
+    private final ReadPreference readPreference;
+    // Partitions this process has already made sure exist, with their indexes
+    private final Set<String> ensured = ConcurrentHashMap.newKeySet();
+
+    /** {@code readPreference} applies to queries; writes and id lookups always go to the primary. */
+    public MeetingPartitions(MongoDatabase database, ReadPreference readPreference) {
+        this.database = database;
+        this.catalog = database.getCollection("meeting_partitions");
+        this.readPreference = readPreference;
+    }
+
+    /** Creates the catalog index and moves meetings from the unpartitioned collection. */
+    public void init() {
+        catalog.createIndex(Indexes.ascending("month"));
+        MongoCollection<Document> legacy = database.getCollection(LEGACY);
+        long total = legacy.estimatedDocumentCount();
+        if (total == 0) {
+            return;
+        }
+        System.out.println("Moving " + total + " meetings into monthly partitions");
+        long moved = 0;
+        while (true) {
+            List<Document> batch = legacy.find().sort(Sorts.ascending("_id")).limit(MIGRATION_BATCH)
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<String, List<Document>> byPartition = new LinkedHashMap<>();
+            List<ObjectId> ids = new ArrayList<>(batch.size());
+            for (Document meeting : batch) {
+                byPartition.computeIfAbsent(name(meeting), key -> new ArrayList<>()).add(meeting);
+                ids.add(meeting.getObjectId("_id"));
+            }
+            byPartition.forEach((name, meetings) -> {
+                try {
+                    ensure(name).insertMany(meetings, new InsertManyOptions().ordered(false));
+                } catch (MongoBulkWriteException e) {
+                    // Moved by an earlier run that stopped before deleting them
+                    if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() != 11000)) {
+                        throw e;
+                    }
+                }
+            });
+            legacy.deleteMany(Filters.in("_id", ids));
+            moved += batch.size();
+            System.out.println("Moved " + moved + "/" + total + " meetings");
+        }
+    }
+
+    /** The partition a meeting belongs to: its meeting month, or the month it was stored if it has no valid date. */
+    static String name(Document meeting) {
+        Object date = meeting.get("meeting_date");
+        if (date instanceof String text) {
+            try {
+                return name(LocalDate.parse(text));
+            } catch (DateTimeParseException e) {
+                // Stored by hand; fall back to the insert time below
+            }
+        }
+        ObjectId id = meeting.getObjectId("_id");
+        return name(LocalDate.ofInstant(id.getDate().toInstant(), ZoneOffset.UTC));
+    }
+
+    static String name(LocalDate date) {
+        return PREFIX + String.format("%04d_%02d", date.getYear(), date.getMonthValue());
+    }
+
+    static String month(String name) {
+        return name.substring(PREFIX.length()).replace('_', '-');
+    }
+
+    /** Whether a partition for {@code month} ({@code yyyy-MM}) is past the retention period on {@code today}. */
+    static boolean expired(String month, LocalDate today, int retentionMonths) {
+        return retentionMonths > 0 && YearMonth.parse(month).isBefore(YearMonth.from(today).minusMonths(retentionMonths));
+    }
+
+    public void insert(Document meeting) {
+        ensure(name(meeting)).insertOne(meeting);
+    }
+
+    /** Creates the partition's catalog entry and indexes the first time this process writes to it. */
+    private MongoCollection<Document> ensure(String name) {
+        MongoCollection<Document> partition = database.getCollection(name);
+        if (ensured.contains(name)) {
+            return partition;
+        }
+        Document entry = catalog.findOneAndUpdate(Filters.eq("_id", name),
+                Updates.combine(Updates.setOnInsert("month", month(name)), Updates.setOnInsert("state", ACTIVE),
+                        Updates.setOnInsert("created_at", new Date())),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        if (ARCHIVED.equals(entry.getString("state"))) {
+            // A late meeting for an archived month starts the partition again; the archive file keeps the rest
+            catalog.updateOne(Filters.eq("_id", name), Updates.set("state", ACTIVE));
+        }
+        partition.createIndex(Indexes.ascending("meeting_date", "_id"));
+        partition.createIndex(Indexes.ascending("attendee_keys"));
+        partition.createIndex(Indexes.ascending("topic_keys"));
+        partition.createIndex(Indexes.ascending("source.sha256"), new IndexOptions().sparse(true));
+        ensured.add(name);
+        return partition;
+    }
+
+    /** Partitions that are not archived, oldest first, limited to months within {@code [startDate, endDate]} if given. */
+    public List<String> names(String startDate, String endDate) {
+        List<Bson> conditions = new ArrayList<>();
+        conditions.add(Filters.ne("state", ARCHIVED));
+        if (startDate != null) {
+            conditions.add(Filters.gte("month", startDate.substring(0, Math.min(7, startDate.length()))));
+        }
+        if (endDate != null) {
+            conditions.add(Filters.lte("month", endDate.substring(0, Math.min(7, endDate.length()))));
+        }
+        List<String> names = new ArrayList<>();
+        catalog.find(Filters.and(conditions)).sort(Sorts.ascending("month"))
+                .forEach(entry -> names.add(entry.getString("_id")));
+        return names;
+    }
+
+    public MongoCollection<Document> partition(String name) {
+        return database.getCollection(name);
+    }
+
+    /** The partition holding {@code meeting}, which needs its {@code meeting_date} and {@code _id}. */
+    public MongoCollection<Document> partitionOf(Document meeting) {
+        return database.getCollection(name(meeting));
+    }
+
+    /**
+     * Meetings matching {@code filter} in meeting date order, {@code _id}
+     * breaking ties, reading only the partitions between {@code startDate}
+     * and {@code endDate}. Each partition is opened once the previous one is
+     * exhausted.
+     */
+    public Cursor find(Bson filter, String startDate, String endDate, Bson projection, boolean descending) {
+        List<String> names = names(startDate, endDate);
+        if (descending) {
+            Collections.reverse(names);
+        }
+        Bson sort = descending ? Sorts.descending("meeting_date", "_id") : Sorts.ascending("meeting_date", "_id");
+        return concat(names.stream().map(name -> query(name, filter, projection).sort(sort)).toList());
+    }
+
+    /** Meetings matching {@code filter} in {@code _id} order across every partition, at most {@code limit} if positive. */
+    public Cursor findById(Bson filter, Bson projection, int limit) {
+        List<FindIterable<Document>> queries = new ArrayList<>();
+        for (String name : names(null, null)) {
+            FindIterable<Document> query = query(name, filter, projection).sort(Sorts.ascending("_id"));
+            queries.add(limit > 0 ? query.limit(limit).batchSize(limit) : query);
+        }
+        Cursor merged = merge(queries.stream().map(query -> (Iterator<Document>) query.iterator()).toList(),
+                Comparator.comparing(meeting -> meeting.getObjectId("_id")));
+        return limit > 0 ? limit(merged, limit) : merged;
+    }
+
+    /**
+     * One meeting by id. Meetings are usually stored in the month they took
+     * place, so the partition of the id's timestamp is tried first.
+     */
+    public Document get(ObjectId id, Bson projection) {
+        String likely = name(id.getDate().toInstant().atZone(ZoneOffset.UTC).toLocalDate());
+        List<String> names = new ArrayList<>(names(null, null));
+        if (names.remove(likely)) {
+            names.add(0, likely);
+        }
+        for (String name : names) {
+            FindIterable<Document> query = database.getCollection(name).find(Filters.eq("_id", id));
+            Document meeting = (projection != null ? query.projection(projection) : query).first();
+            if (meeting != null) {
+                return meeting;
+            }
+        }
+        return null;
+    }
+
+    /** The meetings with these ids, in no particular order, with {@code projection} applied. */
+    public List<Document> getAll(List<ObjectId> ids, Bson projection) {
+        List<Document> meetings = new ArrayList<>();
+        for (String name : names(null, null)) {
+            if (meetings.size() == ids.size()) {
+                break;
+            }
+            database.getCollection(name).withReadPreference(readPreference).find(Filters.in("_id", ids))
+                    .projection(projection)
+                    .into(meetings);
+        }
+        return meetings;
+    }
+
+    /** Whether any partition has a meeting matching {@code filter}. */
+    public boolean exists(Bson filter) {
+        List<String> names = names(null, null);
+        // Recent months first: new content is more likely to repeat something recent
+        Collections.reverse(names);
+        for (String name : names) {
+            if (database.getCollection(name).find(filter).projection(Projections.include("_id")).first() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long count(Bson filter) {
+        long count = 0;
+        for (String name : names(null, null)) {
+            count += database.getCollection(name).countDocuments(filter);
+        }
+        return count;
+    }
+
+    public long estimatedCount() {
+        long count = 0;
+        for (String name : names(null, null)) {
+            count += database.getCollection(name).estimatedDocumentCount();
+        }
+        return count;
+    }
+
+    /** Writes grouped by the partition of each meeting. */
+    public void bulkWrite(Map<String, List<WriteModel<Document>>> writes) {
+        writes.forEach((name, models) -> {
+            if (!models.isEmpty()) {
+                database.getCollection(name).bulkWrite(models, new BulkWriteOptions().ordered(false));
+            }
+        });
+    }
+
+    /**
+     * Runs {@code pipeline} over the meetings of every partition, which are
+     * combined on the server with {@code $unionWith}.
+     */
+    public List<Document> aggregate(List<? extends Bson> pipeline) {
+        List<String> names = names(null, null);
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Bson> stages = new ArrayList<>();
+        for (String name : names.subList(1, names.size())) {
+            stages.add(Aggregates.unionWith(name, List.of()));
+        }
+        stages.addAll(pipeline);
+        return database.getCollection(names.get(0)).aggregate(stages).allowDiskUse(true).into(new ArrayList<>());
+    }
+
+    /** Change stream of every partition, including ones created after it was opened. */
+    public ChangeStreamIterable<Document> watch(List<Bson> pipeline) {
+        List<Bson> stages = new ArrayList<>();
+        stages.add(Aggregates.match(Filters.regex("ns.coll", "^" + NAME.pattern() + "$")));
+        stages.addAll(pipeline);
+        return database.watch(stages);
+    }
+
+    /** The catalog with the number of meetings in each partition still in MongoDB. */
+    public List<Document> describe() {
+        List<Document> entries = catalog.find().sort(Sorts.ascending("month")).into(new ArrayList<>());
+        for (Document entry : entries) {
+            if (!ARCHIVED.equals(entry.getString("state"))) {
+                entry.put("meetings", database.getCollection(entry.getString("_id")).estimatedDocumentCount());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Applies the retention policy: every active partition more than
+     * {@code retentionMonths} before {@code today} is either written to
+     * {@code <archiveDir>/<partition>.ndjson.gz} and dropped ({@code archive}),
+     * or stripped of transcripts, timelines and cached chunk summaries ({@code compact}).
+     *
+     * @return the partitions that changed state
+     */
+    public List<String> retire(LocalDate today, int retentionMonths, String mode, Path archiveDir) throws IOException {
+        List<String> retired = new ArrayList<>();
+        if (retentionMonths <= 0) {
+            return retired;
+        }
+        for (Document entry : catalog.find(Filters.eq("state", ACTIVE)).sort(Sorts.ascending("month"))) {
+            String name = entry.getString("_id");
+            if (!expired(entry.getString("month"), today, retentionMonths)) {
+                break;
+            }
+            if (catalog.updateOne(Filters.and(Filters.eq("_id", name), Filters.eq("state", ACTIVE)),
+                    Updates.set("state", RETIRING)).getModifiedCount() == 0) {
+                // Another instance got there first
+                continue;
+            }
+            try {
+                if ("compact".equals(mode)) {
+                    compact(name);
+                } else {
+                    archive(name, archiveDir);
+                }
+            } catch (IOException | RuntimeException e) {
+                catalog.updateOne(Filters.eq("_id", name), Updates.set("state", ACTIVE));
+                throw e;
+            }
+            retired.add(name);
+        }
+        return retired;
+    }
+
+    private void archive(String name, Path archiveDir) throws IOException {
+        MongoCollection<Document> partition = database.getCollection(name);
+        Files.createDirectories(archiveDir);
+        Path file = archiveDir.resolve(name + ".ndjson.gz");
+        Path partial = archiveDir.resolve(name + ".ndjson.gz.part");
+        long count;
+        try (MongoCursor<Document> cursor = partition.find().sort(Sorts.ascending("meeting_date", "_id"))
+                .batchSize(BATCH_SIZE).iterator();
+             OutputStream out = Files.newOutputStream(partial)) {
+            count = MeetingExport.write(MeetingExport.Format.NDJSON, true, () -> cursor, out);
+        }
+        // Only a complete file replaces an earlier archive of the same month
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        catalog.updateOne(Filters.eq("_id", name), Updates.combine(Updates.set("state", ARCHIVED),
+                Updates.set("archived_at", new Date()), Updates.set("archive_file", file.toString()),
+                Updates.set("archived_meetings", count)));
+        partition.drop();
+        ensured.remove(name);
+        System.out.println("Archived " + count + " meetings from " + name + " to " + file);
+    }
+
+    private void compact(String name) {
+        MongoCollection<Document> partition = database.getCollection(name);
+        long changed = partition.updateMany(new Document(), Updates.combine(Updates.unset("transcription"),
+                Updates.unset("timelines"), Updates.unset("summary_chunks"))).getModifiedCount();
+        try {
+            // Returns the freed space to the operating system; not every deployment allows it
+            database.runCommand(new Document("compact", name));
+        } catch (MongoCommandException e) {
+            System.err.println("compact on " + name + " failed: " + e.getErrorMessage());
+        }
+        catalog.updateOne(Filters.eq("_id", name), Updates.combine(Updates.set("state", COMPACTED),
+                Updates.set("compacted_at", new Date())));
+        System.out.println("Compacted " + changed + " meetings in " + name);
+    }
+
+    private FindIterable<Document> query(String name, Bson filter, Bson projection) {
+        FindIterable<Document> query = database.getCollection(name).withReadPreference(readPreference)
+                .find(filter != null ? filter : new Document())
+                .batchSize(BATCH_SIZE)
+                // A slow consumer can leave a cursor idle longer than the server's ten minute timeout
+                .noCursorTimeout(true);
+        return projection != null ? query.projection(projection) : query;
+    }
+
+    /** Reads {@code sources} one after the other, opening each only when it is reached. */
+    static Cursor concat(List<? extends Iterable<Document>> sources) {
+        Iterator<? extends Iterable<Document>> remaining = sources.iterator();
+        return new Cursor() {
+            private Iterator<Document> current;
+
+            @Override
+            public boolean hasNext() {
+                while (current == null || !current.hasNext()) {
+                    close();
+                    if (!remaining.hasNext()) {
+                        return false;
+                    }
+                    current = remaining.next().iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Document next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+
+            @Override
+            public void close() {
+                if (current instanceof MongoCursor<Document> cursor) {
+                    cursor.close();
+                }
+                current = null;
+            }
+        };
+    }
+
+    /** Merges sorted {@code sources} into one sorted sequence, holding one document per source. */
+    static Cursor merge(List<Iterator<Document>> sources, Comparator<Document> order) {
+        record Head(Document document, Iterator<Document> source) {
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                Comparator.comparing(Head::document, order));
+        for (Iterator<Document> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+        return new Cursor() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Document next() {
+                Head head = heads.poll();
+                if (head == null) {
+                    throw new NoSuchElementException();
+                }
+                if (head.source().hasNext()) {
+                    heads.add(new Head(head.source().next(), head.source()));
+                }
+                return head.document();
+            }
+
+            @Override
+            public void close() {
+                for (Iterator<Document> source : sources) {
+                    if (source instanceof MongoCursor<Document> cursor) {
+                        cursor.close();
+                    }
+                }
+                heads.clear();
+            }
+        };
+    }
+
+    private static Cursor limit(Cursor cursor, int limit) {
+        return new Cursor() {
+            private int returned;
+
+            @Override
+            public boolean hasNext() {
+                return returned < limit && cursor.hasNext();
+            }
+
+            @Override
+            public Document next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                returned++;
+                return cursor.next();
+            }
+
+            @Override
+            public void close() {
+                cursor.close();
+            }
+        };
+    }
+}
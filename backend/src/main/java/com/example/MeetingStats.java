@@ -0,0 +1,180 @@
+package com.example;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rollup counters for meeting analytics. Every stored meeting increments one
+ * bucket per dimension, so dashboards read one small document per bucket
+ * instead of scanning the meetings collection.
+ *
+ * <p>Buckets are stored as {@code {_id: "<kind>:<bucket>", kind, bucket, count}}
+ * where kind is {@code day}, {@code week}, {@code weekday} or {@code attendee}.
+ * Attendee buckets are keyed by {@link AttendeeIndex#key(String)} and also
+ * carry the first display name seen as {@code name}.
+ */
+public class MeetingStats {
+    public static final String DAY = "day";
+    public static final String WEEK = "week";
+    public static final String WEEKDAY = "weekday";
+    public static final String ATTENDEE = "attendee";
+
+    private final MeetingPartitions meetings;
+    private final MongoCollection<Document> stats;
+
+    public MeetingStats(MeetingPartitions meetings, MongoCollection<Document> stats) {
+        this.meetings = meetings;
+        this.stats = stats;
+    }
+
+    /**
+     * Creates the lookup index and rebuilds the rollups if they were never
+     * computed or still have attendee buckets keyed by display name.
+     */
+    public void init() {
+        stats.createIndex(Indexes.ascending("kind", "bucket"));
+        boolean empty = stats.estimatedDocumentCount() == 0 && meetings.estimatedCount() > 0;
+        if (empty || stats.countDocuments(Filters.and(Filters.eq("kind", ATTENDEE), Filters.exists("name", false))) > 0) {
+            rebuild();
+        }
+    }
+
+    public void record(LocalDate meetingDate, String meetingDay, List<String> attendees) {
+        List<WriteModel<Document>> updates = new ArrayList<>();
+        updates.add(increment(DAY, meetingDate.toString()));
+        updates.add(increment(WEEK, isoWeek(meetingDate)));
+        updates.add(increment(WEEKDAY, meetingDay));
+        Map<String, String> names = new LinkedHashMap<>();
+        attendees.stream()
+                .filter(attendee -> !attendee.isBlank())
+                .forEach(attendee -> names.putIfAbsent(AttendeeIndex.key(attendee), attendee));
+        names.forEach((key, name) -> updates.add(new UpdateOneModel<>(Filters.eq("_id", ATTENDEE + ":" + key),
+                Updates.combine(Updates.inc("count", 1), Updates.setOnInsert("kind", ATTENDEE),
+                        Updates.setOnInsert("bucket", key), Updates.setOnInsert("name", name)),
+                new UpdateOptions().upsert(true))));
+        stats.bulkWrite(updates);
+    }
+
+    /**
+     * Recomputes every bucket from the meeting partitions with aggregation
+     * pipelines. Used to seed the rollups and to repair them after manual edits.
+     * Existing buckets stay readable throughout; a meeting recorded while the
+     * pipelines run can be overwritten by its bucket's recomputed count.
+     */
+    public void rebuild() {
+        List<Document> buckets = new ArrayList<>();
+        meetings.aggregate(List.of(
+                new Document("$group", new Document("_id", "$meeting_date").append("count", new Document("$sum", 1)))))
+                .forEach(doc -> buckets.add(bucket(DAY, doc.getString("_id"), doc)));
+        meetings.aggregate(List.of(
+                new Document("$group", new Document("_id", "$meeting_day").append("count", new Document("$sum", 1)))))
+                .forEach(doc -> buckets.add(bucket(WEEKDAY, doc.getString("_id"), doc)));
+        Map<String, Document> attendees = new LinkedHashMap<>();
+        meetings.aggregate(List.of(
+                new Document("$unwind", "$attendees"),
+                new Document("$group", new Document("_id", "$attendees").append("count", new Document("$sum", 1)))))
+                .forEach(doc -> {
+                    String name = doc.getString("_id");
+                    if (name != null && !name.isBlank()) {
+                        // Spellings of the same attendee fold into one bucket under the first name seen
+                        Document attendee = attendees.computeIfAbsent(AttendeeIndex.key(name),
+                                key -> bucket(ATTENDEE, key, new Document("count", 0)).append("name", name));
+                        attendee.put("count", attendee.getInteger("count") + doc.getInteger("count"));
+                    }
+                });
+        buckets.addAll(attendees.values());
+
+        // Weeks are folded from the day buckets rather than re-parsing every date in Mongo
+        Map<String, Integer> weeks = new LinkedHashMap<>();
+        for (Document day : new ArrayList<>(buckets)) {
+            if (DAY.equals(day.getString("kind")) && day.getString("bucket") != null) {
+                weeks.merge(isoWeek(LocalDate.parse(day.getString("bucket"))), day.getInteger("count"), Integer::sum);
+            }
+        }
+        weeks.forEach((week, count) -> buckets.add(new Document("_id", WEEK + ":" + week)
+                .append("kind", WEEK).append("bucket", week).append("count", count)));
+
+        buckets.removeIf(doc -> doc.getString("bucket") == null);
+        // Buckets are replaced in place and only stale ones deleted, so readers never see empty rollups
+        List<WriteModel<Document>> replacements = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        for (Document bucket : buckets) {
+            replacements.add(new ReplaceOneModel<>(Filters.eq("_id", bucket.getString("_id")), bucket,
+                    new ReplaceOptions().upsert(true)));
+            ids.add(bucket.getString("_id"));
+        }
+        if (!replacements.isEmpty()) {
+            stats.bulkWrite(replacements);
+        }
+        stats.deleteMany(Filters.nin("_id", ids));
+    }
+
+    /** Buckets of one kind, optionally limited to {@code [from, to]}, in bucket order. */
+    public List<Map<String, Object>> range(String kind, String from, String to) {
+        List<Bson> filters = new ArrayList<>();
+        filters.add(Filters.eq("kind", kind));
+        if (from != null) {
+            filters.add(Filters.gte("bucket", from));
+        }
+        if (to != null) {
+            filters.add(Filters.lte("bucket", to));
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        stats.find(Filters.and(filters)).sort(Sorts.ascending("bucket"))
+                .forEach(doc -> result.add(toBucket(doc)));
+        return result;
+    }
+
+    /** The {@code limit} largest buckets of one kind. */
+    public List<Map<String, Object>> top(String kind, int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        stats.find(Filters.eq("kind", kind)).sort(Sorts.descending("count")).limit(limit)
+                .forEach(doc -> result.add(toBucket(doc)));
+        return result;
+    }
+
+    static String isoWeek(LocalDate date) {
+        return String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    private static UpdateOneModel<Document> increment(String kind, String bucket) {
+        return new UpdateOneModel<>(Filters.eq("_id", kind + ":" + bucket),
+                Updates.combine(Updates.inc("count", 1), Updates.setOnInsert("kind", kind),
+                        Updates.setOnInsert("bucket", bucket)),
+                new UpdateOptions().upsert(true));
+    }
+
+    private static Document bucket(String kind, String bucket, Document aggregate) {
+        return new Document("_id", kind + ":" + bucket)
+                .append("kind", kind)
+                .append("bucket", bucket)
+                .append("count", aggregate.getInteger("count"));
+    }
+
+    private static Map<String, Object> toBucket(Document doc) {
+        Map<String, Object> bucket = new LinkedHashMap<>();
+        bucket.put("bucket", doc.getString("bucket"));
+        if (doc.containsKey("name")) {
+            bucket.put("name", doc.getString("name"));
+        }
+        bucket.put("count", ((Number) doc.get("count")).longValue());
+        return bucket;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example;
+
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool metrics for the MongoDB client, registered as its
+ * {@link ConnectionPoolListener} and rendered in the Prometheus text format
+ * for {@code GET /metrics}.
+ *
+ * <p>Check-out wait time is the time a request spends waiting for a pooled
+ * connection; it growing while the pool is at {@code MONGO_MAX_POOL_SIZE} is
+ * the signal to raise the pool size or shed load earlier.
+ */
+public class MongoPoolMetrics implements ConnectionPoolListener {
+    /** Upper bounds of the wait time histogram buckets, in milliseconds. */
+    private static final long[] WAIT_BUCKETS_MILLIS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    private final LongAdder[] waitBuckets = new LongAdder[WAIT_BUCKETS_MILLIS.length];
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder checkouts = new LongAdder();
+    private final AtomicLong waiting = new AtomicLong();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> connections = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> inUse = new ConcurrentHashMap<>();
+
+    public MongoPoolMetrics() {
+        for (int i = 0; i < waitBuckets.length; i++) {
+            waitBuckets[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        waiting.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        waiting.decrementAndGet();
+        checkouts.increment();
+        recordWait(event.getElapsedTime(TimeUnit.NANOSECONDS));
+        gauge(inUse, server(event.getConnectionId())).incrementAndGet();
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        waiting.decrementAndGet();
+        failures.computeIfAbsent(event.getReason().name().toLowerCase(), reason -> new LongAdder()).increment();
+        recordWait(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        gauge(inUse, server(event.getConnectionId())).decrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(ConnectionCreatedEvent event) {
+        gauge(connections, server(event.getConnectionId())).incrementAndGet();
+    }
+
+    @Override
+    public void connectionClosed(ConnectionClosedEvent event) {
+        gauge(connections, server(event.getConnectionId())).decrementAndGet();
+    }
+
+    /** Appends the metrics in the Prometheus text exposition format. */
+    public void write(StringBuilder out) {
+        out.append("# HELP mongo_pool_checkout_wait_seconds Time spent waiting for a pooled MongoDB connection\n");
+        out.append("# TYPE mongo_pool_checkout_wait_seconds histogram\n");
+        long cumulative = 0;
+        for (int i = 0; i < WAIT_BUCKETS_MILLIS.length; i++) {
+            cumulative += waitBuckets[i].sum();
+            out.append("mongo_pool_checkout_wait_seconds_bucket{le=\"").append(WAIT_BUCKETS_MILLIS[i] / 1000.0)
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+        long count = checkouts.sum() + failures.values().stream().mapToLong(LongAdder::sum).sum();
+        out.append("mongo_pool_checkout_wait_seconds_bucket{le=\"+Inf\"} ").append(count).append('\n');
+        out.append("mongo_pool_checkout_wait_seconds_sum ").append(waitNanos.sum() / 1e9).append('\n');
+        out.append("mongo_pool_checkout_wait_seconds_count ").append(count).append('\n');
+
+        out.append("# HELP mongo_pool_checkouts_total Connections successfully checked out\n");
+        out.append("# TYPE mongo_pool_checkouts_total counter\n");
+        out.append("mongo_pool_checkouts_total ").append(checkouts.sum()).append('\n');
+
+        out.append("# HELP mongo_pool_checkout_failures_total Check-outs that failed, by reason\n");
+        out.append("# TYPE mongo_pool_checkout_failures_total counter\n");
+        new TreeMap<>(failures).forEach((reason, failed) -> out.append("mongo_pool_checkout_failures_total{reason=\"")
+                .append(reason).append("\"} ").append(failed.sum()).append('\n'));
+
+        out.append("# HELP mongo_pool_waiting Requests currently waiting for a connection\n");
+        out.append("# TYPE mongo_pool_waiting gauge\n");
+        out.append("mongo_pool_waiting ").append(waiting.get()).append('\n');
+
+        writeGauge(out, "mongo_pool_connections", "Open connections per server", connections);
+        writeGauge(out, "mongo_pool_in_use", "Checked-out connections per server", inUse);
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        for (int i = 0; i < WAIT_BUCKETS_MILLIS.length; i++) {
+            if (nanos <= TimeUnit.MILLISECONDS.toNanos(WAIT_BUCKETS_MILLIS[i])) {
+                waitBuckets[i].increment();
+                return;
+            }
+        }
+        // Slower than the last bucket; only counted in +Inf
+    }
+
+    private static void writeGauge(StringBuilder out, String name, String help, Map<String, AtomicLong> values) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        new TreeMap<>(values).forEach((server, value) -> out.append(name).append("{server=\"").append(server)
+                .append("\"} ").append(value.get()).append('\n'));
+    }
+
+    private static AtomicLong gauge(Map<String, AtomicLong> values, String server) {
+        return values.computeIfAbsent(server, key -> new AtomicLong());
+    }
+
+    private static String server(ConnectionId id) {
+        return id.getServerId().getAddress().toString().replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
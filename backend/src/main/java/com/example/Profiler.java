@@ -0,0 +1,287 @@
+package com.example;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * On-demand Java Flight Recorder recordings for diagnosing a slow backend in
+ * production: one recording at a time, with JFR's {@code default} settings
+ * (the ones meant to stay on, about 1% overhead) plus the
+ * {@link StageEvents}. A recording is bounded by time and size. A continuous
+ * one keeps only its last window, so it can run indefinitely and be dumped
+ * when something goes wrong.
+ *
+ * <p>{@link #summarize} reads a recording back and reports where time went by
+ * stage and which code allocated the most, so the common questions are
+ * answered without opening JDK Mission Control.
+ */
+public class Profiler {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final String STAGE_PREFIX = "com.example.";
+    private static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+
+    private final Path directory;
+    private Recording recording;
+    private boolean continuous;
+    private Instant startedAt;
+    /** Where the current recording is written when it stops, or the last recording written. */
+    private Path file;
+
+    public Profiler(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Starts a recording that stops by itself after {@code length}, or with
+     * {@code continuous} one that runs until stopped and keeps the last
+     * {@code length} of events.
+     *
+     * @throws IllegalStateException if a recording is already running
+     */
+    public synchronized Map<String, Object> start(Duration length, long maxBytes, boolean continuous)
+            throws IOException, ParseException {
+        if (running()) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        close();
+        Recording next = new Recording(Configuration.getConfiguration("default"));
+        next.setName("summary-app");
+        next.enable(StageEvents.Upload.class);
+        next.enable(StageEvents.AiCall.class);
+        next.enable(StageEvents.Mongo.class);
+        next.setToDisk(true);
+        next.setMaxSize(maxBytes);
+        if (continuous) {
+            next.setMaxAge(length);
+        } else {
+            next.setDuration(length);
+        }
+        startedAt = Instant.now();
+        file = directory.resolve("recording-" + FILE_TIME.format(startedAt) + ".jfr");
+        next.setDestination(file);
+        next.start();
+        recording = next;
+        this.continuous = continuous;
+        System.out.println("Started " + (continuous ? "continuous " : "") + "JFR recording to " + file);
+        return status();
+    }
+
+    /**
+     * Stops the running recording, which writes it to its file.
+     *
+     * @return {@code null} if no recording was running
+     */
+    public synchronized Path stop() {
+        if (!running()) {
+            return null;
+        }
+        recording.stop();
+        close();
+        System.out.println("JFR recording written to " + file);
+        return file;
+    }
+
+    /** Writes what the running recording holds so far to a file of its own, leaving it running. */
+    public synchronized Path dump() throws IOException {
+        if (!running()) {
+            throw new IllegalStateException("No recording is running");
+        }
+        Path snapshot = directory.resolve("snapshot-" + FILE_TIME.format(Instant.now()) + ".jfr");
+        recording.dump(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * A recording or snapshot in the profiling directory by file name, or
+     * with {@code null} the last recording written; {@code null} if there is
+     * no such file.
+     */
+    public synchronized Path recording(String name) {
+        if (name == null) {
+            return !running() && file != null && Files.exists(file) ? file : null;
+        }
+        if (!name.matches("[\\w.-]+\\.jfr")) {
+            throw new IllegalArgumentException("Invalid recording name: " + name);
+        }
+        Path named = directory.resolve(name);
+        return Files.exists(named) ? named : null;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording != null ? recording.getState().name().toLowerCase() : "none");
+        status.put("continuous", continuous);
+        status.put("started_at", startedAt != null ? startedAt.toString() : null);
+        status.put("file", file != null ? file.toString() : null);
+        status.put("bytes", recording != null ? recording.getSize() : null);
+        return status;
+    }
+
+    private boolean running() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /** Releases a recording that stopped, by request or once its duration passed. */
+    private void close() {
+        if (recording != null && recording.getState() != RecordingState.RUNNING) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * The stages ({@link StageEvents}) by total time, the slowest single
+     * stage events, and the allocation sites with the most sampled bytes. A
+     * site is the first frame in this application's code, or the allocating
+     * frame if none is.
+     */
+    public static Map<String, Object> summarize(Path file, int top) throws IOException {
+        Map<String, Stage> stages = new HashMap<>();
+        PriorityQueue<RecordedEvent> slowest = new PriorityQueue<>(Comparator.comparing(RecordedEvent::getDuration));
+        Map<String, long[]> allocations = new HashMap<>();
+        long events = 0;
+        long allocatedBytes = 0;
+        Instant first = null;
+        Instant last = null;
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                events++;
+                first = first == null || event.getStartTime().isBefore(first) ? event.getStartTime() : first;
+                last = last == null || event.getEndTime().isAfter(last) ? event.getEndTime() : last;
+                String type = event.getEventType().getName();
+                if (type.startsWith(STAGE_PREFIX)) {
+                    stages.computeIfAbsent(stage(event), key -> new Stage()).add(event.getDuration().toNanos());
+                    slowest.add(event);
+                    if (slowest.size() > top) {
+                        slowest.poll();
+                    }
+                } else if (ALLOCATION_SAMPLE.equals(type)) {
+                    long weight = event.getLong("weight");
+                    allocatedBytes += weight;
+                    long[] site = allocations.computeIfAbsent(site(event.getStackTrace()) + " "
+                            + event.getClass("objectClass").getName(), key -> new long[2]);
+                    site[0] += weight;
+                    site[1]++;
+                }
+            }
+        }
+
+        List<Map<String, Object>> stageList = new ArrayList<>();
+        stages.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Stage> entry) -> entry.getValue().total).reversed())
+                .forEach(entry -> stageList.add(entry.getValue().describe(entry.getKey())));
+
+        List<Map<String, Object>> slowestList = new ArrayList<>();
+        slowest.stream().sorted(Comparator.comparing(RecordedEvent::getDuration, Comparator.reverseOrder())).forEach(event -> {
+            Map<String, Object> described = new LinkedHashMap<>();
+            described.put("stage", stage(event));
+            described.put("start", event.getStartTime().toString());
+            described.put("ms", millis(event.getDuration().toNanos()));
+            event.getFields().stream().filter(field -> !field.getName().startsWith("start")
+                            && !List.of("duration", "eventThread", "stackTrace").contains(field.getName()))
+                    .forEach(field -> described.put(field.getName(), event.getValue(field.getName())));
+            slowestList.add(described);
+        });
+
+        List<Map<String, Object>> allocationList = new ArrayList<>();
+        allocations.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(top)
+                .forEach(entry -> {
+                    Map<String, Object> site = new LinkedHashMap<>();
+                    int space = entry.getKey().lastIndexOf(' ');
+                    site.put("site", entry.getKey().substring(0, space));
+                    site.put("object_class", entry.getKey().substring(space + 1));
+                    site.put("bytes", entry.getValue()[0]);
+                    site.put("samples", entry.getValue()[1]);
+                    allocationList.add(site);
+                });
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("file", file.toString());
+        summary.put("bytes", Files.size(file));
+        summary.put("events", events);
+        summary.put("seconds", first != null ? Duration.between(first, last).toMillis() / 1000.0 : 0);
+        summary.put("stages", stageList);
+        summary.put("slowest", slowestList);
+        // Sampled allocations are weighted so their total estimates everything allocated
+        summary.put("allocated_bytes", allocatedBytes);
+        summary.put("allocations", allocationList);
+        return summary;
+    }
+
+    /** The event's label and what it did, e.g. {@code "AI Call text"}. */
+    private static String stage(RecordedEvent event) {
+        String detail = event.hasField("operation") ? event.getString("operation")
+                : event.hasField("mediaType") ? event.getString("mediaType") : null;
+        String label = event.getEventType().getLabel();
+        return detail != null ? label + " " + detail : label;
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame site = frames.stream().filter(RecordedFrame::isJavaFrame)
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(STAGE_PREFIX))
+                .findFirst().orElse(frames.get(0));
+        return site.getMethod().getType().getName() + "." + site.getMethod().getName() + ":" + site.getLineNumber();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    /** Durations of one stage, in nanoseconds. */
+    private static final class Stage {
+        long[] durations = new long[16];
+        int count;
+        long total;
+
+        void add(long nanos) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = nanos;
+            total += nanos;
+        }
+
+        Map<String, Object> describe(String name) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            Map<String, Object> described = new LinkedHashMap<>();
+            described.put("stage", name);
+            described.put("count", count);
+            described.put("total_ms", millis(total));
+            described.put("mean_ms", millis(total / count));
+            described.put("p95_ms", millis(sorted[(int) Math.ceil(count * 0.95) - 1]));
+            described.put("max_ms", millis(sorted[count - 1]));
+            return described;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embeds text with the AI service: {@code POST /embed {"text": ...}} answering
+ * {@code {"embedding": [...]}}. Calls go through {@link AiClient}, so they
+ * have its request timeout and count toward the same concurrency limit as
+ * the summaries.
+ */
+public class RemoteEmbedder implements Embedder {
+    private final AiClient aiClient;
+    private final int dimensions;
+
+    public RemoteEmbedder(AiClient aiClient, int dimensions) {
+        this.aiClient = aiClient;
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) throws Exception {
+        return vector(aiClient.embed(text));
+    }
+
+    @Override
+    public float[] embedWaiting(String text) throws Exception {
+        return vector(aiClient.embedWaiting(text));
+    }
+
+    private float[] vector(Map<String, Object> response) {
+        if (!(response.get("embedding") instanceof List<?> embedding) || embedding.size() != dimensions) {
+            throw new RuntimeException("Expected an embedding with " + dimensions + " dimensions");
+        }
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = ((Number) embedding.get(i)).floatValue();
+        }
+        return Embedder.normalize(vector);
+    }
+}
@@ -0,0 +1,263 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Regenerates summaries for stored meetings from their transcripts.
+ *
+ * <p>Meetings are read in {@code _id} order one page at a time, merged from
+ * every partition. Each page is summarized with at most {@code parallelism}
+ * concurrent AI calls, throttled to {@code ratePerSecond}. The calls wait for
+ * the AI concurrency limit instead of being shed, so load never costs a
+ * meeting its new summary. Each page is written back with one bulk update per
+ * partition, after which every rewritten meeting is passed to
+ * {@code resummarized} so derived indexes can follow. The last finished
+ * {@code _id} is checkpointed after every page, so a restarted job continues
+ * where the previous run stopped.
+ */
+public class ResummarizeJob {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final MeetingPartitions meetings;
+    private final MongoCollection<Document> checkpoints;
+    private final AiClient aiClient;
+    private final String jobId;
+    private final int parallelism;
+    private final int pageSize;
+    private final TokenBucket rateLimiter;
+    private final Consumer<Document> resummarized;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean stopRequested = new AtomicBoolean();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long total;
+    private volatile long startedAt;
+    private volatile long processedAtStart;
+    private volatile ObjectId lastId;
+    private volatile String state = "idle";
+    private volatile String lastError;
+
+    public ResummarizeJob(MeetingPartitions meetings, MongoCollection<Document> checkpoints,
+                          AiClient aiClient, String jobId, int parallelism, double ratePerSecond, int pageSize,
+                          Consumer<Document> resummarized) {
+        if (parallelism < 1 || ratePerSecond <= 0 || pageSize < 1) {
+            throw new IllegalArgumentException("parallelism, rate and page size must be positive");
+        }
+        this.meetings = meetings;
+        this.checkpoints = checkpoints;
+        this.aiClient = aiClient;
+        this.jobId = jobId;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+        this.rateLimiter = new TokenBucket(ratePerSecond, Math.max(1, parallelism));
+        this.resummarized = resummarized;
+    }
+
+    public void resetCheckpoint() {
+        checkpoints.deleteOne(Filters.eq("_id", jobId));
+    }
+
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Job " + jobId + " is already running");
+        }
+        stopRequested.set(false);
+        Thread thread = new Thread(this::run, "resummarize-" + jobId);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Asks the job to stop after the current page has been written and checkpointed. */
+    public void stop() {
+        stopRequested.set(true);
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public Map<String, Object> status() {
+        long done = processed.get();
+        double elapsedSeconds = startedAt == 0 ? 0 : (System.currentTimeMillis() - startedAt) / 1000.0;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("job", jobId);
+        status.put("state", state);
+        status.put("processed", done);
+        status.put("failed", failed.get());
+        status.put("total", total);
+        status.put("last_id", lastId != null ? lastId.toHexString() : null);
+        status.put("elapsed_seconds", elapsedSeconds);
+        status.put("per_second", elapsedSeconds > 0 ? (done - processedAtStart) / elapsedSeconds : 0);
+        if (lastError != null) {
+            status.put("last_error", lastError);
+        }
+        return status;
+    }
+
+    private void run() {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            loadCheckpoint();
+            state = "running";
+            startedAt = System.currentTimeMillis();
+            processedAtStart = processed.get();
+            total = processed.get() + failed.get() + meetings.count(pageFilter());
+
+            while (!stopRequested.get()) {
+                List<Document> page = new ArrayList<>(pageSize);
+                try (MeetingPartitions.Cursor cursor = meetings.findById(pageFilter(),
+                        new Document("transcription", 1).append("meeting_title", 1)
+                                .append("meeting_date", 1).append("attendees", 1), pageSize)) {
+                    cursor.forEachRemaining(page::add);
+                }
+                if (page.isEmpty()) {
+                    break;
+                }
+                ObjectId finished = processPage(page, workers);
+                if (finished != null) {
+                    lastId = finished;
+                    saveCheckpoint();
+                }
+            }
+            state = stopRequested.get() ? "stopped" : "completed";
+        } catch (Exception e) {
+            state = "failed";
+            lastError = e.getMessage();
+            System.err.println("Re-summarization " + jobId + " failed: " + e.getMessage());
+        } finally {
+            workers.shutdownNow();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Summarizes and writes one page.
+     *
+     * @return the id of the last meeting up to which the whole page is
+     *         finished, or {@code null} if not even the first one is
+     */
+    private ObjectId processPage(List<Document> page, ExecutorService workers) throws InterruptedException {
+        List<WriteModel<Document>> results = summarize(page, workers);
+        Map<String, List<WriteModel<Document>>> updates = new LinkedHashMap<>();
+        List<Document> rewritten = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) != null) {
+                updates.computeIfAbsent(MeetingPartitions.name(page.get(i)), name -> new ArrayList<>())
+                        .add(results.get(i));
+                rewritten.add(page.get(i));
+            }
+        }
+        if (!rewritten.isEmpty()) {
+            meetings.bulkWrite(updates);
+            processed.addAndGet(rewritten.size());
+            rewritten.forEach(resummarized);
+        }
+        return results.isEmpty() ? null : page.get(results.size() - 1).getObjectId("_id");
+    }
+
+    /**
+     * The update for each meeting of the page, in order, or {@code null} for
+     * a meeting that failed and is counted as failed. A meeting turned away
+     * for load ends the list there, so it and everything after it is
+     * summarized again rather than skipped.
+     */
+    List<WriteModel<Document>> summarize(List<Document> page, ExecutorService workers) throws InterruptedException {
+        List<Future<WriteModel<Document>>> futures = new ArrayList<>(page.size());
+        for (Document meeting : page) {
+            futures.add(workers.submit(() -> {
+                rateLimiter.acquire();
+                return resummarize(meeting);
+            }));
+        }
+
+        List<WriteModel<Document>> results = new ArrayList<>(page.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                lastError = e.getCause().getMessage();
+                if (e.getCause() instanceof AdmissionControl.Rejected) {
+                    futures.subList(i + 1, futures.size()).forEach(future -> future.cancel(true));
+                    break;
+                }
+                failed.incrementAndGet();
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
+    private WriteModel<Document> resummarize(Document meeting) throws Exception {
+        Object attendees = meeting.get("attendees");
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("text", meeting.getString("transcription"));
+        request.put("date", meeting.getString("meeting_date"));
+        request.put("meeting_title", meeting.getString("meeting_title"));
+        request.put("attendees", attendees instanceof List ? String.join("\n", meeting.getList("attendees", String.class))
+                : attendees);
+
+        Map<String, Object> aiResponse = aiClient.summarizeTextWaiting(mapper.writeValueAsString(request));
+        // Each worker has a meeting of its own; processPage passes it on once written
+        meeting.put("summary", aiResponse.get("summary"));
+        List<Bson> updates = new ArrayList<>(List.of(
+                Updates.set("summary", aiResponse.get("summary")),
+                Updates.set("resummarized_at", new Date()),
+                // Summarized by the previous model; the next transcript edit summarizes every chunk afresh
+                Updates.unset("summary_chunks")));
+        List<Document> timelines = Timelines.parse(aiResponse.get("timelines"), meeting.getString("transcription"),
+                null);
+        if (!timelines.isEmpty()) {
+            // A timeline from the recognizer has times the service cannot know from the text; it is kept otherwise
+            updates.add(Updates.set("timelines", timelines));
+            updates.add(Updates.set("topic_keys", Timelines.keys(timelines)));
+        }
+        return new UpdateOneModel<>(Filters.eq("_id", meeting.getObjectId("_id")), Updates.combine(updates));
+    }
+
+    private Bson pageFilter() {
+        Bson hasTranscript = Filters.and(Filters.exists("transcription"), Filters.ne("transcription", null),
+                Filters.ne("transcription", ""));
+        return lastId == null ? hasTranscript : Filters.and(Filters.gt("_id", lastId), hasTranscript);
+    }
+
+    private void loadCheckpoint() {
+        Document checkpoint = checkpoints.find(Filters.eq("_id", jobId)).first();
+        if (checkpoint != null) {
+            lastId = checkpoint.getObjectId("last_id");
+            processed.set(checkpoint.get("processed", 0L));
+            failed.set(checkpoint.get("failed", 0L));
+        }
+    }
+
+    private void saveCheckpoint() {
+        Document checkpoint = new Document("_id", jobId)
+                .append("last_id", lastId)
+                .append("processed", processed.get())
+                .append("failed", failed.get())
+                .append("updated_at", new Date());
+        checkpoints.replaceOne(Filters.eq("_id", jobId), checkpoint, new ReplaceOptions().upsert(true));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semantic search over meetings: embeds each stored meeting into an
+ * {@link HnswIndex} and answers free-text queries with the nearest meetings.
+ *
+ * <p>Embedding happens on a single background thread so ingest latency does
+ * not include the embedding call. A meeting's id is assigned when its job
+ * starts, so concurrent jobs and other instances store meetings out of id
+ * order. {@link #catchUp()} therefore checks every stored id from
+ * {@link #CATCH_UP_SKEW} before the highest indexed one, not just the ids
+ * after it; jobs take minutes, so a day covers them with a wide margin while
+ * startup stays independent of how many meetings are stored.
+ */
+public class SemanticSearch {
+    private static final int EF_SEARCH = 64;
+    private static final int CATCH_UP_BATCH = 500;
+    static final Duration CATCH_UP_SKEW = Duration.ofDays(1);
+
+    private final MeetingPartitions meetings;
+    private final Embedder embedder;
+    private final HnswIndex index;
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "semantic-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "semantic-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SemanticSearch(MeetingPartitions meetings, Embedder embedder, HnswIndex index) {
+        this.meetings = meetings;
+        this.embedder = embedder;
+        this.index = index;
+    }
+
+    /** Indexes meetings stored since the last run and starts periodic snapshots. */
+    public void start() {
+        indexer.submit(this::catchUp);
+        snapshots.scheduleWithFixedDelay(() -> {
+            try {
+                index.save();
+            } catch (Exception e) {
+                System.err.println("Failed to save semantic index: " + e.getMessage());
+            }
+        }, 60, 60, TimeUnit.SECONDS);
+    }
+
+    /** Queues a freshly stored meeting for embedding. */
+    public void add(Document meeting) {
+        indexer.submit(() -> {
+            try {
+                ObjectId id = meeting.getObjectId("_id");
+                // Catch-up may already have picked it up
+                if (!index.contains(id)) {
+                    index.add(id, embedder.embedWaiting(text(meeting)));
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to index meeting: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Queues a meeting whose summary changed for embedding again, replacing its vector. */
+    public void update(Document meeting) {
+        indexer.submit(() -> {
+            try {
+                index.replace(meeting.getObjectId("_id"), embedder.embedWaiting(text(meeting)));
+            } catch (Exception e) {
+                System.err.println("Failed to index meeting: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Finishes queued embeddings (briefly) and writes a final snapshot. */
+    public void close() throws Exception {
+        snapshots.shutdownNow();
+        indexer.shutdown();
+        if (!indexer.awaitTermination(10, TimeUnit.SECONDS)) {
+            // The rest is picked up by catch-up on the next start
+            indexer.shutdownNow();
+        }
+        index.close();
+    }
+
+    void catchUp() {
+        try {
+            int added = 0;
+            List<ObjectId> missing = new ArrayList<>();
+            try (MeetingPartitions.Cursor cursor = meetings.findById(catchUpFilter(index.maxId()),
+                    Projections.include("_id"), 0)) {
+                while (cursor.hasNext()) {
+                    ObjectId id = cursor.next().getObjectId("_id");
+                    if (!index.contains(id)) {
+                        missing.add(id);
+                    }
+                    if (missing.size() == CATCH_UP_BATCH) {
+                        added += embed(missing);
+                        missing.clear();
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                added += embed(missing);
+            }
+            if (added > 0) {
+                index.save();
+                System.out.println("Semantic index caught up: " + added + " meetings added, " + index.size() + " total");
+            }
+        } catch (Exception e) {
+            System.err.println("Semantic index catch-up failed: " + e.getMessage());
+        }
+    }
+
+    /** Ids from {@link #CATCH_UP_SKEW} before {@code maxId}, or every id for an empty index. */
+    static Bson catchUpFilter(ObjectId maxId) {
+        if (maxId == null) {
+            return null;
+        }
+        long from = maxId.getTimestamp() - CATCH_UP_SKEW.toSeconds();
+        return Filters.gte("_id", new ObjectId((int) Math.max(0, from), 0));
+    }
+
+    private int embed(List<ObjectId> ids) throws Exception {
+        int added = 0;
+        for (Document meeting : meetings.getAll(ids, Projections.include("meeting_title", "summary"))) {
+            index.add(meeting.getObjectId("_id"), embedder.embedWaiting(text(meeting)));
+            added++;
+        }
+        return added;
+    }
+
+    /** The {@code k} meetings closest to {@code query}, best match first, with {@code projection} applied. */
+    public List<Document> search(String query, int k, Bson projection) throws Exception {
+        List<ObjectId> ids = index.search(embedder.embed(query), k, EF_SEARCH);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<ObjectId, Document> byId = new HashMap<>();
+        meetings.getAll(ids, projection).forEach(doc -> byId.put(doc.getObjectId("_id"), doc));
+        List<Document> results = new ArrayList<>(ids.size());
+        for (ObjectId id : ids) {
+            Document doc = byId.get(id);
+            // Meetings deleted after indexing simply drop out
+            if (doc != null) {
+                results.add(doc);
+            }
+        }
+        return results;
+    }
+
+    private static String text(Document meeting) {
+        return Objects.toString(meeting.get("meeting_title"), "") + "\n" + Objects.toString(meeting.get("summary"), "");
+    }
+}
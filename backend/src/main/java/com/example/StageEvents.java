@@ -0,0 +1,66 @@
+package com.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the stages of a request, recorded by
+ * {@link Profiler} recordings and by any recording started with
+ * {@code jcmd JFR.start}. Without a recording running, {@code commit()}
+ * returns at once, and none of them take a stack trace, so they stay in the
+ * code paths permanently.
+ */
+public final class StageEvents {
+    private StageEvents() {
+    }
+
+    @Name("com.example.Upload")
+    @Label("Upload")
+    @Category({"Summary App", "Stages"})
+    @Description("An uploaded recording written to the job journal or queue")
+    @StackTrace(false)
+    public static class Upload extends Event {
+        @Label("Media Type")
+        public String mediaType;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("com.example.AiCall")
+    @Label("AI Call")
+    @Category({"Summary App", "Stages"})
+    @Description("A call to the AI service, once admitted by the concurrency limit")
+    @StackTrace(false)
+    public static class AiCall extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Request Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Status")
+        @Description("HTTP status, or 0 if no response arrived")
+        public int status;
+    }
+
+    @Name("com.example.Mongo")
+    @Label("MongoDB Operation")
+    @Category({"Summary App", "Stages"})
+    @Description("A meeting insert, query or update")
+    @StackTrace(false)
+    public static class Mongo extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Documents")
+        public long documents;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.javalin.Javalin;
+import io.javalin.http.HttpStatus;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Training run for the AppCDS archive and the native-image tracing agent
+ * ({@code -Pappcds} / {@code -Pnative} in {@code pom.xml}).
+ *
+ * <p>Goes through the startup and first-request paths of {@link SummaryApp}
+ * without needing MongoDB or the AI service: settings, the MongoDB client and
+ * BSON codecs, Jackson, and the Javalin server with compression and h2c
+ * answering a few requests. Every class loaded here is archived, so the real
+ * server does not have to load and verify it again on each start.
+ */
+public class StartupTraining {
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        AppConfig settings = AppConfig.parse(Map.of("PORT", "0")::get);
+        ObjectMapper mapper = new ObjectMapper();
+
+        // Creating the client loads the driver; it only connects on first use
+        try (MongoClient mongoClient = MongoClients.create(SummaryApp.mongoClientSettings(settings))) {
+            mongoClient.getDatabase("Summary_history").getCollection("details")
+                    .withReadPreference(SummaryApp.listReadPreference(settings));
+        }
+
+        Document meeting = new Document("_id", new ObjectId())
+                .append("meeting_title", "Weekly sync")
+                .append("meeting_date", "2024-03-11")
+                .append("attendees", List.of("Alice", "Bob"))
+                .append("created_at", new Date())
+                .append("summary", "The team agreed to ship the release.");
+        RawBsonDocument encoded = new RawBsonDocument(meeting, new DocumentCodec());
+        Document decoded = encoded.decode(new DocumentCodec());
+        decoded.put("_id", decoded.getObjectId("_id").toString());
+        String json = mapper.writeValueAsString(List.of(decoded));
+        mapper.readValue(json, new TypeReference<List<Map<String, Object>>>() {});
+        mapper.readerForUpdating(new AdmissionControl.Limits()).readValue("{\"max_media_jobs\": 4}");
+
+        Javalin app = Javalin.create(config -> HttpTransport.configure(config, settings)).start();
+        try {
+            app.get("/summaries", ctx -> ctx.json(List.of(decoded, decoded, decoded)));
+            app.post("/text-summary", ctx -> ctx.status(HttpStatus.CREATED).json(mapper.readValue(ctx.body(), Map.class)));
+
+            String base = "http://localhost:" + app.port();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+            for (int i = 0; i < ROUNDS; i++) {
+                for (String encoding : List.of("br, gzip", "gzip", "identity")) {
+                    client.send(HttpRequest.newBuilder(URI.create(base + "/summaries"))
+                            .header("Accept-Encoding", encoding).build(), HttpResponse.BodyHandlers.ofByteArray());
+                }
+                client.send(HttpRequest.newBuilder(URI.create(base + "/text-summary"))
+                        .POST(HttpRequest.BodyPublishers.ofString(json.substring(1, json.length() - 1)))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+            }
+        } finally {
+            app.stop();
+        }
+        System.out.println("Startup training finished");
+    }
+}
@@ -2,46 +2,170 @@ package com.example;
 
 import io.javalin.Javalin;
 import io.javalin.http.Context;
+import io.javalin.http.Handler;
 import io.javalin.http.HttpStatus;
 import io.javalin.http.UploadedFile;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
-import io.github.cdimascio.dotenv.Dotenv;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 
 import java.io.*;
-import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class SummaryApp {
     private static final ObjectMapper mapper = new ObjectMapper();
-    private static MongoCollection<Document> collection;
+    // Monthly meeting collections; queries are read with MONGO_LIST_READ_PREFERENCE
+    private static MeetingPartitions partitions;
+    private static final MongoPoolMetrics mongoPoolMetrics = new MongoPoolMetrics();
+    private static final Map<String, MediaStore> mediaStores = new HashMap<>();
+    private static MediaStore mediaStore;
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final HttpClient httpClient = HttpClient.newHttpClient();
-    private static final String FLASK_AI_URL = "http://localhost:5000";
+    private static final String[] FORM_FIELDS = {"date", "meeting_title", "attendees"};
+    private static volatile AppConfig settings;
+    private static HttpClient httpClient;
+    private static AdaptiveLimiter aiLimiter;
+    private static AiClient aiClient;
+    private static ChunkedSummarizer chunkedSummarizer;
+    private static Profiler profiler;
+    private static TranscriptionEngine transcriptionEngine;
+    private static ResummarizeJob resummarizeJob;
+    private static SummaryEvents summaryEvents;
+    private static MeetingStats meetingStats;
+    private static AttendeeIndex attendeeIndex;
+    private static SemanticSearch semanticSearch;
+    private static ListingIndex listingIndex;
+    private static MeetingExport meetingExport;
+    private static AdmissionControl admission;
+    private static JobJournal journal;
+    private static JobQueue jobQueue;
+    private static DropFolder dropFolder;
+    private static final ExecutorService recovery = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "job-recovery");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int MAX_RECOVERY_ATTEMPTS = 3;
+    private static volatile boolean shuttingDown;
+    private static long settingsModified;
 
-    public static void main(String[] args) {
-        // Load environment variables
-        Dotenv dotenv = Dotenv.configure().load();
-        String mongoUri = dotenv.get("MONGO_URI", "mongodb://localhost:27017");
+    public static void main(String[] args) throws IOException {
+        // Environment, .env and the config file; fails fast on invalid values
+        settings = AppConfig.load();
+        settingsModified = AppConfig.sourcesModified();
+
+        httpClient = HttpClient.newBuilder().connectTimeout(settings.aiConnectTimeout).build();
+        aiLimiter = new AdaptiveLimiter(settings.aiMinConcurrency, settings.aiMaxConcurrency, settings.aiMaxQueued,
+                settings.aiQueueWait);
+        aiClient = new AiClient(httpClient, mapper, settings.flaskAiUrl, settings.aiRequestTimeout, aiLimiter);
+        chunkedSummarizer = new ChunkedSummarizer(aiClient);
+        transcriptionEngine = createTranscriptionEngine();
 
         // Initialize MongoDB
-        MongoClient mongoClient = MongoClients.create(mongoUri);
+        MongoClient mongoClient = MongoClients.create(mongoClientSettings(settings));
         MongoDatabase database = mongoClient.getDatabase("Summary_history");
-        collection = database.getCollection("details");
+
+        // Optional retention of original recordings: none, local or gridfs
+        mediaStores.put("local", new LocalMediaStore(settings.mediaDir));
+        mediaStores.put("gridfs", new GridFsMediaStore(database));
+        mediaStore = mediaStores.get(settings.mediaStore);
+
+        attendeeIndex = new AttendeeIndex(database.getCollection(MeetingPartitions.LEGACY),
+                database.getCollection("attendees"));
+        int normalized = attendeeIndex.init();
+
+        // Moves meetings stored before partitioning into their monthly collections
+        partitions = new MeetingPartitions(database, listReadPreference(settings));
+        partitions.init();
+        int structured = Timelines.migrate(partitions);
+        if (structured > 0) {
+            System.out.println("Structured the timelines of " + structured + " meetings");
+        }
+
+        meetingStats = new MeetingStats(partitions, database.getCollection("meeting_stats"));
+        meetingStats.init();
+        if (normalized > 0) {
+            // Attendee rollups were keyed by the old, unnormalized names
+            meetingStats.rebuild();
+        }
+
+        // Exports read from the same members as list queries, keeping bulk reads off the primary
+        meetingExport = new MeetingExport(partitions);
+
+        // The listing and semantic indexes are local files, so every instance also indexes the
+        // meetings the others store or re-summarize, as the change stream reports them
+        semanticSearch = createSemanticSearch();
+        summaryEvents = new SummaryEvents(partitions);
+        summaryEvents.onInsert(semanticSearch::add);
+        summaryEvents.onInsert(meeting -> {
+            try {
+                listingIndex.add(meeting);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        summaryEvents.onSummaryChange(semanticSearch::update);
+        summaryEvents.onSummaryChange(meeting -> {
+            try {
+                listingIndex.updateSummary(meeting);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            listingIndex = new ListingIndex(settings.listingIndexDir);
+            boolean opened = listingIndex.open();
+            summaryEvents.start();
+            // Other instances may have stored meetings while this one was down
+            if (!opened || listingIndex.size() != partitions.estimatedCount()) {
+                listingIndex.rebuild(partitions);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open listing index", e);
+        }
+        semanticSearch.start();
+
+        try {
+            profiler = new Profiler(settings.profilingDir);
+            if ("continuous".equals(settings.profiling)) {
+                profiler.start(settings.profilingMaxDuration, settings.profilingMaxMb * 1024L * 1024, true);
+            }
+        } catch (Exception e) {
+            // Diagnostics only; the service runs without them
+            System.err.println("Failed to start JFR recording: " + e.getMessage());
+        }
+
+        try {
+            journal = new JobJournal(settings.jobJournalDir, mapper);
+            deleteOrphanedTempFiles();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open job journal", e);
+        }
 
         // Configure Javalin
         Javalin app = Javalin.create(config -> {
@@ -50,17 +174,215 @@ public class SummaryApp {
                     corsConfig.anyHost();
                 });
             });
-        }).start(5001);  // Different port from Flask
+            HttpTransport.configure(config, settings);
+        }).start();
+
+        QueuedThreadPool threadPool = (QueuedThreadPool) app.jettyServer().server().getThreadPool();
+        // Threads the pool could still hand out, counting ones it has not started yet
+        admission = new AdmissionControl(admissionLimits(settings),
+                () -> threadPool.getMaxThreads() - threadPool.getBusyThreads(), settings.trustedProxies);
 
         // API Endpoints
-        app.post("/video-summary", ctx -> handleMedia(ctx, "video"));
-        app.post("/audio-summary", ctx -> handleMedia(ctx, "audio"));
-        app.post("/text-summary", SummaryApp::handleText);
-        app.get("/summaries", SummaryApp::getSummaries);
+        app.post("/video-summary", admitted(AdmissionControl.Kind.MEDIA, ctx -> handleMedia(ctx, "video")));
+        app.post("/audio-summary", admitted(AdmissionControl.Kind.MEDIA, ctx -> handleMedia(ctx, "audio")));
+        app.post("/text-summary", admitted(AdmissionControl.Kind.WRITE, SummaryApp::handleText));
+        app.get("/summaries", admitted(AdmissionControl.Kind.READ, SummaryApp::getSummaries));
+        app.get("/summaries/{id}/media", admitted(AdmissionControl.Kind.READ, SummaryApp::getMedia));
+        app.get("/summaries/{id}/transcript", admitted(AdmissionControl.Kind.READ, SummaryApp::getTranscript));
+        app.patch("/summaries/{id}/transcript", admitted(AdmissionControl.Kind.WRITE, SummaryApp::patchTranscript));
+        app.sse("/summaries/stream", client -> summaryEvents.subscribe(client));
+        app.get("/stats/daily", admitted(AdmissionControl.Kind.READ, ctx -> getStats(ctx, MeetingStats.DAY)));
+        app.get("/stats/weekly", admitted(AdmissionControl.Kind.READ, ctx -> getStats(ctx, MeetingStats.WEEK)));
+        app.get("/stats/weekday", admitted(AdmissionControl.Kind.READ, ctx -> getStats(ctx, MeetingStats.WEEKDAY)));
+        app.get("/stats/attendees", admitted(AdmissionControl.Kind.READ, ctx -> getStats(ctx, MeetingStats.ATTENDEE)));
+        app.get("/attendees", admitted(AdmissionControl.Kind.READ, SummaryApp::completeAttendees));
+        app.get("/jobs/{id}", admitted(AdmissionControl.Kind.READ, SummaryApp::getJob));
+
+        // Admin endpoints
+        app.post("/admin/resummarize", ctx -> startResummarize(ctx, database));
+        app.get("/admin/resummarize", SummaryApp::getResummarizeStatus);
+        app.delete("/admin/resummarize", SummaryApp::stopResummarize);
+        app.post("/admin/stats/rebuild", SummaryApp::rebuildStats);
+        app.post("/admin/listing/rebuild", SummaryApp::rebuildListing);
+        app.get("/admin/limits", SummaryApp::getLimits);
+        app.put("/admin/limits", SummaryApp::updateLimits);
+        app.get("/admin/queue", SummaryApp::getQueueStatus);
+        app.get("/admin/drop-folder", SummaryApp::getDropFolderStatus);
+        app.get("/admin/partitions", SummaryApp::getPartitions);
+        app.post("/admin/partitions/retire", SummaryApp::retirePartitions);
+        app.get("/admin/config", SummaryApp::getConfig);
+        app.post("/admin/config/reload", SummaryApp::reloadConfig);
+        app.post("/admin/profiling", SummaryApp::startProfiling);
+        app.get("/admin/profiling", SummaryApp::getProfilingStatus);
+        app.delete("/admin/profiling", SummaryApp::stopProfiling);
+        app.post("/admin/profiling/dump", SummaryApp::dumpProfiling);
+        app.get("/admin/profiling/recording", SummaryApp::downloadRecording);
+        app.get("/admin/profiling/summary", SummaryApp::getProfilingSummary);
+        app.get("/metrics", SummaryApp::getMetrics);
+        app.get("/export", SummaryApp::exportMeetings);
+
+        // Scale-out: jobs go through a queue in MongoDB that every instance works on
+        if ("queue".equals(settings.jobMode)) {
+            jobQueue = new JobQueue(database, SummaryApp::runJob, settings.queueWorkers, settings.queueLease.toMillis());
+            jobQueue.start();
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(app, mongoClient), "shutdown"));
+        resumeJournaledJobs();
+        if (!settings.dropDir.isEmpty()) {
+            // Queued behind the resumed jobs, so a recording they store is seen as a duplicate
+            recovery.execute(SummaryApp::startDropFolder);
+        }
+        watchSettings();
+        scheduleRetention();
+    }
+
+    /** Applies the partition retention policy now and every few hours, with the settings current at each run. */
+    private static void scheduleRetention() {
+        ScheduledExecutorService retention = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "partition-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        retention.scheduleWithFixedDelay(() -> {
+            try {
+                retire();
+            } catch (Exception e) {
+                System.err.println("Partition retention failed: " + e.getMessage());
+            }
+        }, 1, TimeUnit.HOURS.toMinutes(6), TimeUnit.MINUTES);
+    }
+
+    private static synchronized List<String> retire() throws IOException {
+        AppConfig current = settings;
+        List<String> retired = partitions.retire(LocalDate.now(), current.retentionMonths, current.retentionMode,
+                current.archiveDir);
+        if (!retired.isEmpty() && "archive".equals(current.retentionMode)) {
+            // Archived meetings leave the listing; semantic search skips them on its own
+            listingIndex.rebuild(partitions);
+        }
+        return retired;
+    }
+
+    /** Re-reads the settings whenever {@code .env} or the config file changes. */
+    private static void watchSettings() {
+        if (settings.reloadInterval.isZero()) {
+            return;
+        }
+        ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "config-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.reloadInterval.toMillis();
+        watcher.scheduleWithFixedDelay(() -> {
+            long modified = AppConfig.sourcesModified();
+            if (modified != settingsModified) {
+                settingsModified = modified;
+                try {
+                    applySettings(AppConfig.load());
+                } catch (Exception e) {
+                    // Keep running on the last good settings
+                    System.err.println("Ignoring configuration change: " + e.getMessage());
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Switches to {@code next}: limits, proxies, timeouts and the admin token
+     * take effect immediately; the rest is reported and waits for a restart.
+     * Admission limits are applied only where {@code next} changed them.
+     *
+     * @return the changed settings that need a restart
+     */
+    private static synchronized List<String> applySettings(AppConfig next) {
+        List<String> restartRequired = next.restartRequired(settings);
+        // Only limits whose setting changed move; the rest keeps values set through /admin/limits
+        admission.setLimits(admission.limits().withChanges(admissionLimits(settings), admissionLimits(next)));
+        admission.setTrustedProxies(next.trustedProxies);
+        aiClient.setTimeout(next.aiRequestTimeout);
+        aiLimiter.setLimits(next.aiMinConcurrency, next.aiMaxConcurrency, next.aiMaxQueued, next.aiQueueWait);
+        settings = next;
+        System.out.println("Configuration reloaded"
+                + (restartRequired.isEmpty() ? "" : "; restart to apply " + String.join(", ", restartRequired)));
+        return restartRequired;
+    }
+
+    /**
+     * Stops taking uploads, gives in-flight jobs {@code graceMillis} to finish and
+     * closes everything else. Jobs still running afterwards stay in the journal
+     * and are resumed by the next start, so a restart loses no accepted work.
+     */
+    private static void shutdown(Javalin app, MongoClient mongoClient) {
+        long graceMillis = settings.shutdownGrace.toMillis();
+        System.out.println("Shutting down: refusing new uploads, " + journal.active() + " jobs in flight");
+        shuttingDown = true;
+        admission.drain();
+        if (dropFolder != null) {
+            // Files not yet summarized stay in processing/ and are picked up by the next start
+            dropFolder.close();
+        }
+        try {
+            if (jobQueue != null) {
+                // Unfinished jobs go back to the queue for the other instances
+                jobQueue.stop(graceMillis);
+            }
+            if (!journal.awaitIdle(graceMillis)) {
+                System.out.println(journal.active() + " jobs did not finish and will resume on the next start");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (resummarizeJob != null) {
+            // Its checkpoint lets a new POST /admin/resummarize continue where it stopped
+            resummarizeJob.stop();
+        }
+        summaryEvents.stop();
+        if (profiler != null) {
+            // Written to PROFILING_DIR, so a continuous recording covers the last minutes before shutdown
+            profiler.stop();
+        }
+        app.stop();
+        recovery.shutdownNow();
+        transcriptionEngine.close();
+        try {
+            semanticSearch.close();
+            listingIndex.close();
+        } catch (Exception e) {
+            System.err.println("Failed to close local indexes: " + e.getMessage());
+        }
+        mongoClient.close();
+        System.out.println("Shutdown complete");
+    }
+
+    /** Runs {@code handler} only if admission control lets the request in, releasing its capacity afterwards. */
+    private static Handler admitted(AdmissionControl.Kind kind, Handler handler) {
+        return ctx -> {
+            AdmissionControl.Ticket ticket;
+            try {
+                String client = admission.clientKey(ctx.ip(), ctx.header("X-Forwarded-For"));
+                ticket = admission.admit(client, kind, ctx.req().getContentLengthLong());
+            } catch (AdmissionControl.Rejected e) {
+                reject(ctx, e);
+                return;
+            }
+            try (ticket) {
+                handler.handle(ctx);
+            }
+        };
+    }
+
+    private static void reject(Context ctx, AdmissionControl.Rejected e) {
+        if (e.retryAfterSeconds > 0) {
+            ctx.header("Retry-After", Long.toString(e.retryAfterSeconds));
+        }
+        ctx.status(e.status).json(Map.of("error", e.getMessage()));
     }
 
     private static void handleMedia(Context ctx, String mediaType) {
-        Path tempFile = null;
+        JobJournal.Entry job = null;
         try {
             UploadedFile file = ctx.uploadedFile("file");
             if (file == null) {
@@ -68,132 +390,424 @@ public class SummaryApp {
                 return;
             }
 
-            // Create temp file
-            tempFile = Files.createTempFile("summary-", mediaType.equals("video") ? ".mp4" : ".wav");
-            try (InputStream inputStream = file.content()) {
-                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
-            }
-
-            // Build multipart form data
-            String boundary = "----JavaBoundary" + System.currentTimeMillis();
-            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-            PrintWriter writer = new PrintWriter(new OutputStreamWriter(byteArrayOutputStream));
-
-            // Add file part
-            writer.append("--").append(boundary).append("\r\n");
-            writer.append("Content-Disposition: form-data; name=\"file\"; filename=\"").append(tempFile.getFileName().toString()).append("\"\r\n");
-            writer.append("Content-Type: ").append(file.contentType()).append("\r\n\r\n");
-            writer.flush();
-            byteArrayOutputStream.write(Files.readAllBytes(tempFile));
-            writer.append("\r\n").flush();
-
-            // Add form fields
-            String[] formFields = {"date", "meeting_title", "attendees"};
-            for (String field : formFields) {
-                String value = ctx.formParam(field);
-                if (value != null) {
-                    writer.append("--").append(boundary).append("\r\n");
-                    writer.append("Content-Disposition: form-data; name=\"").append(field).append("\"\r\n\r\n");
-                    writer.append(value).append("\r\n").flush();
+            String uploadName = mediaType.equals("video") ? "upload.mp4" : "upload.wav";
+            Map<String, String> form = new HashMap<>();
+            for (String field : FORM_FIELDS) {
+                if (ctx.formParam(field) != null) {
+                    form.put(field, ctx.formParam(field));
                 }
             }
+            Map<String, Object> request = new HashMap<>();
+            request.put("type", mediaType);
+            request.put("upload", uploadName);
+            request.put("content_type", file.contentType());
+            request.put("file_name", file.filename() != null ? file.filename() : uploadName);
+            request.put("form", form);
+            request.put("attempts", 0);
 
-            // End boundary
-            writer.append("--").append(boundary).append("--\r\n");
-            writer.close();
-
-            // Call Flask AI service
-            String flaskEndpoint = FLASK_AI_URL + (mediaType.equals("video") ? "/video-summary" : "/audio-summary");
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(flaskEndpoint))
-                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
-                    .POST(HttpRequest.BodyPublishers.ofByteArray(byteArrayOutputStream.toByteArray()))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            StageEvents.Upload upload = new StageEvents.Upload();
+            upload.mediaType = mediaType;
+            upload.bytes = file.size();
+            upload.begin();
+            if (jobQueue != null) {
+                ObjectId jobId;
+                try (InputStream inputStream = file.content()) {
+                    jobId = jobQueue.submit(request, inputStream);
+                }
+                upload.commit();
+                respondWhenDone(ctx, jobId);
+                return;
+            }
 
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("AI service error: " + response.body());
+            // The upload goes straight into the journal so the job survives a restart
+            job = journal.begin();
+            try (InputStream inputStream = file.content()) {
+                Files.copy(inputStream, job.file(uploadName), StandardCopyOption.REPLACE_EXISTING);
             }
+            job.writeRequest(request);
+            upload.commit();
 
-            // Parse and store response
-            Map<String, Object> aiResponse = mapper.readValue(response.body(), 
-                    new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {});
-            storeMeetingData(ctx, aiResponse);
-            ctx.json(aiResponse);
+            ctx.json(runJob(job, request));
 
+        } catch (AdmissionControl.Rejected e) {
+            // Shed by the AI concurrency limit; the client retries the whole upload
+            endFailedJob(job);
+            reject(ctx, e);
         } catch (Exception e) {
+            endFailedJob(job);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
-        } finally {
-            if (tempFile != null) {
-                try {
-                    Files.deleteIfExists(tempFile);
-                } catch (IOException e) {
-                    System.err.println("Failed to delete temp file: " + e.getMessage());
-                }
-            }
+        }
+    }
+
+    /**
+     * Answers with the summary once some instance has finished the queued job,
+     * or with {@code 202} and the job id for {@code ?async=true} and jobs that
+     * outlast the wait; {@code GET /jobs/{id}} reports on them later.
+     */
+    private static void respondWhenDone(Context ctx, ObjectId jobId) throws InterruptedException {
+        Document job = "true".equals(ctx.queryParam("async")) ? jobQueue.find(jobId) : jobQueue.await(jobId, settings.queueWait.toMillis());
+        if (job == null) {
+            // The job document was removed from summary_jobs in the meantime
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No such job"));
+            return;
+        }
+        String state = job.getString("state");
+        if (JobQueue.DONE.equals(state)) {
+            ctx.json(job.get("result", Document.class).get("response"));
+        } else if (JobQueue.FAILED.equals(state)) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", job.getString("error")));
+        } else {
+            ctx.status(HttpStatus.ACCEPTED).json(Map.of("job_id", jobId.toHexString(), "state", state));
         }
     }
 
     private static void handleText(Context ctx) {
+        JobJournal.Entry job = null;
         try {
             Map<String, String> requestData = mapper.readValue(ctx.body(), 
                     new com.fasterxml.jackson.core.type.TypeReference<Map<String, String>>() {});
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(FLASK_AI_URL + "/text-summary"))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(ctx.body()))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> request = new HashMap<>();
+            request.put("type", "text");
+            request.put("body", ctx.body());
+            request.put("form", Map.of());
+            request.put("attempts", 0);
 
-            if (response.statusCode() != 200) {
-                throw new RuntimeException("AI service error: " + response.body());
+            if (jobQueue != null) {
+                respondWhenDone(ctx, jobQueue.submit(request, null));
+                return;
             }
 
-            Map<String, Object> aiResponse = mapper.readValue(response.body(),
-                    new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {});
-            storeMeetingData(ctx, aiResponse);
-            ctx.json(aiResponse);
+            job = journal.begin();
+            job.writeRequest(request);
+
+            ctx.json(runJob(job, request));
 
+        } catch (AdmissionControl.Rejected e) {
+            // Shed by the AI concurrency limit; the client retries the whole upload
+            endFailedJob(job);
+            reject(ctx, e);
         } catch (Exception e) {
+            endFailedJob(job);
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
         }
     }
 
-    private static void storeMeetingData(Context ctx, Map<String, Object> aiResponse) {
+    /**
+     * Takes a journaled job from wherever it stopped to a stored meeting: the
+     * AI response is journaled before anything else happens so it is never
+     * requested twice, and the meeting id is journaled before the insert so a
+     * resumed job can tell whether the insert already happened. Used both for
+     * journaled jobs and for jobs claimed from the shared queue.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> runJob(SummaryJob job, Map<String, Object> request) throws Exception {
+        String type = (String) request.get("type");
+        Map<String, String> form = (Map<String, String>) request.get("form");
+        Map<String, Object> result = job.readResult();
+
+        if (result != null && result.get("meeting_id") != null) {
+            ObjectId stored = new ObjectId((String) result.get("meeting_id"));
+            if (partitions.get(stored, Projections.include("_id")) != null) {
+                job.complete();
+                return (Map<String, Object>) result.get("response");
+            }
+        }
+
+        Map<String, Object> aiResponse;
+        if (result != null) {
+            aiResponse = (Map<String, Object>) result.get("response");
+        } else {
+            aiResponse = "text".equals(type)
+                    ? aiClient.summarizeText((String) request.get("body"))
+                    : transcriptionEngine.summarize(type, job.file((String) request.get("upload")),
+                            (String) request.get("content_type"), form);
+            result = new HashMap<>();
+            result.put("response", aiResponse);
+            job.writeResult(result);
+        }
+
+        Document media = result.get("media") != null ? new Document((Map<String, Object>) result.get("media")) : null;
+        Path upload = request.get("upload") != null ? job.file((String) request.get("upload")) : null;
+        if (media == null && mediaStore != null && upload != null && Files.exists(upload)) {
+            media = mediaStore.store(upload, (String) request.get("content_type"), (String) request.get("file_name"));
+            result.put("media", media);
+        }
+
+        ObjectId meetingId = new ObjectId();
+        result.put("meeting_id", meetingId.toHexString());
+        job.writeResult(result);
+        storeMeetingData(meetingId, form, aiResponse, media, (Map<String, Object>) request.get("source"));
+        job.complete();
+        return aiResponse;
+    }
+
+    private static void endFailedJob(JobJournal.Entry job) {
+        if (job == null) {
+            return;
+        }
+        if (shuttingDown) {
+            // Interrupted by shutdown, not a real failure: resume it on the next start
+            job.release();
+        } else {
+            job.abandon();
+        }
+    }
+
+    /** Finishes jobs a previous run accepted but did not store; results are pushed to the UI as usual. */
+    private static void resumeJournaledJobs() {
+        try {
+            List<JobJournal.Entry> pending = journal.pending();
+            if (!pending.isEmpty()) {
+                System.out.println("Resuming " + pending.size() + " journaled jobs");
+            }
+            for (JobJournal.Entry job : pending) {
+                recovery.submit(() -> resumeJob(job));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read job journal: " + e.getMessage());
+        }
+    }
+
+    private static void resumeJob(JobJournal.Entry job) {
+        try {
+            Map<String, Object> request = job.readRequest();
+            int attempts = ((Number) request.getOrDefault("attempts", 0)).intValue() + 1;
+            if (attempts > MAX_RECOVERY_ATTEMPTS) {
+                System.err.println("Giving up on journaled job " + job.id() + " after " + MAX_RECOVERY_ATTEMPTS + " attempts");
+                job.quarantine();
+                return;
+            }
+            request.put("attempts", attempts);
+            job.writeRequest(request);
+            runJob(job, request);
+            System.out.println("Resumed journaled job " + job.id());
+        } catch (Exception e) {
+            System.err.println("Failed to resume journaled job " + job.id() + ": " + e.getMessage());
+            job.release();
+        }
+    }
+
+    /** Uploads were buffered as {@code summary-*} temp files before the journal existed; old ones are orphans. */
+    private static void deleteOrphanedTempFiles() throws IOException {
+        long cutoff = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(System.getProperty("java.io.tmpdir")), "summary-*")) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Failed to delete temp file: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void storeMeetingData(ObjectId meetingId, Map<String, String> form, Map<String, Object> aiResponse,
+                                         Document media, Map<String, Object> source) {
         try {
-            String meetingDateStr = ctx.formParam("date") != null ? 
-                    ctx.formParam("date") : (String) aiResponse.get("date");
+            String meetingDateStr = form.get("date") != null ? 
+                    form.get("date") : (String) aiResponse.get("date");
             LocalDate meetingDate = LocalDate.parse(meetingDateStr, dateFormatter);
             String meetingDay = meetingDate.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
 
-            Document meetingData = new Document()
-                    .append("meeting_title", ctx.formParam("meeting_title") != null ? 
-                            ctx.formParam("meeting_title") : aiResponse.get("meeting_title"))
+            List<String> attendees = AttendeeIndex.normalize(form.get("attendees") != null ?
+                    List.of(form.get("attendees")) :
+                    AttendeeIndex.asNames(aiResponse.getOrDefault("attendees", "")));
+
+            String transcription = (String) aiResponse.get("transcription");
+            List<Document> timelines = Timelines.parse(aiResponse.get("timelines"), transcription,
+                    aiResponse.get("duration") instanceof Number seconds ? seconds : null);
+
+            Document meetingData = new Document("_id", meetingId)
+                    .append("meeting_title", form.get("meeting_title") != null ? 
+                            form.get("meeting_title") : aiResponse.get("meeting_title"))
                     .append("meeting_date", meetingDateStr)
                     .append("meeting_day", meetingDay)
-                    .append("transcription", aiResponse.get("transcription"))
+                    .append("transcription", transcription)
                     .append("summary", aiResponse.get("summary"))
-                    .append("attendees", Arrays.asList(
-                            ctx.formParam("attendees") != null ? 
-                            ctx.formParam("attendees").split("\n") : 
-                            ((String) aiResponse.getOrDefault("attendees", "")).split("\n")))
-                    .append("timelines", aiResponse.get("timelines"));
+                    .append("attendees", attendees)
+                    .append("attendee_keys", AttendeeIndex.keys(attendees))
+                    .append("timelines", timelines)
+                    .append("topic_keys", Timelines.keys(timelines));
+            if (media != null) {
+                meetingData.append("media", media);
+            }
+            if (source != null) {
+                meetingData.append("source", new Document(source));
+            }
 
-            collection.insertOne(meetingData);
+            StageEvents.Mongo insert = new StageEvents.Mongo();
+            insert.begin();
+            partitions.insert(meetingData);
+            insert.operation = "insert";
+            insert.documents = 1;
+            insert.commit();
+            summaryEvents.published(meetingData);
+            semanticSearch.add(meetingData);
+            try {
+                meetingStats.record(meetingDate, meetingDay, attendees);
+                attendeeIndex.record(attendees);
+                listingIndex.add(meetingData);
+            } catch (Exception e) {
+                // The meeting is stored; the admin rebuild endpoints repair derived data
+                System.err.println("Failed to update meeting indexes: " + e.getMessage());
+            }
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to store meeting data: " + e.getMessage());
         }
     }
 
+    private static void startDropFolder() {
+        try {
+            dropFolder = new DropFolder(Path.of(settings.dropDir), settings.dropParallelism, settings.dropPoll,
+                    settings.dropSettle, "auto".equals(settings.dropWatch), new DropFolder.Pipeline() {
+                        @Override
+                        public boolean isDuplicate(String sha256) {
+                            return partitions.exists(Filters.eq("source.sha256", sha256))
+                                    || (jobQueue != null && jobQueue.hasUnfinished("source.sha256", sha256));
+                        }
+
+                        @Override
+                        public void summarize(DropFolder.Dropped dropped) throws Exception {
+                            summarizeDropped(dropped);
+                        }
+                    }, mapper);
+            dropFolder.start();
+        } catch (IOException e) {
+            System.err.println("Failed to start the drop folder: " + e.getMessage());
+        }
+    }
+
+    /** Runs a dropped file through the same jobs as an upload of it, returning once the meeting is stored. */
+    private static void summarizeDropped(DropFolder.Dropped dropped) throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        request.put("type", dropped.mediaType());
+        request.put("form", dropped.form());
+        request.put("source", Map.of("file", dropped.name(), "sha256", dropped.sha256()));
+        request.put("attempts", 0);
+        String uploadName = null;
+        if ("text".equals(dropped.mediaType())) {
+            // Transcripts are small; the AI service takes them as JSON like the text form sends
+            Map<String, String> body = new HashMap<>(dropped.form());
+            body.put("text", Files.readString(dropped.file()));
+            request.put("body", mapper.writeValueAsString(body));
+        } else {
+            uploadName = "upload" + dropped.name().substring(dropped.name().lastIndexOf('.'));
+            request.put("upload", uploadName);
+            request.put("content_type", dropped.contentType());
+            request.put("file_name", dropped.name());
+        }
+
+        if (jobQueue != null) {
+            ObjectId jobId;
+            try (InputStream inputStream = uploadName != null ? Files.newInputStream(dropped.file()) : null) {
+                jobId = jobQueue.submit(request, inputStream);
+            }
+            Document job;
+            do {
+                if (shuttingDown) {
+                    // Another instance finishes the job; the file is seen as a duplicate on the next start
+                    throw new IllegalStateException("Shutting down");
+                }
+                job = jobQueue.await(jobId, settings.queueWait.toMillis());
+            } while (job != null && !JobQueue.DONE.equals(job.getString("state"))
+                    && !JobQueue.FAILED.equals(job.getString("state")));
+            if (job == null || JobQueue.FAILED.equals(job.getString("state"))) {
+                throw new IllegalStateException(job == null ? "Job disappeared" : job.getString("error"));
+            }
+            return;
+        }
+
+        JobJournal.Entry job = journal.begin();
+        try {
+            if (uploadName != null) {
+                try {
+                    // A link costs nothing when the journal is on the same file system as the drop folder
+                    Files.createLink(job.file(uploadName), dropped.file());
+                } catch (IOException | UnsupportedOperationException e) {
+                    Files.copy(dropped.file(), job.file(uploadName), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            job.writeRequest(request);
+            runJob(job, request);
+        } catch (Exception e) {
+            endFailedJob(job);
+            throw e;
+        }
+    }
+
+    private static void getDropFolderStatus(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        if (dropFolder == null) {
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No drop folder configured (DROP_DIR)"));
+            return;
+        }
+        ctx.json(dropFolder.status());
+    }
+
+    private static void getPartitions(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        ctx.json(partitions.describe());
+    }
+
+    private static void retirePartitions(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            ctx.json(Map.of("retired", retire()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
     private static void getSummaries(Context ctx) {
         try {
             Document query = new Document();
             String searchMethod = ctx.queryParam("search_method");
 
+            // Listing view (id, title, date, summary) is answered from the local index
+            if ("list".equals(ctx.queryParam("view"))
+                    && (searchMethod == null || "By Date Range".equals(searchMethod))) {
+                boolean byDate = "By Date Range".equals(searchMethod);
+                int limit = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("limit"),
+                        Integer.toString(Integer.MAX_VALUE)));
+                if (limit < 0) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "limit must not be negative"));
+                    return;
+                }
+                ctx.contentType("application/json").result(listingIndex.listJson(
+                        byDate ? ctx.queryParam("start_date") : null,
+                        byDate ? ctx.queryParam("end_date") : null,
+                        limit));
+                return;
+            }
+
+            // Transcripts are the bulk of a meeting; clients read the part they need from /summaries/{id}/transcript
+            Bson projection = "true".equals(ctx.queryParam("transcription"))
+                    ? Projections.exclude("summary_chunks", "topic_keys")
+                    : Projections.exclude("summary_chunks", "topic_keys", "transcription");
+
+            if ("Semantic".equals(searchMethod)) {
+                String text = ctx.queryParam("q");
+                if (text == null || text.isBlank()) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "q is required for semantic search"));
+                    return;
+                }
+                int k = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("k"), "10"));
+                List<Document> results = semanticSearch.search(text, Math.min(Math.max(k, 1), 100), projection);
+                results.forEach(doc -> doc.put("_id", doc.getObjectId("_id").toString()));
+                ctx.json(results);
+                return;
+            }
+
             if ("By Date Range".equals(searchMethod)) {
                 String startDate = ctx.queryParam("start_date");
                 String endDate = ctx.queryParam("end_date");
@@ -202,6 +816,18 @@ public class SummaryApp {
                             .append("$gte", startDate)
                             .append("$lte", endDate));
                 }
+            } else if ("By Attendee".equals(searchMethod)) {
+                String attendee = ctx.queryParam("attendee");
+                if (attendee != null) {
+                    query.append("attendee_keys", AttendeeIndex.key(attendee));
+                }
+            } else if ("By Topic".equals(searchMethod)) {
+                List<String> keys = Timelines.keys(ctx.queryParam("topic"));
+                if (keys.isEmpty()) {
+                    ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "topic is required for topic search"));
+                    return;
+                }
+                query.append("topic_keys", new Document("$all", keys));
             } else if ("By Meeting Title".equals(searchMethod)) {
                 String title = ctx.queryParam("title");
                 if (title != null) {
@@ -211,16 +837,582 @@ public class SummaryApp {
                 }
             }
 
+            // Date ranges only read the months they cover; other searches read every partition
+            boolean byDate = "By Date Range".equals(searchMethod);
             List<Document> results = new ArrayList<>();
-            collection.find(query)
-                    .sort(new Document("meeting_date", -1))
-                    .forEach(results::add);
+            StageEvents.Mongo find = new StageEvents.Mongo();
+            find.begin();
+            try (MeetingPartitions.Cursor cursor = partitions.find(query,
+                    byDate ? ctx.queryParam("start_date") : null, byDate ? ctx.queryParam("end_date") : null,
+                    projection, true)) {
+                cursor.forEachRemaining(results::add);
+            }
+            find.operation = "query";
+            find.documents = results.size();
+            find.commit();
 
             results.forEach(doc -> doc.put("_id", doc.getObjectId("_id").toString()));
             ctx.json(results);
 
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (AdmissionControl.Rejected e) {
+            // A semantic query's embedding was shed by the AI concurrency limit
+            reject(ctx, e);
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static void getMedia(Context ctx) {
+        try {
+            Document meeting = partitions.get(new ObjectId(ctx.pathParam("id")), Projections.include("media"));
+            Document media = meeting != null ? meeting.get("media", Document.class) : null;
+            MediaStore store = media != null ? mediaStores.get(media.getString("store")) : null;
+            if (store == null) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No media stored for this meeting"));
+                return;
+            }
+            store.serve(ctx, media);
+
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * The part of a meeting's transcript spoken between {@code from} and
+     * {@code to} (seconds or {@code [H:]MM:SS}, both optional), cut at the
+     * timeline entries overlapping that window, with those entries.
+     */
+    private static void getTranscript(Context ctx) {
+        try {
+            ObjectId id = new ObjectId(ctx.pathParam("id"));
+            Double from = ctx.queryParam("from") != null ? Timelines.seconds(ctx.queryParam("from")) : null;
+            Double to = ctx.queryParam("to") != null ? Timelines.seconds(ctx.queryParam("to")) : null;
+            if (from != null && to != null && to <= from) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "to must be after from"));
+                return;
+            }
+            StageEvents.Mongo get = new StageEvents.Mongo();
+            get.begin();
+            Document meeting = partitions.get(id, Projections.include("transcription", "timelines"));
+            get.operation = "get";
+            get.documents = meeting != null ? 1 : 0;
+            get.commit();
+            if (meeting == null || meeting.getString("transcription") == null) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No transcript stored for this meeting"));
+                return;
+            }
+            String transcription = meeting.getString("transcription");
+            List<Document> timelines = meeting.getList("timelines", Document.class, List.of());
+            if (timelines.isEmpty() && (from != null || to != null)) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No timeline stored for this meeting"));
+                return;
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("_id", id.toHexString());
+            if (timelines.isEmpty()) {
+                response.put("text", transcription);
+                response.put("entries", List.of());
+            } else {
+                Timelines.Slice slice = Timelines.slice(transcription, timelines, from, to);
+                response.put("text", slice.text());
+                response.put("entries", slice.entries());
+            }
+            ctx.json(response);
+
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Replaces a meeting's transcript with {@code {"transcription": ...}} and
+     * updates its summary in place, summarizing only the chunks the edit
+     * changed (see {@link ChunkedSummarizer}). The first edit of a meeting
+     * summarizes every chunk, since meetings are stored with one summary for
+     * the whole transcript. Answers 409 if the transcript changed meanwhile.
+     */
+    private static void patchTranscript(Context ctx) {
+        try {
+            ObjectId id = new ObjectId(ctx.pathParam("id"));
+            Map<String, Object> body = mapper.readValue(ctx.body(),
+                    new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {});
+            if (!(body.get("transcription") instanceof String transcription) || transcription.isBlank()) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "transcription is required"));
+                return;
+            }
+            Document meeting = partitions.get(id, Projections.include("meeting_date", "meeting_title", "attendees",
+                    "transcription", "timelines", "summary_chunks"));
+            if (meeting == null) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "Meeting not found"));
+                return;
+            }
+
+            Map<String, Object> context = new LinkedHashMap<>();
+            context.put("date", meeting.getString("meeting_date"));
+            context.put("meeting_title", meeting.getString("meeting_title"));
+            context.put("attendees", String.join("\n", meeting.getList("attendees", String.class, List.of())));
+            ChunkedSummarizer.Result result = chunkedSummarizer.summarize(transcription,
+                    meeting.getList("summary_chunks", Document.class, List.of()), context);
+
+            // Only if nobody saved another edit while the chunks were summarized
+            StageEvents.Mongo update = new StageEvents.Mongo();
+            update.begin();
+            UpdateResult updated = partitions.partitionOf(meeting).updateOne(
+                    Filters.and(Filters.eq("_id", id), Filters.eq("transcription", meeting.getString("transcription"))),
+                    Updates.combine(
+                            Updates.set("transcription", transcription),
+                            Updates.set("summary", result.summary()),
+                            Updates.set("summary_chunks", result.chunks()),
+                            // Times stay; the topics' offsets follow the text around the edit
+                            Updates.set("timelines", Timelines.shift(
+                                    meeting.getList("timelines", Document.class, List.of()),
+                                    meeting.getString("transcription"), transcription)),
+                            Updates.set("transcript_edited_at", new Date())));
+            update.operation = "update";
+            update.documents = updated.getModifiedCount();
+            update.commit();
+            if (updated.getMatchedCount() == 0) {
+                ctx.status(HttpStatus.CONFLICT).json(Map.of("error", "The transcript was changed meanwhile; reload it and retry"));
+                return;
+            }
+            meeting.put("summary", result.summary());
+            // Every instance updates its listing record and re-embeds the meeting for semantic search
+            summaryEvents.summaryChanged(meeting);
+
+            ctx.json(Map.of("_id", id.toHexString(), "summary", result.summary(),
+                    "chunks", result.chunks().size(), "summarized_chunks", result.summarized()));
+
+        } catch (AdmissionControl.Rejected e) {
+            reject(ctx, e);
+        } catch (IllegalArgumentException | com.fasterxml.jackson.core.JsonProcessingException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Streams every meeting in the date range as NDJSON, CSV or a zip archive.
+     * {@code after} resumes a broken export; {@code gzip=true} compresses the
+     * file itself rather than the transfer.
+     */
+    private static void exportMeetings(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        MeetingExport.Format format;
+        boolean gzip = "true".equals(ctx.queryParam("gzip"));
+        String startDate = ctx.queryParam("start_date");
+        String endDate = ctx.queryParam("end_date");
+        String after = ctx.queryParam("after");
+        try {
+            format = MeetingExport.format(Objects.requireNonNullElse(ctx.queryParam("format"), "ndjson"));
+            MeetingExport.filter(startDate, endDate, after);
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+            return;
+        }
+        ctx.contentType(MeetingExport.contentType(format, gzip));
+        ctx.header("Content-Disposition", "attachment; filename=\"" + MeetingExport.fileName(format, gzip) + "\"");
+        try (MeetingPartitions.Cursor cursor = meetingExport.find(startDate, endDate, after)) {
+            MeetingExport.write(format, gzip, () -> cursor, ctx.outputStream());
+        } catch (Exception e) {
+            // The status is already sent; the client sees a truncated file and resumes with after
+            System.err.println("Export failed: " + e.getMessage());
+        }
+    }
+
+    private static boolean requireAdmin(Context ctx) {
+        String header = ctx.header("Authorization");
+        String adminToken = settings.adminToken;
+        if (adminToken == null || adminToken.isEmpty() || !("Bearer " + adminToken).equals(header)) {
+            ctx.status(HttpStatus.FORBIDDEN).json(Map.of("error", "Admin token required"));
+            return false;
+        }
+        return true;
+    }
+
+    private static synchronized void startResummarize(Context ctx, MongoDatabase database) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            if (resummarizeJob != null && resummarizeJob.isRunning()) {
+                ctx.status(HttpStatus.CONFLICT).json(resummarizeJob.status());
+                return;
+            }
+            String jobId = Objects.requireNonNullElse(ctx.queryParam("job"), "resummarize");
+            int parallelism = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("parallelism"), "4"));
+            double rate = Double.parseDouble(Objects.requireNonNullElse(ctx.queryParam("rate"), "2"));
+            int pageSize = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("page_size"), "100"));
+
+            resummarizeJob = new ResummarizeJob(partitions, database.getCollection("job_checkpoints"), aiClient,
+                    jobId, parallelism, rate, pageSize, summaryEvents::summaryChanged);
+            if ("true".equals(ctx.queryParam("reset"))) {
+                resummarizeJob.resetCheckpoint();
+            }
+            resummarizeJob.start();
+            ctx.status(HttpStatus.ACCEPTED).json(resummarizeJob.status());
+
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static void getResummarizeStatus(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        if (resummarizeJob == null) {
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No re-summarization job has been started"));
+            return;
+        }
+        ctx.json(resummarizeJob.status());
+    }
+
+    private static void stopResummarize(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        if (resummarizeJob != null) {
+            resummarizeJob.stop();
+            ctx.json(resummarizeJob.status());
+        } else {
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No re-summarization job has been started"));
+        }
+    }
+
+    private static void getStats(Context ctx, String kind) {
+        try {
+            if (MeetingStats.ATTENDEE.equals(kind)) {
+                int limit = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("limit"), "20"));
+                ctx.json(meetingStats.top(kind, limit));
+            } else {
+                ctx.json(meetingStats.range(kind, ctx.queryParam("from"), ctx.queryParam("to")));
+            }
+
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static void rebuildStats(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            meetingStats.rebuild();
+            ctx.json(Map.of("status", "rebuilt"));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static void completeAttendees(Context ctx) {
+        try {
+            int limit = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("limit"), "10"));
+            ctx.json(attendeeIndex.complete(ctx.queryParam("prefix"), Math.min(limit, 100)));
+
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static TranscriptionEngine createTranscriptionEngine() {
+        if (!"local".equals(settings.transcriptionEngine)) {
+            return new FlaskTranscriptionEngine(aiClient);
+        }
+        try {
+            System.out.println("Transcribing in-process with " + settings.voskModelDir + " on "
+                    + settings.transcriptionThreads + " threads");
+            return new LocalTranscriptionEngine(settings.voskModelDir, settings.transcriptionThreads, settings.ffmpeg,
+                    aiClient, mapper);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load the speech model from " + settings.voskModelDir, e);
+        }
+    }
+
+    private static SemanticSearch createSemanticSearch() {
+        try {
+            Embedder embedder;
+            if ("remote".equals(settings.embedder)) {
+                embedder = new RemoteEmbedder(aiClient, settings.embeddingDim);
+            } else {
+                embedder = new HashingEmbedder(settings.embeddingDim);
+            }
+            HnswIndex index = new HnswIndex(settings.semanticIndexDir,
+                    embedder.dimensions(), 16, 100);
+            return new SemanticSearch(partitions, embedder, index);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open semantic index", e);
+        }
+    }
+
+    private static void rebuildListing(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            listingIndex.rebuild(partitions);
+            ctx.json(Map.of("status", "rebuilt", "meetings", listingIndex.size()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    static MongoClientSettings mongoClientSettings(AppConfig config) {
+        List<MongoCompressor> compressors = new ArrayList<>();
+        for (String name : config.mongoCompressors) {
+            // Offered in order; the server picks the first one it also supports
+            compressors.add(switch (name) {
+                case "zstd" -> MongoCompressor.createZstdCompressor();
+                case "snappy" -> MongoCompressor.createSnappyCompressor();
+                default -> MongoCompressor.createZlibCompressor();
+            });
+        }
+        return MongoClientSettings.builder()
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(config.mongoMaxPoolSize)
+                        .minSize(config.mongoMinPoolSize)
+                        .maxConnecting(config.mongoMaxConnecting)
+                        .maxWaitTime(config.mongoPoolWait.toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(mongoPoolMetrics))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout((int) config.mongoConnectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) config.mongoSocketTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(cluster -> cluster
+                        .serverSelectionTimeout(config.mongoServerSelectionTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .compressorList(compressors)
+                // Options spelled out in MONGO_URI take precedence over the settings above
+                .applyConnectionString(new ConnectionString(config.mongoUri))
+                .build();
+    }
+
+    /** Where list and search reads go; writes and reads by id always use the primary. */
+    static ReadPreference listReadPreference(AppConfig config) {
+        if ("primary".equals(config.mongoListReadPreference)) {
+            return ReadPreference.primary();
+        }
+        return ReadPreference.valueOf(config.mongoListReadPreference, List.of(),
+                config.mongoMaxStaleness.getSeconds(), TimeUnit.SECONDS);
+    }
+
+    private static AdmissionControl.Limits admissionLimits(AppConfig config) {
+        AdmissionControl.Limits limits = new AdmissionControl.Limits();
+        limits.readsPerSecond = config.readsPerSecond;
+        limits.readBurst = Math.max(1, config.readsPerSecond * 2);
+        limits.writesPerMinute = config.writesPerMinute;
+        limits.maxInflightBytes = config.maxInflightBytes;
+        limits.maxUploadBytes = config.maxUploadBytes;
+        limits.maxMediaJobs = config.maxMediaJobs;
+        limits.reservedReadThreads = config.reservedReadThreads;
+        return limits;
+    }
+
+    private static void getLimits(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        ctx.json(admission.status());
+    }
+
+    private static void updateLimits(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            AdmissionControl.Limits limits = mapper.readerForUpdating(admission.limits()).readValue(ctx.body());
+            admission.setLimits(limits);
+            ctx.json(admission.status());
+        } catch (IllegalArgumentException | IOException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static void getJob(Context ctx) {
+        try {
+            Document job = jobQueue != null ? jobQueue.find(new ObjectId(ctx.pathParam("id"))) : null;
+            if (job == null) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No such job"));
+                return;
+            }
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("job_id", job.getObjectId("_id").toHexString());
+            status.put("state", job.getString("state"));
+            status.put("attempts", job.getInteger("attempts", 0));
+            if (job.getString("error") != null) {
+                status.put("error", job.getString("error"));
+            }
+            if (JobQueue.DONE.equals(job.getString("state"))) {
+                status.put("response", job.get("result", Document.class).get("response"));
+            }
+            ctx.json(status);
+
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Starts a JFR recording of at most {@code seconds} (default 300) and
+     * {@code max_mb}, both capped by the configured limits. With
+     * {@code continuous=true} it runs until stopped, keeping the last
+     * {@code seconds}.
+     */
+    private static void startProfiling(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            long maxSeconds = settings.profilingMaxDuration.getSeconds();
+            long seconds = Long.parseLong(Objects.requireNonNullElse(ctx.queryParam("seconds"), "300"));
+            int maxMb = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("max_mb"),
+                    Integer.toString(settings.profilingMaxMb)));
+            if (seconds < 1 || seconds > maxSeconds || maxMb < 1 || maxMb > settings.profilingMaxMb) {
+                ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", "seconds must be 1-" + maxSeconds
+                        + " and max_mb 1-" + settings.profilingMaxMb));
+                return;
+            }
+            ctx.json(profiler.start(Duration.ofSeconds(seconds), maxMb * 1024L * 1024,
+                    "true".equals(ctx.queryParam("continuous"))));
+        } catch (NumberFormatException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            ctx.status(HttpStatus.CONFLICT).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static void getProfilingStatus(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        ctx.json(profiler.status());
+    }
+
+    private static void stopProfiling(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        if (profiler.stop() == null) {
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No recording is running"));
+            return;
+        }
+        ctx.json(profiler.status());
+    }
+
+    /** Writes the running recording so far to a snapshot file, e.g. to look into a continuous one. */
+    private static void dumpProfiling(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            ctx.json(Map.of("file", profiler.dump().getFileName().toString()));
+        } catch (IllegalStateException e) {
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** The last finished recording, or the one named by {@code file}, for JDK Mission Control. */
+    private static void downloadRecording(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            Path file = profiler.recording(ctx.queryParam("file"));
+            if (file == null) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No recording has been written"));
+                return;
+            }
+            ctx.contentType("application/octet-stream");
+            ctx.header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"");
+            ctx.result(Files.newInputStream(file));
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** Slowest stages and top allocation sites of the last recording, or the one named by {@code file}. */
+    private static void getProfilingSummary(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            Path file = profiler.recording(ctx.queryParam("file"));
+            if (file == null) {
+                ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "No recording has been written"));
+                return;
+            }
+            int top = Integer.parseInt(Objects.requireNonNullElse(ctx.queryParam("top"), "20"));
+            ctx.json(Profiler.summarize(file, Math.min(Math.max(top, 1), 1000)));
+        } catch (IllegalArgumentException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static void getQueueStatus(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        if (jobQueue == null) {
+            ctx.status(HttpStatus.NOT_FOUND).json(Map.of("error", "JOB_MODE is not queue"));
+            return;
+        }
+        ctx.json(jobQueue.status());
+    }
+
+    /** Prometheus text format; protected by the admin token like the other operational endpoints. */
+    private static void getMetrics(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        StringBuilder out = new StringBuilder();
+        mongoPoolMetrics.write(out);
+        aiLimiter.write(out);
+        ctx.contentType("text/plain; version=0.0.4").result(out.toString());
+    }
+
+    private static void getConfig(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        ctx.json(settings.describe());
+    }
+
+    private static void reloadConfig(Context ctx) {
+        if (!requireAdmin(ctx)) {
+            return;
+        }
+        try {
+            List<String> restartRequired = applySettings(AppConfig.load());
+            ctx.json(Map.of("status", "reloaded", "restart_required", restartRequired));
+        } catch (IllegalStateException e) {
+            ctx.status(HttpStatus.BAD_REQUEST).json(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             ctx.status(HttpStatus.INTERNAL_SERVER_ERROR).json(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import io.javalin.http.sse.SseClient;
+import org.bson.BsonDocument;
+import org.bson.Document;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Pushes newly stored meetings to SSE subscribers, and new meetings and
+ * summaries to the {@link #onInsert} and {@link #onSummaryChange} listeners
+ * that keep this instance's local indexes in step.
+ *
+ * <p>Inserts and updates of {@code summary} are taken from a change stream on
+ * the meeting partitions so that writes by any backend instance are seen. A
+ * standalone MongoDB has no change streams; in that case the events published
+ * by this process's own insert and update paths are delivered instead, which
+ * covers a single instance only.
+ */
+public class SummaryEvents {
+    // "The $changeStream stage is only supported on replica sets"
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final MeetingPartitions meetings;
+    private final Set<SseClient> clients = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<Document>> insertListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Document>> summaryListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService pinger = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "sse-ping");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean localOnly;
+    private volatile boolean stopped;
+    private Thread watcher;
+    private BsonDocument resumeToken;
+
+    public SummaryEvents(MeetingPartitions meetings) {
+        this.meetings = meetings;
+    }
+
+    public void start() {
+        watcher = new Thread(this::watch, "summary-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+        // Comments keep proxies from closing idle streams and reveal dead clients
+        pinger.scheduleAtFixedRate(() -> clients.forEach(client -> {
+            if (client.terminated()) {
+                clients.remove(client);
+            } else {
+                client.sendComment("ping");
+            }
+        }), 15, 15, TimeUnit.SECONDS);
+    }
+
+    /** Stops watching and closes every subscriber's stream. */
+    public void stop() {
+        stopped = true;
+        pinger.shutdownNow();
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        clients.forEach(SseClient::close);
+        clients.clear();
+    }
+
+    /**
+     * Calls {@code listener} with every meeting inserted, by any instance.
+     * The instance that stored a meeting has usually indexed it already, so
+     * listeners must ignore meetings they know.
+     */
+    public void onInsert(Consumer<Document> listener) {
+        insertListeners.add(listener);
+    }
+
+    /**
+     * Calls {@code listener} with every meeting whose {@code summary} was
+     * updated, by any instance. The meeting lacks its transcription.
+     */
+    public void onSummaryChange(Consumer<Document> listener) {
+        summaryListeners.add(listener);
+    }
+
+    public void subscribe(SseClient client) {
+        client.keepAlive();
+        client.onClose(() -> clients.remove(client));
+        clients.add(client);
+    }
+
+    /** Called by the insert path; only delivered when no change stream is available. */
+    public void published(Document meeting) {
+        if (localOnly) {
+            notify(insertListeners, meeting);
+            broadcast(meeting);
+        }
+    }
+
+    /** Called by the paths that update a summary; only delivered when no change stream is available. */
+    public void summaryChanged(Document meeting) {
+        if (localOnly) {
+            notify(summaryListeners, meeting);
+        }
+    }
+
+    private void watch() {
+        long backoff = 1000;
+        while (!stopped) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openCursor()) {
+                backoff = 1000;
+                while (!stopped) {
+                    ChangeStreamDocument<Document> change = cursor.next();
+                    resumeToken = change.getResumeToken();
+                    Document meeting = change.getFullDocument();
+                    if (meeting == null) {
+                        // Deleted before the update was looked up
+                        continue;
+                    }
+                    if (change.getOperationType() == OperationType.INSERT) {
+                        notify(insertListeners, meeting);
+                        broadcast(meeting);
+                    } else {
+                        notify(summaryListeners, meeting);
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    System.err.println("Change streams unavailable, pushing local inserts only");
+                    localOnly = true;
+                    return;
+                }
+                System.err.println("Change stream failed: " + e.getMessage());
+            } catch (Exception e) {
+                if (stopped) {
+                    return;
+                }
+                System.err.println("Change stream failed: " + e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, 30_000);
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openCursor() {
+        var stream = meetings.watch(List.of(
+                        Aggregates.match(Filters.or(Filters.eq("operationType", "insert"), Filters.and(
+                                Filters.eq("operationType", "update"),
+                                Filters.exists("updateDescription.updatedFields.summary")))),
+                        // Nobody here needs the transcript, the bulk of a meeting
+                        Aggregates.project(Projections.exclude("fullDocument.transcription",
+                                "updateDescription.updatedFields.transcription"))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    private static void notify(List<Consumer<Document>> listeners, Document meeting) {
+        for (Consumer<Document> listener : listeners) {
+            try {
+                listener.accept(meeting);
+            } catch (Exception e) {
+                System.err.println("Failed to update meeting indexes: " + e.getMessage());
+            }
+        }
+    }
+
+    private void broadcast(Document meeting) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        try {
+            Document event = new Document(meeting);
+            event.put("_id", meeting.getObjectId("_id").toString());
+            // Subscribers read the transcript, or the part they need, from /summaries/{id}/transcript
+            event.remove("transcription");
+            String json = mapper.writeValueAsString(event);
+            for (SseClient client : clients) {
+                if (client.terminated()) {
+                    clients.remove(client);
+                } else {
+                    client.sendEvent("summary", json);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to push summary: " + e.getMessage());
+        }
+    }
+}
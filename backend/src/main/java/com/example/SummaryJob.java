@@ -0,0 +1,26 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Durable state of one summarization job, wherever it is kept: the local
+ * {@link JobJournal} or the shared {@link JobQueue}. Whoever runs the job
+ * records the AI response and the meeting id through it before storing the
+ * meeting, so a job picked up again after a crash resumes from there.
+ */
+public interface SummaryJob {
+    String id();
+
+    /** Where the job's upload named {@code name} can be read locally. */
+    Path file(String name);
+
+    /** The recorded result, or {@code null} if the AI service had not answered yet. */
+    Map<String, Object> readResult() throws IOException;
+
+    void writeResult(Map<String, Object> result) throws IOException;
+
+    /** The job's meeting is stored. */
+    void complete() throws IOException;
+}
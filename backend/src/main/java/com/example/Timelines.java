@@ -0,0 +1,337 @@
+package com.example;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Meeting timelines as structured entries, {@code {start, end, topic,
+ * offset}}: when a topic started and ended, in seconds from the start of the
+ * recording, and the character offset in the transcription where it starts.
+ * An entry runs until the next one starts; the last one has no {@code end}
+ * unless the recording's length is known.
+ *
+ * <p>The AI service returns timelines as a list of strings such as
+ * {@code "05:30 Budget"}, {@code "[1:02:10] Hiring"} or
+ * {@code "00:10 - 00:15: Intro"}, or of {@code {start, end, topic}} maps;
+ * entries without a time are dropped. The offset is where the topic's text
+ * first appears in the transcription after the previous entry, which finds
+ * the exact place for the in-process engine's timelines (they quote the
+ * transcript). A topic that is only a title is placed in proportion to its
+ * start time instead, at the next word.
+ *
+ * <p>{@code topic_keys}, the distinct words of the topics, is stored next to
+ * the entries and indexed like {@code attendee_keys}, so meetings that
+ * discussed a topic are found without reading their timelines.
+ */
+public final class Timelines {
+    /** Speaking rate used to estimate a recording's length from its transcript when nothing else gives it. */
+    static final double CHARS_PER_SECOND = 15;
+    private static final int PROBE_CHARS = 40;
+    private static final int MIGRATION_BATCH = 1000;
+    private static final String TIME = "(?:\\d{1,2}:)?\\d{1,2}:\\d{2}(?:\\.\\d+)?";
+    private static final Pattern ENTRY = Pattern.compile(
+            "^\\s*[\\[(]?\\s*(" + TIME + ")(?:\\s*[-–—]+\\s*(" + TIME + "))?\\s*[\\])]?\\s*[-–—:|.]*\\s*(.*)$",
+            Pattern.DOTALL);
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of("the", "and", "for", "with", "about", "from", "into",
+            "that", "this", "our", "are", "was", "were", "will", "been", "has", "have", "had", "its", "their",
+            "they", "them", "you", "your", "not", "but", "all", "any", "out", "off", "over", "per", "via");
+
+    private Timelines() {
+    }
+
+    /**
+     * Structured entries for the AI service's {@code timelines}, in start
+     * order.
+     *
+     * @param seconds the recording's length if known, otherwise {@code null}
+     */
+    public static List<Document> parse(Object raw, String transcription, Number seconds) {
+        List<Document> entries = new ArrayList<>();
+        if (raw instanceof List<?> items) {
+            for (Object item : items) {
+                Document entry = item instanceof Map<?, ?> map ? fromMap(map) : fromString(String.valueOf(item));
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        entries.sort(Comparator.comparingDouble(entry -> entry.getDouble("start")));
+        Double length = seconds != null ? seconds.doubleValue() : null;
+        for (Document entry : entries) {
+            if (entry.get("end") instanceof Double end && (length == null || end > length)) {
+                length = end;
+            }
+        }
+        resolve(entries, transcription == null ? "" : transcription, length);
+        return entries;
+    }
+
+    /** The distinct, lowercased words of the entries' topics, as stored in {@code topic_keys}. */
+    public static List<String> keys(List<Document> entries) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Document entry : entries) {
+            keys.addAll(keys(entry.getString("topic")));
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /** The words of {@code topic} that are matched against {@code topic_keys}. */
+    public static List<String> keys(String topic) {
+        Set<String> keys = new LinkedHashSet<>();
+        Matcher word = WORD.matcher(topic == null ? "" : topic.toLowerCase(Locale.ROOT));
+        while (word.find()) {
+            String key = word.group();
+            if (key.length() > 2 && !STOP_WORDS.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * The entries overlapping {@code [from, to)} seconds (either may be
+     * {@code null} for the start or end of the meeting) and the part of the
+     * transcription spoken during them.
+     */
+    public static Slice slice(String transcription, List<Document> entries, Double from, Double to) {
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            Number end = entries.get(i).get("end", Number.class);
+            boolean startsBefore = to == null || entries.get(i).get("start", Number.class).doubleValue() < to;
+            boolean endsAfter = from == null || end == null || end.doubleValue() > from;
+            if (startsBefore && endsAfter) {
+                first = first < 0 ? i : first;
+                last = i;
+            }
+        }
+        if (first < 0) {
+            return new Slice("", List.of());
+        }
+        int start = offset(entries.get(first), transcription);
+        int end = last + 1 < entries.size() ? offset(entries.get(last + 1), transcription) : transcription.length();
+        return new Slice(transcription.substring(start, Math.max(start, end)).strip(),
+                entries.subList(first, last + 1));
+    }
+
+    /**
+     * The entries with their offsets moved for an edit from {@code before} to
+     * {@code after}: text outside the edited span keeps its entries, and
+     * entries inside it move to where the edit starts.
+     */
+    public static List<Document> shift(List<Document> entries, String before, String after) {
+        int prefix = 0;
+        int shorter = Math.min(before.length(), after.length());
+        while (prefix < shorter && before.charAt(prefix) == after.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && before.charAt(before.length() - 1 - suffix) == after.charAt(after.length() - 1 - suffix)) {
+            suffix++;
+        }
+        List<Document> shifted = new ArrayList<>(entries.size());
+        for (Document entry : entries) {
+            int offset = offset(entry, before);
+            if (offset >= before.length() - suffix && offset > prefix) {
+                offset += after.length() - before.length();
+            } else if (offset > prefix) {
+                offset = prefix;
+            }
+            shifted.add(new Document(entry).append("offset", offset));
+        }
+        return shifted;
+    }
+
+    /** Seconds given as a number or as {@code [H:]MM:SS}. */
+    public static double seconds(String time) {
+        String text = time.strip();
+        if (!text.contains(":")) {
+            double seconds = Double.parseDouble(text);
+            if (seconds < 0 || !Double.isFinite(seconds)) {
+                throw new IllegalArgumentException("Invalid time: " + time);
+            }
+            return seconds;
+        }
+        if (!text.matches(TIME)) {
+            throw new IllegalArgumentException("Invalid time: " + time);
+        }
+        String[] parts = text.split(":");
+        double seconds = Double.parseDouble(parts[parts.length - 1]);
+        seconds += Integer.parseInt(parts[parts.length - 2]) * 60;
+        if (parts.length == 3) {
+            seconds += Integer.parseInt(parts[0]) * 3600;
+        }
+        return seconds;
+    }
+
+    /**
+     * Structures the timelines of meetings stored before timelines were
+     * parsed, and indexes {@code topic_keys} in every partition. See
+     * {@link #migrated} for what each meeting gets.
+     *
+     * @return how many meetings were converted
+     */
+    public static int migrate(MeetingPartitions partitions) {
+        Bson unstructured = Filters.and(Filters.exists("timelines.0"), Filters.exists("topic_keys", false));
+        int migrated = 0;
+        for (String name : partitions.names(null, null)) {
+            MongoCollection<Document> partition = partitions.partition(name);
+            partition.createIndex(Indexes.ascending("topic_keys"));
+            List<WriteModel<Document>> updates = new ArrayList<>();
+            for (Document meeting : partition.find(unstructured)
+                    .projection(Projections.include("timelines", "transcription"))) {
+                updates.add(new UpdateOneModel<>(Filters.eq("_id", meeting.getObjectId("_id")),
+                        new Document("$set", migrated(meeting))));
+                migrated++;
+                if (updates.size() == MIGRATION_BATCH) {
+                    partition.bulkWrite(updates);
+                    updates.clear();
+                }
+            }
+            if (!updates.isEmpty()) {
+                partition.bulkWrite(updates);
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * The fields to set on a meeting with a legacy timeline: the parsed
+     * {@code timelines}, their {@code topic_keys}, and the original array as
+     * {@code timelines_raw}, because entries without a time cannot be parsed
+     * and would otherwise be lost.
+     */
+    static Document migrated(Document meeting) {
+        List<Document> entries = parse(meeting.get("timelines"), meeting.getString("transcription"), null);
+        return new Document("timelines", entries).append("topic_keys", keys(entries))
+                .append("timelines_raw", meeting.get("timelines"));
+    }
+
+    private static Document fromString(String text) {
+        Matcher matcher = ENTRY.matcher(text);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return entry(seconds(matcher.group(1)), matcher.group(2) != null ? seconds(matcher.group(2)) : null,
+                matcher.group(3));
+    }
+
+    private static Document fromMap(Map<?, ?> map) {
+        Double start = time(first(map, "start", "start_time", "time", "timestamp"));
+        if (start == null) {
+            return null;
+        }
+        Object topic = first(map, "topic", "title", "text", "summary");
+        return entry(start, time(first(map, "end", "end_time")), topic == null ? "" : topic.toString());
+    }
+
+    private static Document entry(double start, Double end, String topic) {
+        return new Document("start", start).append("end", end != null && end > start ? end : null)
+                .append("topic", topic.strip());
+    }
+
+    private static Object first(Map<?, ?> map, String... keys) {
+        for (String key : keys) {
+            if (map.get(key) != null) {
+                return map.get(key);
+            }
+        }
+        return null;
+    }
+
+    private static Double time(Object value) {
+        try {
+            return value instanceof Number number ? number.doubleValue()
+                    : value != null ? seconds(value.toString()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Fills in each entry's {@code offset} and the {@code end} of all but the last. */
+    private static void resolve(List<Document> entries, String transcription, Double length) {
+        double estimated = length != null ? length : estimatedLength(entries, transcription);
+        int previous = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            Document entry = entries.get(i);
+            if (i + 1 < entries.size() && entry.get("end") == null) {
+                double next = entries.get(i + 1).getDouble("start");
+                entry.put("end", next > entry.getDouble("start") ? next : null);
+            } else if (i + 1 == entries.size() && entry.get("end") == null && length != null
+                    && length > entry.getDouble("start")) {
+                entry.put("end", length);
+            }
+            int offset = quoted(entry.getString("topic"), transcription, previous);
+            if (offset < 0) {
+                offset = nextWord(transcription,
+                        Math.max(previous, (int) Math.min(transcription.length(),
+                                transcription.length() * entry.getDouble("start") / Math.max(estimated, 1))));
+            }
+            entry.put("offset", offset);
+            previous = offset;
+        }
+    }
+
+    /** Where the topic's first words appear verbatim at or after {@code from}, or -1. */
+    private static int quoted(String topic, String transcription, int from) {
+        String probe = topic.replaceAll("(…|\\.\\.\\.)$", "").strip();
+        if (probe.length() > PROBE_CHARS) {
+            int space = probe.lastIndexOf(' ', PROBE_CHARS);
+            probe = probe.substring(0, space > 0 ? space : PROBE_CHARS);
+        }
+        // Short titles like "Budget" would match the first mention rather than where the topic starts
+        return probe.length() < 12 ? -1 : transcription.indexOf(probe, from);
+    }
+
+    /**
+     * Without the recording's length, the transcript's length at an average
+     * speaking rate, but at least long enough for the last entry to last as
+     * long as the average one.
+     */
+    private static double estimatedLength(List<Document> entries, String transcription) {
+        double fromText = transcription.length() / CHARS_PER_SECOND;
+        if (entries.isEmpty()) {
+            return fromText;
+        }
+        double lastStart = entries.get(entries.size() - 1).getDouble("start");
+        double averageGap = entries.size() > 1 ? lastStart / (entries.size() - 1) : 0;
+        return Math.max(fromText, lastStart + averageGap);
+    }
+
+    private static int nextWord(String text, int offset) {
+        if (offset == 0) {
+            return 0;
+        }
+        while (offset < text.length() && !Character.isWhitespace(text.charAt(offset - 1))) {
+            offset++;
+        }
+        return offset;
+    }
+
+    private static int offset(Document entry, String transcription) {
+        Number offset = entry.get("offset", Number.class);
+        return offset == null ? 0 : Math.min(Math.max(offset.intValue(), 0), transcription.length());
+    }
+
+    /** @param entries the overlapping entries, in start order */
+    public record Slice(String text, List<Document> entries) {
+    }
+}
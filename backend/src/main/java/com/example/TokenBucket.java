@@ -0,0 +1,69 @@
+package com.example;
+
+/**
+ * Thread-safe token bucket. Tokens refill continuously at {@code ratePerSecond}
+ * up to {@code capacity}, which bounds the size of a burst.
+ */
+public class TokenBucket {
+    private double ratePerSecond;
+    private double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, double capacity) {
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /** Blocks until a token is available. */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = nanosUntilNextToken();
+            }
+            Thread.sleep(Math.max(1, waitNanos / 1_000_000), (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    /** Time until the next token, for {@code Retry-After} style hints. */
+    public synchronized long nanosUntilNextToken() {
+        refill();
+        if (tokens >= 1) {
+            return 0;
+        }
+        if (ratePerSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerSecond * 1_000_000_000L);
+    }
+
+    public synchronized void setRate(double ratePerSecond, double capacity) {
+        refill();
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = capacity;
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) / 1_000_000_000.0 * ratePerSecond);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Turns a recording into a meeting: its transcription, summary and timelines,
+ * plus the date, attendees and title when they can be told from the
+ * recording. The result has the shape of the Flask service's media
+ * responses, which {@link SummaryApp} stores as they are.
+ *
+ * <p>{@code TRANSCRIPTION_ENGINE} selects {@link FlaskTranscriptionEngine},
+ * which sends the whole recording to the Flask service, or
+ * {@link LocalTranscriptionEngine}, which recognizes speech in this process.
+ */
+public interface TranscriptionEngine extends AutoCloseable {
+    /**
+     * @param mediaType   {@code video} or {@code audio}
+     * @param contentType the recording's MIME type
+     * @param form        {@code date}, {@code meeting_title} and {@code attendees} as given by the uploader, if any
+     */
+    Map<String, Object> summarize(String mediaType, Path recording, String contentType, Map<String, String> form)
+            throws Exception;
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,113 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The AI concurrency limit found against a stub service that handles
+ * {@code capacity} calls at once and queues the rest, driven by more clients
+ * than it can serve while its capacity drops and recovers. A limit around the
+ * capacity, up to {@link AdaptiveLimiter#TOLERANCE} times it, keeps the service
+ * busy without a long queue. Run from {@code backend}:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.AdaptiveLimiterBenchmark
+ * </pre>
+ */
+public class AdaptiveLimiterBenchmark
+{
+    private static final long SERVICE_MILLIS = 100;
+    private static final int CLIENTS = 40;
+
+    public static void main( String[] args ) throws Exception
+    {
+        Stub stub = new Stub( 12 );
+        Javalin service = Javalin.create( config -> config.showJavalinBanner = false );
+        service.post( "/text-summary", ctx -> {
+            stub.serve();
+            ctx.json( Map.of( "summary", "ok" ) );
+        } );
+        service.start( 0 );
+        AdaptiveLimiter limiter = new AdaptiveLimiter( 1, 64, 1000, Duration.ofMinutes( 1 ) );
+        AiClient client = new AiClient( HttpClient.newBuilder().version( HttpClient.Version.HTTP_1_1 ).build(),
+                new ObjectMapper(), "http://localhost:" + service.port(), Duration.ofSeconds( 30 ), limiter );
+        AtomicBoolean running = new AtomicBoolean( true );
+        ExecutorService clients = Executors.newFixedThreadPool( CLIENTS );
+        try {
+            for ( int i = 0; i < CLIENTS; i++ ) {
+                clients.submit( () -> {
+                    while ( running.get() ) {
+                        client.summarizeText( "{\"text\": \"stand-up\"}" );
+                    }
+                    return null;
+                } );
+            }
+
+            System.out.println( "capacity  settled limit  (" + CLIENTS + " clients, " + SERVICE_MILLIS + " ms per call)" );
+            for ( int capacity : new int[] { 12, 2, 12 } ) {
+                stub.capacity = capacity;
+                System.out.printf( "%8d  %13.1f%n", capacity, settledLimit( limiter ) );
+            }
+        } finally {
+            running.set( false );
+            clients.shutdown();
+            clients.awaitTermination( 10, TimeUnit.SECONDS );
+            service.stop();
+        }
+    }
+
+    /** The average limit over the second half of a four second phase. */
+    private static double settledLimit( AdaptiveLimiter limiter ) throws InterruptedException
+    {
+        Thread.sleep( 2000 );
+        long sum = 0;
+        int samples = 0;
+        for ( long end = System.nanoTime() + TimeUnit.SECONDS.toNanos( 2 ); System.nanoTime() < end; samples++ ) {
+            sum += limiter.currentLimit();
+            Thread.sleep( 20 );
+        }
+        return (double) sum / samples;
+    }
+
+    private static final class Stub
+    {
+        volatile int capacity;
+        int busy;
+        long issued;
+        long admitted;
+
+        Stub( int capacity )
+        {
+            this.capacity = capacity;
+        }
+
+        void serve() throws InterruptedException
+        {
+            synchronized ( this ) {
+                // Served in arrival order, like a worker pool's queue
+                long ticket = issued++;
+                while ( ticket != admitted || busy >= capacity ) {
+                    wait();
+                }
+                admitted++;
+                busy++;
+                notifyAll();
+            }
+            try {
+                Thread.sleep( SERVICE_MILLIS );
+            } finally {
+                synchronized ( this ) {
+                    busy--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example;
+
+import io.javalin.http.HttpStatus;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveLimiterTest extends TestCase
+{
+    public void testExcessCallsQueueThenShed() throws Exception
+    {
+        AdaptiveLimiter limiter = new AdaptiveLimiter( 1, 1, 1, Duration.ofMillis( 100 ) );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AdaptiveLimiter.Permit first = limiter.acquire( "text", 10 );
+            Future<?> queued = executor.submit( () -> {
+                limiter.acquire( "text", 10 ).close();
+                return null;
+            } );
+            while ( !metrics( limiter ).contains( "ai_queued 1" ) ) {
+                Thread.sleep( 1 );
+            }
+            try {
+                limiter.acquire( "text", 10 );
+                fail( "Expected the call beyond the queue to be shed" );
+            } catch ( AdmissionControl.Rejected e ) {
+                assertEquals( HttpStatus.SERVICE_UNAVAILABLE, e.status );
+            }
+            first.close();
+            queued.get( 5, TimeUnit.SECONDS );
+
+            try ( AdaptiveLimiter.Permit held = limiter.acquire( "text", 10 ) ) {
+                long start = System.nanoTime();
+                try {
+                    limiter.acquire( "text", 10 );
+                    fail( "Expected the wait to run out" );
+                } catch ( AdmissionControl.Rejected e ) {
+                    assertTrue( System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos( 100 ) );
+                }
+            }
+            String metrics = metrics( limiter );
+            assertTrue( metrics, metrics.contains( "ai_shed_total{reason=\"queue_full\"} 1" ) );
+            assertTrue( metrics, metrics.contains( "ai_shed_total{reason=\"timeout\"} 1" ) );
+            assertEquals( 0, limiter.inflight() );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testOverloadHalvesTheLimitOncePerRoundTrip() throws Exception
+    {
+        AdaptiveLimiter limiter = new AdaptiveLimiter( 1, 64, 0, Duration.ZERO );
+        List<AdaptiveLimiter.Permit> permits = new ArrayList<>();
+        for ( int i = 0; i < AdaptiveLimiter.INITIAL_LIMIT; i++ ) {
+            permits.add( limiter.acquire( "video", 1 << 20 ) );
+        }
+        for ( AdaptiveLimiter.Permit permit : permits ) {
+            permit.overloaded();
+            permit.close();
+        }
+        assertEquals( AdaptiveLimiter.INITIAL_LIMIT / 2, limiter.currentLimit() );
+    }
+
+    private static String metrics( AdaptiveLimiter limiter )
+    {
+        StringBuilder out = new StringBuilder();
+        limiter.write( out );
+        return out.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example;
+
+import io.javalin.http.HttpStatus;
+import junit.framework.TestCase;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdmissionControlTest extends TestCase
+{
+    private static AdmissionControl.Limits limits()
+    {
+        AdmissionControl.Limits limits = new AdmissionControl.Limits();
+        limits.readsPerSecond = 0;
+        limits.readBurst = 5;
+        limits.writesPerMinute = 6000;
+        limits.writeBurst = 1000;
+        limits.maxInflightBytes = 1000;
+        limits.maxMediaJobs = 3;
+        limits.reservedReadThreads = 2;
+        return limits;
+    }
+
+    public void testPerClientRateLimit()
+    {
+        AdmissionControl admission = new AdmissionControl( limits(), () -> 100, Set.of() );
+        for ( int i = 0; i < 5; i++ ) {
+            admission.admit( "a", AdmissionControl.Kind.READ, -1 ).close();
+        }
+        try {
+            admission.admit( "a", AdmissionControl.Kind.READ, -1 );
+            fail( "Expected the sixth read to be rate limited" );
+        } catch ( AdmissionControl.Rejected e ) {
+            assertEquals( HttpStatus.TOO_MANY_REQUESTS, e.status );
+            assertTrue( e.retryAfterSeconds > 0 );
+        }
+        // Other clients have their own bucket
+        admission.admit( "b", AdmissionControl.Kind.READ, -1 ).close();
+    }
+
+    public void testLimitsApplyToExistingClients()
+    {
+        AdmissionControl admission = new AdmissionControl( limits(), () -> 100, Set.of() );
+        for ( int i = 0; i < 5; i++ ) {
+            admission.admit( "a", AdmissionControl.Kind.READ, -1 ).close();
+        }
+        AdmissionControl.Limits faster = admission.limits();
+        faster.readsPerSecond = 1_000_000;
+        admission.setLimits( faster );
+        sleep( 10 );
+        admission.admit( "a", AdmissionControl.Kind.READ, -1 ).close();
+    }
+
+    public void testReloadKeepsLimitsItDidNotChange()
+    {
+        AdmissionControl.Limits runtime = limits();
+        runtime.maxMediaJobs = 8;
+        AdmissionControl.Limits before = limits();
+        AdmissionControl.Limits after = limits();
+        after.writesPerMinute = 60;
+        AdmissionControl.Limits merged = runtime.withChanges( before, after );
+        assertEquals( 8, merged.maxMediaJobs );
+        assertEquals( 60.0, merged.writesPerMinute );
+        assertEquals( 8, runtime.withChanges( before, before ).maxMediaJobs );
+    }
+
+    public void testReadsBypassCapacityGates()
+    {
+        AdmissionControl admission = new AdmissionControl( limits(), () -> 0, Set.of() );
+        try {
+            admission.admit( "a", AdmissionControl.Kind.MEDIA, 10 );
+            fail( "Expected uploads to be shed when no threads are free" );
+        } catch ( AdmissionControl.Rejected e ) {
+            assertEquals( HttpStatus.SERVICE_UNAVAILABLE, e.status );
+        }
+        admission.admit( "a", AdmissionControl.Kind.READ, -1 ).close();
+    }
+
+    public void testOversizedUploadIsRejected()
+    {
+        AdmissionControl admission = new AdmissionControl( limits(), () -> 100, Set.of() );
+        try {
+            admission.admit( "a", AdmissionControl.Kind.WRITE, 5000 );
+            fail( "Expected an upload above the in-flight budget to be rejected" );
+        } catch ( AdmissionControl.Rejected e ) {
+            assertEquals( HttpStatus.CONTENT_TOO_LARGE, e.status );
+        }
+    }
+
+    public void testTrustedProxyForwardsClientAddress()
+    {
+        AdmissionControl admission = new AdmissionControl( limits(), () -> 100, Set.of( "10.0.0.1" ) );
+        assertEquals( "1.2.3.4", admission.clientKey( "10.0.0.1", "1.2.3.4, 10.0.0.1" ) );
+        assertEquals( "10.0.0.2", admission.clientKey( "10.0.0.2", "1.2.3.4" ) );
+    }
+
+    public void testConcurrentUploadsNeverExceedLimits() throws Exception
+    {
+        AdmissionControl admission = new AdmissionControl( limits(), () -> 100, Set.of() );
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch( 1 );
+        ExecutorService pool = Executors.newFixedThreadPool( 16 );
+        for ( int i = 0; i < 400; i++ ) {
+            String client = "client-" + ( i % 8 );
+            pool.submit( () -> {
+                start.await();
+                try ( AdmissionControl.Ticket ticket = admission.admit( client, AdmissionControl.Kind.MEDIA, 300 ) ) {
+                    int now = running.incrementAndGet();
+                    maxRunning.accumulateAndGet( now, Math::max );
+                    admitted.incrementAndGet();
+                    Thread.sleep( 1 );
+                    running.decrementAndGet();
+                } catch ( AdmissionControl.Rejected e ) {
+                    assertEquals( HttpStatus.SERVICE_UNAVAILABLE, e.status );
+                    rejected.incrementAndGet();
+                }
+                return null;
+            } );
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue( pool.awaitTermination( 30, TimeUnit.SECONDS ) );
+
+        // 1000 in-flight bytes at 300 bytes per upload allow three at a time
+        assertTrue( maxRunning.get() <= 3 );
+        assertEquals( 400, admitted.get() + rejected.get() );
+        assertTrue( admitted.get() > 0 );
+        assertTrue( rejected.get() > 0 );
+        assertEquals( 0L, admission.status().get( "inflight_bytes" ) );
+        assertEquals( 0, admission.status().get( "media_jobs" ) );
+    }
+
+    private static void sleep( long millis )
+    {
+        try {
+            Thread.sleep( millis );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
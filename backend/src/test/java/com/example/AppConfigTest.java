@@ -0,0 +1,114 @@
+package com.example;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import junit.framework.TestCase;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class AppConfigTest extends TestCase
+{
+    public void testDefaults()
+    {
+        AppConfig config = AppConfig.parse( key -> null );
+        assertEquals( 5001, config.port );
+        assertEquals( "http://localhost:5000", config.flaskAiUrl );
+        assertEquals( 100, config.mongoMaxPoolSize );
+        assertEquals( 256, config.embeddingDim );
+        assertEquals( Duration.ofSeconds( 600 ), config.aiRequestTimeout );
+        assertTrue( config.trustedProxies.isEmpty() );
+    }
+
+    public void testParsesValues()
+    {
+        Map<String, String> values = new HashMap<>();
+        values.put( "FLASK_AI_URL", "http://ai:5000/" );
+        values.put( "EMBEDDER", "remote" );
+        values.put( "MAX_UPLOAD_MB", "64" );
+        values.put( "TRUSTED_PROXIES", "10.0.0.1, 10.0.0.2" );
+        AppConfig config = AppConfig.parse( values::get );
+        assertEquals( "http://ai:5000", config.flaskAiUrl );
+        assertEquals( 384, config.embeddingDim );
+        assertEquals( 64L * 1024 * 1024, config.maxUploadBytes );
+        assertEquals( 2, config.trustedProxies.size() );
+    }
+
+    public void testReportsEveryProblem()
+    {
+        Map<String, String> values = new HashMap<>();
+        values.put( "PORT", "http" );
+        values.put( "COMPRESSION", "zstd" );
+        values.put( "MAX_UPLOAD_MB", "1024" );
+        values.put( "MAX_INFLIGHT_UPLOAD_MB", "100" );
+        try {
+            AppConfig.parse( values::get );
+            fail( "Expected invalid configuration" );
+        } catch ( IllegalStateException e ) {
+            assertTrue( e.getMessage().contains( "PORT" ) );
+            assertTrue( e.getMessage().contains( "COMPRESSION" ) );
+            assertTrue( e.getMessage().contains( "MAX_UPLOAD_MB" ) );
+        }
+    }
+
+    public void testMongoClientSettings()
+    {
+        Map<String, String> values = new HashMap<>();
+        values.put( "MONGO_COMPRESSORS", "snappy,zlib" );
+        values.put( "MONGO_POOL_WAIT_SECONDS", "2" );
+        values.put( "MONGO_URI", "mongodb://db1,db2/?replicaSet=rs0&maxPoolSize=7" );
+        AppConfig config = AppConfig.parse( values::get );
+        assertEquals( List.of( "snappy", "zlib" ), config.mongoCompressors );
+
+        MongoClientSettings client = SummaryApp.mongoClientSettings( config );
+        assertEquals( List.of( "snappy", "zlib" ),
+                client.getCompressorList().stream().map( MongoCompressor::getName ).toList() );
+        assertEquals( 2000, client.getConnectionPoolSettings().getMaxWaitTime( TimeUnit.MILLISECONDS ) );
+        // Options in the URI win over the separate settings
+        assertEquals( 7, client.getConnectionPoolSettings().getMaxSize() );
+
+        ReadPreference lists = SummaryApp.listReadPreference( config );
+        assertEquals( "secondaryPreferred", lists.getName() );
+        assertEquals( Long.valueOf( 90 ), ( (TaggableReadPreference) lists ).getMaxStaleness( TimeUnit.SECONDS ) );
+        assertTrue( AppConfig.parse( key -> key.equals( "MONGO_COMPRESSORS" ) ? "none" : null ).mongoCompressors.isEmpty() );
+    }
+
+    public void testRejectsShortStaleness()
+    {
+        try {
+            AppConfig.parse( key -> key.equals( "MONGO_MAX_STALENESS_SECONDS" ) ? "30" : null );
+            fail( "Expected invalid configuration" );
+        } catch ( IllegalStateException e ) {
+            assertTrue( e.getMessage().contains( "MONGO_MAX_STALENESS_SECONDS" ) );
+        }
+    }
+
+    public void testRestartRequiredOnlyForStartupSettings()
+    {
+        AppConfig before = AppConfig.parse( key -> null );
+        Map<String, String> values = new HashMap<>();
+        values.put( "RATE_LIMIT_READS_PER_SEC", "50" );
+        values.put( "MONGO_MAX_POOL_SIZE", "20" );
+        assertEquals( List.of( "MONGO_MAX_POOL_SIZE" ), AppConfig.parse( values::get ).restartRequired( before ) );
+
+        // The admission budget follows a reload, but Jetty's own upload ceiling does not
+        values.put( "MAX_UPLOAD_MB", "256" );
+        assertEquals( List.of( "MAX_UPLOAD_MB", "MONGO_MAX_POOL_SIZE" ),
+                AppConfig.parse( values::get ).restartRequired( before ) );
+    }
+
+    public void testDescribeMasksCredentials()
+    {
+        Map<String, String> values = new HashMap<>();
+        values.put( "MONGO_URI", "mongodb://user:secret@db:27017" );
+        values.put( "ADMIN_TOKEN", "token" );
+        Map<String, String> described = AppConfig.parse( values::get ).describe();
+        assertEquals( "mongodb://***@db:27017", described.get( "MONGO_URI" ) );
+        assertEquals( "***", described.get( "ADMIN_TOKEN" ) );
+    }
+}
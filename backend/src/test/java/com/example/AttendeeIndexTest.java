@@ -0,0 +1,30 @@
+package com.example;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class AttendeeIndexTest extends TestCase
+{
+    public void testNormalizeTrimsAndCollapsesWhitespace()
+    {
+        assertEquals( List.of( "Alice Smith", "Bob" ),
+                AttendeeIndex.normalize( "  Alice   Smith \r\n\nBob\t\n  \n" ) );
+    }
+
+    public void testNormalizeKeepsFirstSpellingOfDuplicates()
+    {
+        assertEquals( List.of( "Alice", "bob" ), AttendeeIndex.normalize( "Alice\nbob\nALICE\nBob" ) );
+    }
+
+    public void testKeysAreLowerCase()
+    {
+        assertEquals( "alice smith", AttendeeIndex.key( " Alice  SMITH " ) );
+        assertEquals( List.of( "alice", "bob" ), AttendeeIndex.keys( List.of( "Alice", "Bob" ) ) );
+    }
+
+    public void testNullInput()
+    {
+        assertTrue( AttendeeIndex.normalize( (String) null ).isEmpty() );
+    }
+}
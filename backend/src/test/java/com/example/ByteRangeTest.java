@@ -0,0 +1,50 @@
+package com.example;
+
+import junit.framework.TestCase;
+
+public class ByteRangeTest extends TestCase
+{
+    public void testMissingHeaderMeansWholeResource()
+    {
+        assertNull( ByteRange.parse( null, 100 ) );
+        assertNull( ByteRange.parse( "items=0-5", 100 ) );
+    }
+
+    public void testExplicitRange()
+    {
+        ByteRange range = ByteRange.parse( "bytes=10-19", 100 );
+        assertEquals( 10, range.start );
+        assertEquals( 19, range.end );
+        assertEquals( 10, range.length() );
+        assertEquals( "bytes 10-19/100", range.contentRange( 100 ) );
+    }
+
+    public void testOpenEndedAndClampedRanges()
+    {
+        assertEquals( 99, ByteRange.parse( "bytes=50-", 100 ).end );
+        assertEquals( 99, ByteRange.parse( "bytes=50-500", 100 ).end );
+    }
+
+    public void testSuffixRange()
+    {
+        ByteRange range = ByteRange.parse( "bytes=-10", 100 );
+        assertEquals( 90, range.start );
+        assertEquals( 99, range.end );
+        assertEquals( 0, ByteRange.parse( "bytes=-500", 100 ).start );
+    }
+
+    public void testInvertedRangeMeansWholeResource()
+    {
+        assertNull( ByteRange.parse( "bytes=5-3", 100 ) );
+        assertNull( ByteRange.parse( "bytes=500-3", 100 ) );
+    }
+
+    public void testUnsatisfiableRange()
+    {
+        try {
+            ByteRange.parse( "bytes=100-", 100 );
+            fail( "Expected unsatisfiable range" );
+        } catch ( IllegalArgumentException expected ) {
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import junit.framework.TestCase;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkedSummarizerTest extends TestCase
+{
+    private static final String[] WORDS = ( "we agreed to move the release budget review customer feedback design "
+            + "sprint deadline action item follow up roadmap migration database latency owner blocked approval" ).split( " " );
+
+    private static String transcript( int sentences, long seed )
+    {
+        Random random = new Random( seed );
+        StringBuilder text = new StringBuilder();
+        for ( int i = 0; i < sentences; i++ ) {
+            int words = 6 + random.nextInt( 14 );
+            for ( int w = 0; w < words; w++ ) {
+                text.append( w == 0 ? "Speaker " + i + " said" : WORDS[random.nextInt( WORDS.length )] ).append( ' ' );
+            }
+            text.setLength( text.length() - 1 );
+            text.append( i % 9 == 8 ? ".\n" : ". " );
+        }
+        return text.toString();
+    }
+
+    public void testChunksAreBoundedAndCoverEverySentence()
+    {
+        String text = transcript( 600, 1 );
+        List<String> chunks = ChunkedSummarizer.chunks( text );
+
+        assertTrue( chunks.size() > 5 );
+        for ( int i = 0; i < chunks.size(); i++ ) {
+            assertTrue( chunks.get( i ).length() <= ChunkedSummarizer.MAX_CHARS + 200 );
+            if ( i < chunks.size() - 1 ) {
+                assertTrue( chunks.get( i ).length() >= ChunkedSummarizer.MIN_CHARS );
+            }
+        }
+        assertEquals( text.replaceAll( "\\s+", " " ).strip(), String.join( " ", chunks ) );
+    }
+
+    public void testAnEditOnlyChangesNearbyChunks()
+    {
+        String text = transcript( 600, 2 );
+        List<String> before = ChunkedSummarizer.chunks( text );
+        String edited = text.replace( "Speaker 300 said", "Speaker three hundred, who had just joined the call, said" );
+        List<String> after = ChunkedSummarizer.chunks( edited );
+
+        Set<String> unchanged = new HashSet<>( before );
+        int changed = 0;
+        for ( String chunk : after ) {
+            if ( !unchanged.contains( chunk ) ) {
+                changed++;
+            }
+        }
+        assertTrue( "changed " + changed + " of " + after.size(), changed >= 1 && changed <= 3 );
+        assertEquals( before.get( 0 ), after.get( 0 ) );
+        assertEquals( before.get( before.size() - 1 ), after.get( after.size() - 1 ) );
+    }
+
+    public void testUnchangedChunksReuseTheirSummaries() throws Exception
+    {
+        AtomicInteger calls = new AtomicInteger();
+        ObjectMapper mapper = new ObjectMapper();
+        Javalin service = Javalin.create( config -> config.showJavalinBanner = false );
+        service.post( "/text-summary", ctx -> {
+            calls.incrementAndGet();
+            String text = (String) mapper.readValue( ctx.body(), Map.class ).get( "text" );
+            ctx.json( Map.of( "summary", "About " + text.substring( 0, text.indexOf( " said" ) ) + "." ) );
+        } );
+        service.start( 0 );
+        try {
+            AiClient client = new AiClient( HttpClient.newHttpClient(), mapper, "http://localhost:" + service.port(),
+                    Duration.ofSeconds( 10 ), new AdaptiveLimiter( 1, 4, 100, Duration.ofSeconds( 10 ) ) );
+            ChunkedSummarizer summarizer = new ChunkedSummarizer( client );
+            Map<String, Object> context = Map.of( "meeting_title", "Planning", "date", "2024-03-11" );
+            String text = transcript( 600, 3 );
+
+            ChunkedSummarizer.Result first = summarizer.summarize( text, List.of(), context );
+            assertEquals( first.chunks().size(), first.summarized() );
+            assertEquals( first.chunks().size(), calls.get() );
+            assertTrue( first.summary().startsWith( "About Speaker 0.\n\nAbout Speaker " ) );
+
+            calls.set( 0 );
+            String edited = text.replace( "Speaker 420 said", "Speaker 420 (corrected) said" );
+            ChunkedSummarizer.Result second = summarizer.summarize( edited, first.chunks(), context );
+            assertTrue( "summarized " + second.summarized(), second.summarized() >= 1 && second.summarized() <= 3 );
+            assertEquals( second.summarized(), calls.get() );
+            List<String> paragraphs = new ArrayList<>( List.of( second.summary().split( "\n\n" ) ) );
+            assertEquals( second.chunks().size(), paragraphs.size() );
+            assertEquals( first.summary().split( "\n\n" )[0], paragraphs.get( 0 ) );
+
+            calls.set( 0 );
+            assertEquals( 0, summarizer.summarize( edited, second.chunks(), context ).summarized() );
+            assertEquals( 0, calls.get() );
+        } finally {
+            service.stop();
+        }
+    }
+}
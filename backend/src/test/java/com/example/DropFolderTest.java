@@ -0,0 +1,167 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DropFolderTest extends TestCase
+{
+    private Path dir;
+    private final List<DropFolder.Dropped> summarized = new CopyOnWriteArrayList<>();
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected void setUp() throws Exception
+    {
+        dir = Files.createTempDirectory( "drop-test" );
+    }
+
+    @Override
+    protected void tearDown() throws Exception
+    {
+        JobJournal.deleteRecursively( dir );
+    }
+
+    public void testSidecarMetadataIsSentAndFilesMoveToDone() throws Exception
+    {
+        Files.writeString( dir.resolve( "standup.wav" ), "audio" );
+        Files.writeString( dir.resolve( "standup.json" ),
+                "{\"meeting_title\": \"Standup\", \"date\": \"2024-03-04\", \"attendees\": [\"Ann\", \"Bo\"]}" );
+
+        try ( DropFolder folder = start( pipeline( null ), 2 ) ) {
+            awaitFile( dir.resolve( "done/standup.json" ) );
+        }
+
+        assertEquals( 1, summarized.size() );
+        DropFolder.Dropped dropped = summarized.get( 0 );
+        assertEquals( "audio", dropped.mediaType() );
+        assertEquals( "audio/wav", dropped.contentType() );
+        assertEquals( Map.of( "meeting_title", "Standup", "date", "2024-03-04", "attendees", "Ann\nBo" ), dropped.form() );
+        assertEquals( DropFolder.sha256( dir.resolve( "done/standup.wav" ) ), dropped.sha256() );
+        assertFalse( Files.exists( dir.resolve( "standup.wav" ) ) );
+    }
+
+    public void testFailedFilesMoveToFailedWithTheError() throws Exception
+    {
+        Files.writeString( dir.resolve( "broken.mp4" ), "video" );
+
+        try ( DropFolder folder = start( pipeline( "AI service error: bad codec" ), 2 ) ) {
+            awaitFile( dir.resolve( "failed/broken.mp4.error.txt" ) );
+        }
+
+        assertTrue( Files.exists( dir.resolve( "failed/broken.mp4" ) ) );
+        assertEquals( "AI service error: bad codec", Files.readString( dir.resolve( "failed/broken.mp4.error.txt" ) ) );
+    }
+
+    public void testDuplicatesAreNotSummarizedAgain() throws Exception
+    {
+        Files.writeString( dir.resolve( "monday.txt" ), "same transcript" );
+        Files.writeString( dir.resolve( "monday-copy.txt" ), "same transcript" );
+        Files.writeString( dir.resolve( "tuesday.txt" ), "other transcript" );
+        stored.add( DropFolder.sha256( dir.resolve( "tuesday.txt" ) ) );
+
+        try ( DropFolder folder = start( pipeline( null ), 3 ) ) {
+            awaitFile( dir.resolve( "done/monday.txt" ) );
+            awaitFile( dir.resolve( "done/monday-copy.txt" ) );
+            awaitFile( dir.resolve( "done/tuesday.txt" ) );
+            assertEquals( 2, folder.status().get( "duplicates" ) );
+        }
+
+        assertEquals( 1, summarized.size() );
+        assertEquals( "text", summarized.get( 0 ).mediaType() );
+    }
+
+    public void testUnfinishedFilesAreTakenAgainAfterRestart() throws Exception
+    {
+        Files.createDirectories( dir.resolve( "processing" ) );
+        Files.writeString( dir.resolve( "processing/review.mp3" ), "audio" );
+
+        try ( DropFolder folder = start( pipeline( null ), 1 ) ) {
+            awaitFile( dir.resolve( "done/review.mp3" ) );
+        }
+
+        assertEquals( 1, summarized.size() );
+        assertEquals( "review", summarized.get( 0 ).form().get( "meeting_title" ) );
+    }
+
+    public void testParallelismIsBounded() throws Exception
+    {
+        for ( int i = 0; i < 8; i++ ) {
+            Files.writeString( dir.resolve( "meeting-" + i + ".wav" ), "audio " + i );
+        }
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        DropFolder.Pipeline slow = new DropFolder.Pipeline()
+        {
+            @Override
+            public boolean isDuplicate( String sha256 )
+            {
+                return false;
+            }
+
+            @Override
+            public void summarize( DropFolder.Dropped dropped ) throws Exception
+            {
+                peak.accumulateAndGet( running.incrementAndGet(), Math::max );
+                Thread.sleep( 50 );
+                running.decrementAndGet();
+            }
+        };
+
+        try ( DropFolder folder = start( slow, 2 ) ) {
+            for ( int i = 0; i < 8; i++ ) {
+                awaitFile( dir.resolve( "done/meeting-" + i + ".wav" ) );
+            }
+        }
+
+        assertEquals( 2, peak.get() );
+    }
+
+    private DropFolder start( DropFolder.Pipeline pipeline, int parallelism ) throws Exception
+    {
+        DropFolder folder = new DropFolder( dir, parallelism, Duration.ofMillis( 100 ), Duration.ofMillis( 200 ), true,
+                pipeline, new ObjectMapper() );
+        folder.start();
+        return folder;
+    }
+
+    private DropFolder.Pipeline pipeline( String error )
+    {
+        return new DropFolder.Pipeline()
+        {
+            @Override
+            public boolean isDuplicate( String sha256 )
+            {
+                return stored.contains( sha256 );
+            }
+
+            @Override
+            public void summarize( DropFolder.Dropped dropped )
+            {
+                if ( error != null ) {
+                    throw new IllegalStateException( error );
+                }
+                summarized.add( dropped );
+                stored.add( dropped.sha256() );
+            }
+        };
+    }
+
+    private static void awaitFile( Path file ) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ( !Files.exists( file ) ) {
+            assertTrue( "Timed out waiting for " + file, System.currentTimeMillis() < deadline );
+            Thread.sleep( 20 );
+        }
+    }
+}
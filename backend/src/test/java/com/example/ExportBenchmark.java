@@ -0,0 +1,172 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Export throughput for each format at {@code -Dmeetings=N} meetings
+ * (default one million), and the live heap during the export, sampled after
+ * a GC every 100,000 meetings, which stays flat however many are exported.
+ *
+ * <p>By default the meetings are generated on the fly, which measures the
+ * serialization alone. With {@code -Dsource=mongo} they are read through
+ * {@link MeetingExport#find} from the monthly partitions of the
+ * {@code export_benchmark} database at {@code MONGO_URI} (default
+ * localhost), which is filled first if needed.
+ * Run from {@code backend}:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.ExportBenchmark
+ * </pre>
+ */
+public class ExportBenchmark
+{
+    private static final int MEETINGS = Integer.getInteger( "meetings", 1_000_000 );
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final String SUMMARY = "The team reviewed progress on the quarterly roadmap and agreed next steps. ".repeat( 10 );
+    private static final String TRANSCRIPT = "Speaker one: let us go through the numbers for this week, line by line. ".repeat( 30 );
+
+    public static void main( String[] args ) throws Exception
+    {
+        boolean mongo = "mongo".equals( System.getProperty( "source" ) );
+        MongoClient client = mongo ? MongoClients.create( System.getenv().getOrDefault( "MONGO_URI", "mongodb://localhost:27017" ) ) : null;
+        MeetingExport export = null;
+        if ( mongo ) {
+            MongoDatabase database = client.getDatabase( "export_benchmark" );
+            MeetingPartitions partitions = new MeetingPartitions( database, ReadPreference.primary() );
+            if ( partitions.estimatedCount() != MEETINGS ) {
+                database.drop();
+                seed( database.getCollection( MeetingPartitions.LEGACY ) );
+                // Moves them into their partitions
+                partitions.init();
+            }
+            export = new MeetingExport( partitions );
+        }
+
+        System.out.printf( "Exporting %,d meetings from %s%n", MEETINGS, mongo ? "MongoDB" : "memory" );
+        for ( MeetingExport.Format format : MeetingExport.Format.values() ) {
+            for ( boolean gzip : format == MeetingExport.Format.ZIP ? new boolean[] { false } : new boolean[] { false, true } ) {
+                CountingStream out = new CountingStream();
+                long[] peakHeap = new long[1];
+                long start = System.nanoTime();
+                long count;
+                if ( export != null ) {
+                    try ( MeetingPartitions.Cursor cursor = export.find( null, null, null ) ) {
+                        count = MeetingExport.write( format, gzip, () -> sampled( cursor, peakHeap ), out );
+                    }
+                } else {
+                    count = MeetingExport.write( format, gzip, () -> sampled( generated(), peakHeap ), out );
+                }
+                double seconds = ( System.nanoTime() - start ) / 1e9;
+                System.out.printf( "%-6s %-4s %,10.0f meetings/s %8.1f MB/s %,8d MB written, live heap at most %,d MB%n",
+                        format, gzip ? "gzip" : "", count / seconds, out.bytes / seconds / 1e6, out.bytes / 1_000_000,
+                        peakHeap[0] / 1_000_000 );
+            }
+        }
+        if ( client != null ) {
+            client.close();
+        }
+    }
+
+    private static void seed( MongoCollection<Document> details )
+    {
+        List<Document> batch = new ArrayList<>();
+        for ( Iterator<Document> meetings = generated(); meetings.hasNext(); ) {
+            batch.add( meetings.next() );
+            if ( batch.size() == 1000 ) {
+                details.insertMany( batch );
+                batch.clear();
+            }
+        }
+        if ( !batch.isEmpty() ) {
+            details.insertMany( batch );
+        }
+    }
+
+    private static Iterator<Document> generated()
+    {
+        LocalDate first = LocalDate.of( 2020, 1, 1 );
+        return new Iterator<>()
+        {
+            private int next;
+
+            @Override
+            public boolean hasNext()
+            {
+                return next < MEETINGS;
+            }
+
+            @Override
+            public Document next()
+            {
+                int i = next++;
+                LocalDate date = first.plusDays( i / 500 );
+                return new Document( "_id", new ObjectId() )
+                        .append( "meeting_title", "Weekly sync " + i )
+                        .append( "meeting_date", date.toString() )
+                        .append( "meeting_day", date.getDayOfWeek().toString() )
+                        .append( "transcription", TRANSCRIPT )
+                        .append( "summary", SUMMARY )
+                        .append( "attendees", List.of( "Alice Smith", "Bob Jones", "Carol White" ) )
+                        .append( "timelines", List.of( "00:00 Introductions", "04:30 Roadmap", "12:10 Next steps" ) );
+            }
+        };
+    }
+
+    private static Iterator<Document> sampled( Iterator<Document> meetings, long[] peakHeap )
+    {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        return new Iterator<>()
+        {
+            private long seen;
+
+            @Override
+            public boolean hasNext()
+            {
+                return meetings.hasNext();
+            }
+
+            @Override
+            public Document next()
+            {
+                if ( ++seen % SAMPLE_EVERY == 0 ) {
+                    System.gc();
+                    peakHeap[0] = Math.max( peakHeap[0], memory.getHeapMemoryUsage().getUsed() );
+                }
+                return meetings.next();
+            }
+        };
+    }
+
+    /** Discards the export, counting its size. */
+    private static final class CountingStream extends OutputStream
+    {
+        long bytes;
+
+        @Override
+        public void write( int b )
+        {
+            bytes++;
+        }
+
+        @Override
+        public void write( byte[] b, int off, int len ) throws IOException
+        {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+
+import junit.framework.TestCase;
+
+public class HnswIndexTest extends TestCase
+{
+    private static final int DIMENSIONS = 32;
+
+    public void testRecallAgainstBruteForceAndReopen() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "hnsw" );
+        Random random = new Random( 7 );
+        List<ObjectId> ids = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+
+        try ( HnswIndex index = new HnswIndex( dir, DIMENSIONS, 16, 100 ) ) {
+            for ( int i = 0; i < 3000; i++ ) {
+                ObjectId id = new ObjectId();
+                float[] vector = randomVector( random );
+                ids.add( id );
+                vectors.add( vector );
+                index.add( id, vector );
+            }
+            assertTrue( recall( index, ids, vectors, random ) > 0.9 );
+        }
+
+        try ( HnswIndex reopened = new HnswIndex( dir, DIMENSIONS, 16, 100 ) ) {
+            assertEquals( 3000, reopened.size() );
+            assertEquals( ids.get( ids.size() - 1 ), reopened.lastId() );
+            assertTrue( recall( reopened, ids, vectors, random ) > 0.9 );
+        }
+    }
+
+    public void testIdsAreKnownInAnyOrderAndAddedOnce() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "hnsw" );
+        Random random = new Random( 11 );
+        ObjectId older = new ObjectId();
+        ObjectId newer = new ObjectId();
+        try ( HnswIndex index = new HnswIndex( dir, DIMENSIONS, 16, 100 ) ) {
+            // Stored out of id order, as concurrent jobs do
+            index.add( newer, randomVector( random ) );
+            index.add( older, randomVector( random ) );
+            index.add( newer, randomVector( random ) );
+            assertEquals( 2, index.size() );
+            assertTrue( index.contains( older ) );
+        }
+
+        try ( HnswIndex reopened = new HnswIndex( dir, DIMENSIONS, 16, 100 ) ) {
+            assertTrue( reopened.contains( older ) );
+            assertTrue( reopened.contains( newer ) );
+            assertFalse( reopened.contains( new ObjectId() ) );
+            // The last one added is older; catch-up starts from the highest
+            assertEquals( older, reopened.lastId() );
+            assertEquals( newer, reopened.maxId() );
+        }
+    }
+
+    public void testReplacedVectorIsFoundByItsNewValue() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "hnsw" );
+        Random random = new Random( 13 );
+        List<ObjectId> ids = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        try ( HnswIndex index = new HnswIndex( dir, DIMENSIONS, 16, 100 ) ) {
+            for ( int i = 0; i < 500; i++ ) {
+                ids.add( new ObjectId() );
+                vectors.add( randomVector( random ) );
+                index.add( ids.get( i ), vectors.get( i ) );
+            }
+            // A re-summarized meeting: the same id, a different vector
+            float[] summary = randomVector( random );
+            index.replace( ids.get( 42 ), summary );
+            vectors.set( 42, summary );
+            assertEquals( 500, index.size() );
+            assertEquals( ids.get( 42 ), index.search( summary, 1, 64 ).get( 0 ) );
+            assertTrue( recall( index, ids, vectors, random ) > 0.9 );
+
+            ObjectId unknown = new ObjectId();
+            index.replace( unknown, randomVector( random ) );
+            assertTrue( index.contains( unknown ) );
+        }
+
+        try ( HnswIndex reopened = new HnswIndex( dir, DIMENSIONS, 16, 100 ) ) {
+            assertEquals( 501, reopened.size() );
+            assertEquals( ids.get( 42 ), reopened.search( vectors.get( 42 ), 1, 64 ).get( 0 ) );
+        }
+    }
+
+    private static double recall( HnswIndex index, List<ObjectId> ids, List<float[]> vectors, Random random )
+    {
+        int hits = 0;
+        int queries = 50;
+        for ( int q = 0; q < queries; q++ ) {
+            float[] query = randomVector( random );
+            List<Integer> order = new ArrayList<>();
+            for ( int i = 0; i < vectors.size(); i++ ) {
+                order.add( i );
+            }
+            order.sort( Comparator.comparingDouble( i -> -dot( query, vectors.get( i ) ) ) );
+            Set<ObjectId> expected = new HashSet<>();
+            for ( int i = 0; i < 10; i++ ) {
+                expected.add( ids.get( order.get( i ) ) );
+            }
+            for ( ObjectId id : index.search( query, 10, 64 ) ) {
+                if ( expected.contains( id ) ) {
+                    hits++;
+                }
+            }
+        }
+        return hits / (double) ( queries * 10 );
+    }
+
+    private static float[] randomVector( Random random )
+    {
+        float[] vector = new float[DIMENSIONS];
+        for ( int i = 0; i < DIMENSIONS; i++ ) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return Embedder.normalize( vector );
+    }
+
+    private static double dot( float[] a, float[] b )
+    {
+        double dot = 0;
+        for ( int i = 0; i < a.length; i++ ) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+}
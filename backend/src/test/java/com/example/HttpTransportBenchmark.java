@@ -0,0 +1,50 @@
+package com.example;
+
+import java.net.http.HttpClient;
+import java.util.Arrays;
+
+import io.javalin.Javalin;
+
+/**
+ * Bytes on the wire and median latency of a {@code /summaries} response with
+ * 50 summaries and their transcripts, for each compression setting and
+ * protocol. Run from {@code backend}:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.HttpTransportBenchmark
+ * </pre>
+ */
+public class HttpTransportBenchmark
+{
+    private static final int ITERATIONS = 40;
+    private static final int WARMUP = 5;
+
+    public static void main( String[] args ) throws Exception
+    {
+        String[][] cases = {
+                { "none", "HTTP_1_1", "identity" },
+                { "gzip", "HTTP_1_1", "gzip" },
+                { "brotli", "HTTP_1_1", "br" },
+                { "brotli", "HTTP_2", "br" },
+        };
+        System.out.println( "compression  protocol  bytes/response  p50 ms  (50 summaries with transcripts)" );
+        for ( String[] c : cases ) {
+            Javalin app = HttpTransportTest.start( c[0] );
+            try {
+                HttpClient client = HttpClient.newBuilder().version( HttpClient.Version.valueOf( c[1] ) ).build();
+                long[] nanos = new long[ITERATIONS];
+                int bytes = 0;
+                for ( int i = -WARMUP; i < ITERATIONS; i++ ) {
+                    long start = System.nanoTime();
+                    bytes = HttpTransportTest.get( client, app, "/summaries", c[2] ).body().length;
+                    if ( i >= 0 ) {
+                        nanos[i] = System.nanoTime() - start;
+                    }
+                }
+                Arrays.sort( nanos );
+                System.out.printf( "%-12s %-9s %14d  %6.2f%n", c[0], c[1], bytes, nanos[ITERATIONS / 2] / 1e6 );
+            } finally {
+                app.stop();
+            }
+        }
+    }
+}
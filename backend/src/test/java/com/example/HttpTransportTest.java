@@ -0,0 +1,93 @@
+package com.example;
+
+import io.javalin.Javalin;
+import junit.framework.TestCase;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks the transport settings; {@link HttpTransportBenchmark} measures what
+ * they save on a typical {@code /summaries} result set.
+ */
+public class HttpTransportTest extends TestCase
+{
+    private static final String[] WORDS = ( "the team agreed to ship release budget review customer feedback "
+            + "design sprint deadline action item follow up meeting notes roadmap migration database latency "
+            + "we will discuss next week owner blocked on approval" ).split( " " );
+
+    private static List<Map<String, Object>> summaries( int count )
+    {
+        Random random = new Random( 7 );
+        List<Map<String, Object>> results = new ArrayList<>();
+        for ( int i = 0; i < count; i++ ) {
+            results.add( Map.of(
+                    "_id", String.format( "%024x", i ),
+                    "meeting_title", "Weekly sync " + i,
+                    "meeting_date", "2024-03-" + ( 10 + i % 18 ),
+                    "summary", text( random, 300 ),
+                    "transcription", text( random, 3000 ),
+                    "attendees", List.of( "Alice", "Bob", "Carol" ) ) );
+        }
+        return results;
+    }
+
+    private static String text( Random random, int words )
+    {
+        StringBuilder text = new StringBuilder();
+        for ( int i = 0; i < words; i++ ) {
+            text.append( WORDS[random.nextInt( WORDS.length )] ).append( i % 12 == 11 ? ". " : " " );
+        }
+        return text.toString();
+    }
+
+    static Javalin start( String compression )
+    {
+        List<Map<String, Object>> results = summaries( 50 );
+        Javalin app = Javalin.create( config -> {
+            config.showJavalinBanner = false;
+            HttpTransport.configure( config, AppConfig.parse( Map.of( "PORT", "0", "COMPRESSION", compression )::get ) );
+        } );
+        app.get( "/summaries", ctx -> ctx.json( results ) );
+        app.get( "/small", ctx -> ctx.json( Map.of( "status", "ok" ) ) );
+        return app.start();
+    }
+
+    static HttpResponse<byte[]> get( HttpClient client, Javalin app, String path, String encoding ) throws Exception
+    {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri( URI.create( "http://localhost:" + app.port() + path ) )
+                .header( "Accept-Encoding", encoding )
+                .GET()
+                .build();
+        return client.send( request, HttpResponse.BodyHandlers.ofByteArray() );
+    }
+
+    public void testCompressionAndHttp2() throws Exception
+    {
+        HttpClient client = HttpClient.newBuilder().version( HttpClient.Version.HTTP_2 ).build();
+        Javalin app = start( "brotli" );
+        try {
+            HttpResponse<byte[]> plain = get( client, app, "/summaries", "identity" );
+            HttpResponse<byte[]> gzip = get( client, app, "/summaries", "gzip" );
+            HttpResponse<byte[]> brotli = get( client, app, "/summaries", "br, gzip" );
+            HttpResponse<byte[]> small = get( client, app, "/small", "br, gzip" );
+
+            assertEquals( HttpClient.Version.HTTP_2, brotli.version() );
+            assertFalse( plain.headers().firstValue( "Content-Encoding" ).isPresent() );
+            assertEquals( "gzip", gzip.headers().firstValue( "Content-Encoding" ).orElse( null ) );
+            assertEquals( "br", brotli.headers().firstValue( "Content-Encoding" ).orElse( null ) );
+            assertFalse( small.headers().firstValue( "Content-Encoding" ).isPresent() );
+            assertTrue( gzip.body().length * 3 < plain.body().length );
+            assertTrue( brotli.body().length * 3 < plain.body().length );
+        } finally {
+            app.stop();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class JobJournalTest extends TestCase
+{
+    public void testUnfinishedJobsSurviveRestart() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "journal-test" );
+        try {
+            JobJournal journal = new JobJournal( dir, new ObjectMapper() );
+            JobJournal.Entry done = journal.begin();
+            done.writeRequest( Map.of( "type", "text", "body", "done" ) );
+            done.complete();
+
+            JobJournal.Entry pending = journal.begin();
+            Files.writeString( pending.file( "upload.wav" ), "audio" );
+            pending.writeRequest( Map.of( "type", "audio", "upload", "upload.wav" ) );
+            pending.writeResult( Map.of( "response", Map.of( "summary", "paid for" ) ) );
+
+            // Crashed before the request was recorded
+            journal.begin();
+
+            assertFalse( journal.awaitIdle( 10 ) );
+
+            // Next process
+            JobJournal reopened = new JobJournal( dir, new ObjectMapper() );
+            List<JobJournal.Entry> entries = reopened.pending();
+            assertEquals( 1, entries.size() );
+            JobJournal.Entry resumed = entries.get( 0 );
+            assertEquals( pending.id(), resumed.id() );
+            assertEquals( "audio", resumed.readRequest().get( "type" ) );
+            assertEquals( Map.of( "summary", "paid for" ), resumed.readResult().get( "response" ) );
+            assertTrue( Files.exists( resumed.file( "upload.wav" ) ) );
+
+            resumed.quarantine();
+            assertTrue( reopened.awaitIdle( 10 ) );
+            assertTrue( reopened.pending().isEmpty() );
+        } finally {
+            JobJournal.deleteRecursively( dir );
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import junit.framework.TestCase;
+
+public class ListingIndexTest extends TestCase
+{
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public void testRangesAreNewestFirstAndInclusive() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "listing" );
+        try ( ListingIndex index = new ListingIndex( dir ) ) {
+            assertFalse( index.open() );
+            ObjectId march = new ObjectId();
+            index.add( meeting( march, "2025-03-10", "Planning \"Q3\"", "Budget ✓" ) );
+            index.add( meeting( new ObjectId(), "2025-01-05", "Kickoff", "Intro" ) );
+            index.add( meeting( new ObjectId(), "2025-02-20", "Review", "Numbers" ) );
+            // Seen again from the change stream
+            index.add( meeting( march, "2025-03-10", "Planning \"Q3\"", "Budget ✓" ) );
+
+            JsonNode all = mapper.readTree( index.listJson( null, null, Integer.MAX_VALUE ) );
+            assertEquals( 3, all.size() );
+            assertEquals( "2025-03-10", all.get( 0 ).get( "meeting_date" ).asText() );
+            assertEquals( march.toHexString(), all.get( 0 ).get( "_id" ).asText() );
+            assertEquals( "Planning \"Q3\"", all.get( 0 ).get( "meeting_title" ).asText() );
+            assertEquals( "Budget ✓", all.get( 0 ).get( "summary" ).asText() );
+            assertEquals( "2025-01-05", all.get( 2 ).get( "meeting_date" ).asText() );
+
+            JsonNode range = mapper.readTree( index.listJson( "2025-01-05", "2025-02-20", Integer.MAX_VALUE ) );
+            assertEquals( 2, range.size() );
+            assertEquals( "Review", range.get( 0 ).get( "meeting_title" ).asText() );
+
+            JsonNode recent = mapper.readTree( index.listJson( null, null, 1 ) );
+            assertEquals( 1, recent.size() );
+            assertEquals( "2025-03-10", recent.get( 0 ).get( "meeting_date" ).asText() );
+        }
+
+        try ( ListingIndex reopened = new ListingIndex( dir ) ) {
+            assertTrue( reopened.open() );
+            assertEquals( 3, reopened.size() );
+        }
+    }
+
+    public void testSummaryIsReplacedInPlace() throws Exception
+    {
+        Path dir = Files.createTempDirectory( "listing" );
+        ObjectId edited = new ObjectId();
+        try ( ListingIndex index = new ListingIndex( dir ) ) {
+            index.open();
+            index.add( meeting( new ObjectId(), "2025-03-10", "Standup", "First" ) );
+            index.add( meeting( edited, "2025-03-10", "Planning", "Draft" ) );
+            index.add( meeting( new ObjectId(), "2025-03-11", "Review", "Other" ) );
+
+            assertTrue( index.updateSummary( meeting( edited, "2025-03-10", "Planning", "Corrected" ) ) );
+            assertFalse( index.updateSummary( meeting( new ObjectId(), "2025-03-10", "Missing", "Nothing" ) ) );
+
+            JsonNode day = mapper.readTree( index.listJson( "2025-03-10", "2025-03-10", Integer.MAX_VALUE ) );
+            assertEquals( 2, day.size() );
+            assertEquals( "Corrected", day.get( 0 ).get( "summary" ).asText() );
+            assertEquals( "Planning", day.get( 0 ).get( "meeting_title" ).asText() );
+            assertEquals( "First", day.get( 1 ).get( "summary" ).asText() );
+        }
+
+        try ( ListingIndex reopened = new ListingIndex( dir ) ) {
+            assertTrue( reopened.open() );
+            JsonNode all = mapper.readTree( reopened.listJson( null, null, Integer.MAX_VALUE ) );
+            assertEquals( "Corrected", all.get( 1 ).get( "summary" ).asText() );
+        }
+    }
+
+    private static Document meeting( ObjectId id, String date, String title, String summary )
+    {
+        return new Document( "_id", id ).append( "meeting_date", date ).append( "meeting_title", title )
+                .append( "summary", summary );
+    }
+}
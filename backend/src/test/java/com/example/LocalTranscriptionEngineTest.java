@@ -0,0 +1,64 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class LocalTranscriptionEngineTest extends TestCase
+{
+    public void testStereoIsAveragedToMono()
+    {
+        // Frames of (left, right): (1000, 3000), (-2000, -4000), (32767, 32767)
+        byte[] stereo = { (byte) 0xe8, 0x03, (byte) 0xb8, 0x0b, 0x30, (byte) 0xf8, 0x60, (byte) 0xf0, (byte) 0xff, 0x7f, (byte) 0xff, 0x7f };
+        byte[] mono = new byte[6];
+
+        assertEquals( 6, LocalTranscriptionEngine.downmix( stereo, 3, 2, mono ) );
+        assertEquals( 2000, sample( mono, 0 ) );
+        assertEquals( -3000, sample( mono, 1 ) );
+        assertEquals( 32767, sample( mono, 2 ) );
+    }
+
+    public void testTimelinesHaveAnEntryPerMinuteOfSpeech() throws Exception
+    {
+        LocalTranscriptionEngine.TranscriptBuilder builder = new LocalTranscriptionEngine.TranscriptBuilder( new ObjectMapper() );
+        builder.add( result( "good morning everyone", 1.5 ) );
+        builder.add( result( "first the budget", 20 ) );
+        builder.add( "{\"text\": \"\"}" );
+        builder.add( result( "next the hiring plan for the platform team which we have been discussing for several weeks now", 75.2 ) );
+        builder.add( result( "any other business", 3725 ) );
+
+        LocalTranscriptionEngine.Transcript transcript = builder.build( 3730 );
+        assertEquals( "good morning everyone\nfirst the budget\nnext the hiring plan for the platform team which we have been "
+                + "discussing for several weeks now\nany other business", transcript.text() );
+        assertEquals( List.of( "00:01 good morning everyone",
+                "01:15 next the hiring plan for the platform team which we have been discussing for…",
+                "1:02:05 any other business" ), transcript.timelines() );
+        assertEquals( 3730.0, transcript.seconds() );
+    }
+
+    public void testExtractiveSummaryKeepsTheMostRepresentativeUtterancesInOrder()
+    {
+        List<String> utterances = List.of(
+                "good morning",
+                "the release is blocked on the payment service migration",
+                "yeah okay",
+                "we agreed the payment service migration finishes friday",
+                "lunch was great",
+                "release notes go out after the migration" );
+
+        assertEquals( "The release is blocked on the payment service migration.\n"
+                + "We agreed the payment service migration finishes friday.",
+                LocalTranscriptionEngine.extractiveSummary( utterances, 2 ) );
+    }
+
+    private static String result( String text, double start )
+    {
+        return "{\"result\": [{\"conf\": 1.0, \"start\": " + start + ", \"end\": " + ( start + 0.4 ) + ", \"word\": \"x\"}], \"text\": \"" + text + "\"}";
+    }
+
+    private static int sample( byte[] pcm, int index )
+    {
+        return (short) ( ( pcm[index * 2] & 0xff ) | ( pcm[index * 2 + 1] << 8 ) );
+    }
+}
@@ -0,0 +1,107 @@
+package com.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import junit.framework.TestCase;
+
+public class MeetingExportTest extends TestCase
+{
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectId first = new ObjectId( "65f000000000000000000001" );
+    private final List<Document> meetings = List.of(
+            new Document( "_id", first ).append( "meeting_date", "2025-01-05" ).append( "meeting_title", "Kickoff" )
+                    .append( "attendees", List.of( "Alice", "Bob" ) ).append( "summary", "Said \"hi\", left" ),
+            new Document( "_id", new ObjectId( "65f000000000000000000002" ) ).append( "meeting_date", "2025-02-20" )
+                    .append( "meeting_title", "Review" ).append( "timelines", List.of( "00:00 Intro", "05:00 Numbers" ) ) );
+
+    public void testNdjsonHasOneMeetingPerLine() throws Exception
+    {
+        String[] lines = export( MeetingExport.Format.NDJSON, false ).split( "\n" );
+        assertEquals( 2, lines.length );
+        JsonNode meeting = mapper.readTree( lines[0] );
+        assertEquals( first.toHexString(), meeting.get( "_id" ).asText() );
+        assertEquals( "Bob", meeting.get( "attendees" ).get( 1 ).asText() );
+        assertEquals( "Said \"hi\", left", meeting.get( "summary" ).asText() );
+        assertEquals( "Review", mapper.readTree( lines[1] ).get( "meeting_title" ).asText() );
+    }
+
+    public void testCsvQuotesFieldsAndJoinsLists() throws Exception
+    {
+        String csv = export( MeetingExport.Format.CSV, false );
+        assertEquals( "_id,meeting_date,meeting_day,meeting_title,attendees,summary,transcription,timelines\r\n"
+                + first.toHexString() + ",2025-01-05,,Kickoff,\"Alice\nBob\",\"Said \"\"hi\"\", left\",,\r\n"
+                + "65f000000000000000000002,2025-02-20,,Review,,,,\"00:00 Intro\n05:00 Numbers\"\r\n", csv );
+    }
+
+    public void testGzipCompressesTheFile() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MeetingExport.write( MeetingExport.Format.NDJSON, true, meetings, out );
+        String text = new String( new GZIPInputStream( new ByteArrayInputStream( out.toByteArray() ) ).readAllBytes(),
+                StandardCharsets.UTF_8 );
+        assertEquals( export( MeetingExport.Format.NDJSON, false ), text );
+    }
+
+    public void testZipHoldsTheMeetingsAndAResumeToken() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals( 2, MeetingExport.write( MeetingExport.Format.ZIP, true, meetings, out ) );
+        try ( ZipInputStream zip = new ZipInputStream( new ByteArrayInputStream( out.toByteArray() ) ) ) {
+            ZipEntry entry = zip.getNextEntry();
+            assertEquals( "meetings.ndjson", entry.getName() );
+            assertEquals( export( MeetingExport.Format.NDJSON, false ),
+                    new String( zip.readAllBytes(), StandardCharsets.UTF_8 ) );
+            assertEquals( "manifest.json", zip.getNextEntry().getName() );
+            JsonNode manifest = mapper.readTree( zip.readAllBytes() );
+            assertEquals( 2, manifest.get( "count" ).asInt() );
+            assertEquals( "2025-02-20:65f000000000000000000002", manifest.get( "last" ).asText() );
+        }
+    }
+
+    public void testResumeTokenSeeksPastTheLastMeeting()
+    {
+        Document filter = Document.parse( MeetingExport.filter( "2025-01-01", null, MeetingExport.token( meetings.get( 0 ) ) )
+                .toBsonDocument().toJson() );
+        List<?> and = filter.getList( "$and", Object.class );
+        assertEquals( new Document( "meeting_date", new Document( "$gte", "2025-01-01" ) ), and.get( 0 ) );
+        assertEquals( new Document( "meeting_date", new Document( "$gte", "2025-01-05" ) ), and.get( 1 ) );
+        assertTrue( and.get( 2 ).toString().contains( "65f000000000000000000001" ) );
+    }
+
+    public void testRejectsMalformedInput()
+    {
+        assertInvalid( () -> MeetingExport.filter( "2025-13-01", null, null ) );
+        assertInvalid( () -> MeetingExport.filter( null, null, "2025-01-05" ) );
+        assertInvalid( () -> MeetingExport.filter( null, null, "2025-01-05:nothex" ) );
+        assertInvalid( () -> MeetingExport.format( "xml" ) );
+    }
+
+    private String export( MeetingExport.Format format, boolean gzip ) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals( 2, MeetingExport.write( format, gzip, meetings, out ) );
+        return out.toString( StandardCharsets.UTF_8 );
+    }
+
+    private static void assertInvalid( Runnable call )
+    {
+        try {
+            call.run();
+            fail( "Expected IllegalArgumentException" );
+        } catch ( IllegalArgumentException expected ) {
+            // expected
+        }
+    }
+}
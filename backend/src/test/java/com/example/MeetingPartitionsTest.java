@@ -0,0 +1,83 @@
+package com.example;
+
+import junit.framework.TestCase;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+public class MeetingPartitionsTest extends TestCase
+{
+    public void testMeetingsArePartitionedByMeetingMonth()
+    {
+        assertEquals( "details_2024_03", MeetingPartitions.name( new Document( "_id", new ObjectId() ).append( "meeting_date", "2024-03-31" ) ) );
+        assertEquals( "details_2024_12", MeetingPartitions.name( LocalDate.of( 2024, 12, 1 ) ) );
+        assertEquals( "2024-12", MeetingPartitions.month( "details_2024_12" ) );
+
+        // Without a usable date the meeting goes where it was stored
+        ObjectId id = new ObjectId( Date.from( LocalDate.of( 2023, 7, 14 ).atStartOfDay().toInstant( ZoneOffset.UTC ) ) );
+        assertEquals( "details_2023_07", MeetingPartitions.name( new Document( "_id", id ) ) );
+        assertEquals( "details_2023_07", MeetingPartitions.name( new Document( "_id", id ).append( "meeting_date", "last week" ) ) );
+    }
+
+    public void testPartitionsExpireAfterWholeRetentionMonths()
+    {
+        LocalDate today = LocalDate.of( 2025, 6, 15 );
+        assertFalse( MeetingPartitions.expired( "2024-01", today, 0 ) );
+        assertFalse( MeetingPartitions.expired( "2025-06", today, 1 ) );
+        assertFalse( MeetingPartitions.expired( "2025-05", today, 1 ) );
+        assertTrue( MeetingPartitions.expired( "2025-04", today, 1 ) );
+        assertFalse( MeetingPartitions.expired( "2024-06", today, 12 ) );
+        assertTrue( MeetingPartitions.expired( "2024-05", today, 12 ) );
+    }
+
+    public void testConcatenationReadsSourcesLazilyInOrder()
+    {
+        List<String> opened = new ArrayList<>();
+        List<Iterable<Document>> months = new ArrayList<>();
+        for ( String month : List.of( "2025-03", "2025-02", "2025-01" ) ) {
+            months.add( () -> {
+                opened.add( month );
+                return List.of( meeting( month + "-20" ), meeting( month + "-10" ) ).iterator();
+            } );
+        }
+
+        try ( MeetingPartitions.Cursor cursor = MeetingPartitions.concat( months ) ) {
+            assertEquals( "2025-03-20", cursor.next().getString( "meeting_date" ) );
+            assertEquals( List.of( "2025-03" ), opened );
+            List<String> dates = new ArrayList<>();
+            cursor.forEachRemaining( meeting -> dates.add( meeting.getString( "meeting_date" ) ) );
+            assertEquals( List.of( "2025-03-10", "2025-02-20", "2025-02-10", "2025-01-20", "2025-01-10" ), dates );
+        }
+    }
+
+    public void testMergeInterleavesSortedSources()
+    {
+        List<Document> all = new ArrayList<>();
+        for ( int i = 0; i < 9; i++ ) {
+            all.add( new Document( "_id", new ObjectId() ) );
+        }
+        List<Iterator<Document>> sources = List.of(
+                List.of( all.get( 0 ), all.get( 4 ), all.get( 5 ) ).iterator(),
+                List.<Document>of().iterator(),
+                List.of( all.get( 1 ), all.get( 2 ), all.get( 8 ) ).iterator(),
+                List.of( all.get( 3 ), all.get( 6 ), all.get( 7 ) ).iterator() );
+
+        List<Document> merged = new ArrayList<>();
+        try ( MeetingPartitions.Cursor cursor = MeetingPartitions.merge( sources, Comparator.comparing( meeting -> meeting.getObjectId( "_id" ) ) ) ) {
+            cursor.forEachRemaining( merged::add );
+        }
+        assertEquals( all, merged );
+    }
+
+    private static Document meeting( String date )
+    {
+        return new Document( "_id", new ObjectId() ).append( "meeting_date", date );
+    }
+}
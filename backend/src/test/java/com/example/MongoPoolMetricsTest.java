@@ -0,0 +1,61 @@
+package com.example;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+
+public class MongoPoolMetricsTest extends TestCase
+{
+    private final ServerId server = new ServerId( new ClusterId(), new ServerAddress( "db1", 27017 ) );
+    private final ConnectionId connection = new ConnectionId( server );
+
+    public void testCountsCheckoutsAndWaitTime()
+    {
+        MongoPoolMetrics metrics = new MongoPoolMetrics();
+        metrics.connectionCreated( new ConnectionCreatedEvent( connection ) );
+        metrics.connectionCheckOutStarted( new ConnectionCheckOutStartedEvent( server, 1 ) );
+        metrics.connectionCheckOutStarted( new ConnectionCheckOutStartedEvent( server, 2 ) );
+        metrics.connectionCheckedOut( new ConnectionCheckedOutEvent( connection, 1, TimeUnit.MILLISECONDS.toNanos( 3 ) ) );
+
+        String text = render( metrics );
+        assertTrue( text.contains( "mongo_pool_checkouts_total 1\n" ) );
+        assertTrue( text.contains( "mongo_pool_waiting 1\n" ) );
+        assertTrue( text.contains( "mongo_pool_checkout_wait_seconds_bucket{le=\"0.001\"} 0\n" ) );
+        assertTrue( text.contains( "mongo_pool_checkout_wait_seconds_bucket{le=\"0.005\"} 1\n" ) );
+        assertTrue( text.contains( "mongo_pool_connections{server=\"db1:27017\"} 1\n" ) );
+        assertTrue( text.contains( "mongo_pool_in_use{server=\"db1:27017\"} 1\n" ) );
+
+        metrics.connectionCheckedIn( new ConnectionCheckedInEvent( connection, 1 ) );
+        assertTrue( render( metrics ).contains( "mongo_pool_in_use{server=\"db1:27017\"} 0\n" ) );
+    }
+
+    public void testFailedCheckoutsAreCountedByReason()
+    {
+        MongoPoolMetrics metrics = new MongoPoolMetrics();
+        metrics.connectionCheckOutStarted( new ConnectionCheckOutStartedEvent( server, 1 ) );
+        metrics.connectionCheckOutFailed( new ConnectionCheckOutFailedEvent( server, 1,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos( 10 ) ) );
+
+        String text = render( metrics );
+        assertTrue( text.contains( "mongo_pool_checkout_failures_total{reason=\"timeout\"} 1\n" ) );
+        assertTrue( text.contains( "mongo_pool_checkout_wait_seconds_bucket{le=\"5.0\"} 0\n" ) );
+        assertTrue( text.contains( "mongo_pool_checkout_wait_seconds_count 1\n" ) );
+        assertTrue( text.contains( "mongo_pool_waiting 0\n" ) );
+    }
+
+    private static String render( MongoPoolMetrics metrics )
+    {
+        StringBuilder out = new StringBuilder();
+        metrics.write( out );
+        return out.toString();
+    }
+}
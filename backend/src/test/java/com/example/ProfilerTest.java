@@ -0,0 +1,93 @@
+package com.example;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+public class ProfilerTest extends TestCase
+{
+    @SuppressWarnings( "unchecked" )
+    public void testRecordingReportsSlowestStagesAndAllocations() throws Exception
+    {
+        Profiler profiler = new Profiler( Files.createTempDirectory( "profiles" ) );
+        assertNull( profiler.recording( null ) );
+        profiler.start( Duration.ofMinutes( 5 ), 50L * 1024 * 1024, false );
+        try {
+            profiler.start( Duration.ofMinutes( 5 ), 50L * 1024 * 1024, false );
+            fail( "Expected a second recording to be refused" );
+        } catch ( IllegalStateException e ) {
+            // expected
+        }
+
+        for ( int i = 0; i < 20; i++ ) {
+            aiCall( "text", i == 7 ? 40 : 2 );
+        }
+        StageEvents.Mongo query = new StageEvents.Mongo();
+        query.begin();
+        Thread.sleep( 5 );
+        query.operation = "query";
+        query.documents = 50;
+        query.commit();
+        List<byte[]> garbage = new ArrayList<>();
+        // Allocation samples are throttled per second, so this allocates for a while rather than a lot
+        for ( long end = System.nanoTime() + 500_000_000L; System.nanoTime() < end; ) {
+            garbage.add( new byte[1024] );
+            if ( garbage.size() > 100 ) {
+                garbage.clear();
+            }
+        }
+
+        Path file = profiler.stop();
+        assertNotNull( file );
+        assertNull( profiler.stop() );
+        assertEquals( file, profiler.recording( null ) );
+        assertEquals( file, profiler.recording( file.getFileName().toString() ) );
+
+        Map<String, Object> summary = Profiler.summarize( file, 5 );
+        List<Map<String, Object>> stages = (List<Map<String, Object>>) summary.get( "stages" );
+        Map<String, Object> ai = stages.stream().filter( stage -> "AI Call text".equals( stage.get( "stage" ) ) )
+                .findFirst().orElseThrow();
+        assertEquals( 20, ai.get( "count" ) );
+        assertTrue( (Double) ai.get( "max_ms" ) >= 40 );
+        assertTrue( stages.stream().anyMatch( stage -> "MongoDB Operation query".equals( stage.get( "stage" ) ) ) );
+
+        List<Map<String, Object>> slowest = (List<Map<String, Object>>) summary.get( "slowest" );
+        assertEquals( 5, slowest.size() );
+        assertEquals( "AI Call text", slowest.get( 0 ).get( "stage" ) );
+        assertEquals( 200, slowest.get( 0 ).get( "status" ) );
+
+        List<Map<String, Object>> allocations = (List<Map<String, Object>>) summary.get( "allocations" );
+        assertFalse( allocations.isEmpty() );
+        // Sampled, so the loop above is among the top sites rather than reliably the first
+        assertTrue( allocations.toString(), allocations.stream()
+                .anyMatch( site -> ( (String) site.get( "site" ) ).startsWith( "com.example.ProfilerTest." ) ) );
+    }
+
+    public void testRecordingNamesStayInTheDirectory() throws Exception
+    {
+        Profiler profiler = new Profiler( Files.createTempDirectory( "profiles" ) );
+        try {
+            profiler.recording( "../secrets.jfr" );
+            fail( "Expected a path outside the directory to be rejected" );
+        } catch ( IllegalArgumentException e ) {
+            // expected
+        }
+        assertNull( profiler.recording( "missing.jfr" ) );
+    }
+
+    private static void aiCall( String operation, long millis ) throws InterruptedException
+    {
+        StageEvents.AiCall call = new StageEvents.AiCall();
+        call.operation = operation;
+        call.bytes = 1024;
+        call.begin();
+        Thread.sleep( millis );
+        call.status = 200;
+        call.commit();
+    }
+}
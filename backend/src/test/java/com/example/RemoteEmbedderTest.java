@@ -0,0 +1,48 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.Javalin;
+import junit.framework.TestCase;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+public class RemoteEmbedderTest extends TestCase
+{
+    public void testEmbeddingsGoThroughTheAiLimitWithItsTimeout() throws Exception
+    {
+        Javalin service = Javalin.create( config -> config.showJavalinBanner = false );
+        service.post( "/embed", ctx -> {
+            if ( ctx.body().contains( "hang" ) ) {
+                Thread.sleep( 1000 );
+            }
+            ctx.json( Map.of( "embedding", List.of( 3, 4 ) ) );
+        } );
+        service.start( 0 );
+        AdaptiveLimiter limiter = new AdaptiveLimiter( 1, 1, 0, Duration.ZERO );
+        AiClient client = new AiClient( HttpClient.newBuilder().version( HttpClient.Version.HTTP_1_1 ).build(),
+                new ObjectMapper(), "http://localhost:" + service.port(), Duration.ofMillis( 300 ), limiter );
+        RemoteEmbedder embedder = new RemoteEmbedder( client, 2 );
+        try {
+            float[] vector = embedder.embedWaiting( "budget review" );
+            assertEquals( 0.6f, vector[0], 1e-6 );
+            assertEquals( 0.8f, vector[1], 1e-6 );
+
+            try {
+                embedder.embed( "hang" );
+                fail( "Expected the call to time out" );
+            } catch ( HttpTimeoutException e ) {
+                // expected
+            }
+            assertEquals( 0, limiter.inflight() );
+            StringBuilder metrics = new StringBuilder();
+            limiter.write( metrics );
+            assertTrue( metrics.toString().contains( "ai_rtt_seconds_count 2" ) );
+        } finally {
+            service.stop();
+        }
+    }
+}
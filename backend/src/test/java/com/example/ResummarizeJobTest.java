@@ -0,0 +1,64 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.model.WriteModel;
+import io.javalin.Javalin;
+import io.javalin.http.HttpStatus;
+import junit.framework.TestCase;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ResummarizeJobTest extends TestCase
+{
+    public void testCallsBeyondTheLimitWaitInsteadOfFailing() throws Exception
+    {
+        Javalin service = Javalin.create( config -> config.showJavalinBanner = false );
+        service.post( "/text-summary", ctx -> {
+            Thread.sleep( 20 );
+            if ( ctx.body().contains( "broken" ) ) {
+                ctx.status( HttpStatus.INTERNAL_SERVER_ERROR ).result( "cannot summarize" );
+            } else {
+                ctx.json( Map.of( "summary", "new summary" ) );
+            }
+        } );
+        service.start( 0 );
+        // One call at a time and no queue: every interactive call beyond the first would be shed
+        AdaptiveLimiter limiter = new AdaptiveLimiter( 1, 1, 0, Duration.ZERO );
+        AiClient client = new AiClient( HttpClient.newBuilder().version( HttpClient.Version.HTTP_1_1 ).build(),
+                new ObjectMapper(), "http://localhost:" + service.port(), Duration.ofSeconds( 10 ), limiter );
+        ResummarizeJob job = new ResummarizeJob( null, null, client, "test", 4, 1000, 8, meeting -> {} );
+        ExecutorService workers = Executors.newFixedThreadPool( 4 );
+        try {
+            List<Document> page = new ArrayList<>();
+            for ( int i = 0; i < 8; i++ ) {
+                page.add( new Document( "_id", new ObjectId() ).append( "meeting_date", "2025-03-10" )
+                        .append( "meeting_title", "Sync " + i ).append( "attendees", List.of( "Alice" ) )
+                        .append( "transcription", i == 5 ? "broken" : "We agreed on the plan." ) );
+            }
+
+            List<WriteModel<Document>> results = job.summarize( page, workers );
+
+            assertEquals( 8, results.size() );
+            for ( int i = 0; i < 8; i++ ) {
+                assertEquals( i == 5, results.get( i ) == null );
+            }
+            assertEquals( "new summary", page.get( 0 ).getString( "summary" ) );
+            assertEquals( 1L, job.status().get( "failed" ) );
+            StringBuilder metrics = new StringBuilder();
+            limiter.write( metrics );
+            assertTrue( metrics.toString().contains( "ai_shed_total{reason=\"queue_full\"} 0" ) );
+            assertEquals( 0, limiter.inflight() );
+        } finally {
+            workers.shutdownNow();
+            service.stop();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures time to the first successful request and resident memory at that
+ * point for each way of starting the backend: the shaded jar, the jar with the
+ * AppCDS archive and the native image, whichever of them have been built.
+ *
+ * <p>Needs MongoDB at {@code MONGO_URI} (default localhost) like the server
+ * itself. Build the variants first, then run from {@code backend}:
+ * <pre>
+ * mvn -Pappcds -DskipTests verify
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.StartupBenchmark
+ * </pre>
+ */
+public class StartupBenchmark
+{
+    private static final Path JAR = Path.of( "target/summary-app-1.0-SNAPSHOT.jar" );
+    private static final Path ARCHIVE = Path.of( "target/summary-app.jsa" );
+    private static final Path NATIVE = Path.of( "target/summary-app" );
+    private static final int PORT = 5099;
+    private static final int RUNS = Integer.getInteger( "runs", 5 );
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds( 60 );
+
+    public static void main( String[] args ) throws Exception
+    {
+        String java = Path.of( System.getProperty( "java.home" ), "bin", "java" ).toString();
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        if ( Files.exists( JAR ) ) {
+            variants.put( "jar", List.of( java, "-jar", JAR.toString() ) );
+        }
+        if ( Files.exists( JAR ) && Files.exists( ARCHIVE ) ) {
+            variants.put( "appcds", List.of( java, "-XX:SharedArchiveFile=" + ARCHIVE, "-Xlog:cds=off",
+                    "-jar", JAR.toString() ) );
+        }
+        if ( Files.isExecutable( NATIVE ) ) {
+            variants.put( "native", List.of( NATIVE.toString() ) );
+        }
+        if ( variants.isEmpty() ) {
+            System.out.println( "Nothing to measure; build with mvn -Pappcds verify and/or mvn -Pnative package" );
+            return;
+        }
+
+        // Index and journal directories shared by all runs, so only the warm-up builds them
+        Path work = Files.createTempDirectory( "startup-benchmark-" );
+        HttpClient client = HttpClient.newBuilder().connectTimeout( Duration.ofMillis( 200 ) ).build();
+        URI probe = URI.create( "http://localhost:" + PORT + "/summaries?view=list&limit=1" );
+
+        System.out.printf( "%-8s %22s %14s%n", "variant", "first response (ms)", "RSS (MB)" );
+        for ( Map.Entry<String, List<String>> variant : variants.entrySet() ) {
+            start( variant.getValue(), work, client, probe );
+            List<Long> millis = new ArrayList<>();
+            List<Long> rss = new ArrayList<>();
+            for ( int i = 0; i < RUNS; i++ ) {
+                long[] run = start( variant.getValue(), work, client, probe );
+                millis.add( run[0] );
+                rss.add( run[1] );
+            }
+            System.out.printf( "%-8s %22d %14d%n", variant.getKey(), median( millis ), median( rss ) / 1024 );
+        }
+    }
+
+    /** Starts the server, waits for its first {@code 200}, stops it and returns {elapsed ms, RSS KB}. */
+    private static long[] start( List<String> command, Path work, HttpClient client, URI probe )
+            throws IOException, InterruptedException
+    {
+        ProcessBuilder builder = new ProcessBuilder( command )
+                .redirectOutput( ProcessBuilder.Redirect.DISCARD )
+                .redirectError( ProcessBuilder.Redirect.DISCARD );
+        builder.environment().put( "PORT", Integer.toString( PORT ) );
+        builder.environment().put( "CONFIG_RELOAD_SECONDS", "0" );
+        builder.environment().put( "LISTING_INDEX_DIR", work.resolve( "listing-index" ).toString() );
+        builder.environment().put( "SEMANTIC_INDEX_DIR", work.resolve( "semantic-index" ).toString() );
+        builder.environment().put( "JOB_JOURNAL_DIR", work.resolve( "job-journal" ).toString() );
+
+        long started = System.nanoTime();
+        Process process = builder.start();
+        try {
+            long deadline = started + STARTUP_TIMEOUT.toNanos();
+            while ( System.nanoTime() < deadline ) {
+                if ( !process.isAlive() ) {
+                    throw new IllegalStateException( command + " exited with " + process.exitValue()
+                            + "; is MongoDB running?" );
+                }
+                try {
+                    HttpResponse<Void> response = client.send( HttpRequest.newBuilder( probe ).build(),
+                            HttpResponse.BodyHandlers.discarding() );
+                    if ( response.statusCode() == 200 ) {
+                        long elapsed = ( System.nanoTime() - started ) / 1_000_000;
+                        return new long[] { elapsed, residentKilobytes( process.pid() ) };
+                    }
+                } catch ( IOException e ) {
+                    // Not listening yet
+                }
+                Thread.sleep( 10 );
+            }
+            throw new IllegalStateException( command + " did not answer within " + STARTUP_TIMEOUT );
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    /** VmRSS from {@code /proc}; 0 where that is not available. */
+    private static long residentKilobytes( long pid ) throws IOException
+    {
+        Path status = Path.of( "/proc", Long.toString( pid ), "status" );
+        if ( !Files.exists( status ) ) {
+            return 0;
+        }
+        for ( String line : Files.readAllLines( status ) ) {
+            if ( line.startsWith( "VmRSS:" ) ) {
+                return Long.parseLong( line.replaceAll( "[^0-9]", "" ) );
+            }
+        }
+        return 0;
+    }
+
+    private static long median( List<Long> values )
+    {
+        List<Long> sorted = new ArrayList<>( values );
+        Collections.sort( sorted );
+        return sorted.get( sorted.size() / 2 );
+    }
+}
@@ -0,0 +1,108 @@
+package com.example;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+
+import junit.framework.TestCase;
+
+public class TimelinesTest extends TestCase
+{
+    private static final String TRANSCRIPT = "Good morning everyone, let us start with the budget for next quarter. "
+            + "Marketing asked for more. Next, hiring: we need two backend engineers before June. "
+            + "Finally the office move is planned for the summer holidays.";
+
+    public void testEntriesAreParsedFromStringsAndMaps()
+    {
+        List<Document> entries = Timelines.parse( List.of(
+                "[1:02:10] Office move",
+                "00:10 - 00:45: Budget review",
+                Map.of( "start", "12:30", "end", 1800, "topic", "Hiring plan" ),
+                "no time here" ), TRANSCRIPT, null );
+
+        assertEquals( 3, entries.size() );
+        assertEquals( 10.0, entries.get( 0 ).getDouble( "start" ) );
+        assertEquals( 45.0, entries.get( 0 ).getDouble( "end" ) );
+        assertEquals( "Budget review", entries.get( 0 ).getString( "topic" ) );
+        assertEquals( 750.0, entries.get( 1 ).getDouble( "start" ) );
+        assertEquals( 1800.0, entries.get( 1 ).getDouble( "end" ) );
+        assertEquals( 3730.0, entries.get( 2 ).getDouble( "start" ) );
+        assertNull( entries.get( 2 ).get( "end" ) );
+        // Titles are placed in proportion to their start, at a word boundary
+        int budget = entries.get( 0 ).getInteger( "offset" );
+        assertTrue( budget < entries.get( 1 ).getInteger( "offset" ) );
+        assertTrue( entries.get( 1 ).getInteger( "offset" ) <= entries.get( 2 ).getInteger( "offset" ) );
+        assertEquals( ' ', TRANSCRIPT.charAt( budget - 1 ) );
+
+        assertEquals( List.of( "budget", "review", "hiring", "plan", "office", "move" ), Timelines.keys( entries ) );
+        assertEquals( List.of( "budget" ), Timelines.keys( "The Budget" ) );
+    }
+
+    public void testQuotedTopicsSliceTheTranscriptExactly()
+    {
+        List<Document> entries = Timelines.parse( List.of(
+                "00:00 Good morning everyone, let us start with the budget for next…",
+                "01:30 Next, hiring: we need two backend engineers before June.",
+                "03:05 Finally the office move is planned for the summer holidays." ), TRANSCRIPT, 240 );
+
+        assertEquals( TRANSCRIPT.indexOf( "Next, hiring" ), (int) entries.get( 1 ).getInteger( "offset" ) );
+        assertEquals( 240.0, entries.get( 2 ).getDouble( "end" ) );
+
+        Timelines.Slice hiring = Timelines.slice( TRANSCRIPT, entries, 100.0, 120.0 );
+        assertEquals( "Next, hiring: we need two backend engineers before June.", hiring.text() );
+        assertEquals( 1, hiring.entries().size() );
+
+        Timelines.Slice rest = Timelines.slice( TRANSCRIPT, entries, 90.0, null );
+        assertTrue( rest.text().startsWith( "Next, hiring" ) );
+        assertTrue( rest.text().endsWith( "summer holidays." ) );
+        assertEquals( 2, rest.entries().size() );
+
+        assertEquals( "", Timelines.slice( TRANSCRIPT, entries, 300.0, null ).text() );
+        assertEquals( TRANSCRIPT, Timelines.slice( TRANSCRIPT, entries, null, null ).text() );
+    }
+
+    public void testOffsetsFollowAnEdit()
+    {
+        List<Document> entries = Timelines.parse( List.of(
+                "00:00 Good morning everyone, let us start with the budget for next…",
+                "01:30 Next, hiring: we need two backend engineers before June.",
+                "03:05 Finally the office move is planned for the summer holidays." ), TRANSCRIPT, null );
+        String edited = TRANSCRIPT.replace( "Marketing asked for more.", "Marketing asked for a larger share." );
+
+        List<Document> shifted = Timelines.shift( entries, TRANSCRIPT, edited );
+        assertEquals( 0, (int) shifted.get( 0 ).getInteger( "offset" ) );
+        assertEquals( edited.indexOf( "Next, hiring" ), (int) shifted.get( 1 ).getInteger( "offset" ) );
+        assertEquals( edited.indexOf( "Finally" ), (int) shifted.get( 2 ).getInteger( "offset" ) );
+        assertTrue( Timelines.slice( edited, shifted, 0.0, 60.0 ).text().endsWith( "a larger share." ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    public void testMigrationKeepsTheLegacyTimeline()
+    {
+        List<Object> legacy = List.of( "Introductions", "Budget discussion", Map.of( "topic", "Hiring" ) );
+        Document fields = Timelines.migrated( new Document( "timelines", legacy ).append( "transcription", TRANSCRIPT ) );
+
+        assertTrue( ( (List<Document>) fields.get( "timelines" ) ).isEmpty() );
+        assertTrue( ( (List<String>) fields.get( "topic_keys" ) ).isEmpty() );
+        assertEquals( legacy, fields.get( "timelines_raw" ) );
+
+        fields = Timelines.migrated( new Document( "timelines", List.of( "00:10 Budget", "Wrap-up" ) )
+                .append( "transcription", TRANSCRIPT ) );
+        assertEquals( 1, ( (List<Document>) fields.get( "timelines" ) ).size() );
+        assertEquals( List.of( "00:10 Budget", "Wrap-up" ), fields.get( "timelines_raw" ) );
+    }
+
+    public void testTimesAreSecondsOrClockTimes()
+    {
+        assertEquals( 90.5, Timelines.seconds( "90.5" ) );
+        assertEquals( 330.0, Timelines.seconds( "05:30" ) );
+        assertEquals( 3725.0, Timelines.seconds( "1:02:05" ) );
+        try {
+            Timelines.seconds( "5 minutes" );
+            fail( "Expected an invalid time to be rejected" );
+        } catch ( IllegalArgumentException e ) {
+            // expected
+        }
+    }
+}
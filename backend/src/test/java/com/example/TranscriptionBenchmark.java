@@ -0,0 +1,103 @@
+package com.example;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Latency and throughput of each transcription engine on the bundled
+ * {@code temp_video.mp4} (or {@code -Dfile=...}): {@code -Druns=N} recordings
+ * (default 8), {@code -Dconcurrency=C} at a time (default the number of
+ * cores), after one warm-up run.
+ *
+ * <p>The Flask engine needs the service at {@code FLASK_AI_URL} (default
+ * localhost:5000). The local engine needs a Vosk model in
+ * {@code VOSK_MODEL_DIR} (default {@code vosk-model}, e.g. vosk-model-small-en-us)
+ * and {@code ffmpeg} on the path; it also reports how many seconds of audio
+ * it recognizes per second. An engine whose dependencies are missing is
+ * skipped. {@code -Dengines=flask} or {@code local} runs just one. Run from
+ * {@code backend}:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.TranscriptionBenchmark
+ * </pre>
+ */
+public class TranscriptionBenchmark
+{
+    private static final Path FILE = Path.of( System.getProperty( "file", "temp_video.mp4" ) );
+    private static final int RUNS = Integer.getInteger( "runs", 8 );
+    private static final int CONCURRENCY = Integer.getInteger( "concurrency", Runtime.getRuntime().availableProcessors() );
+    private static final Map<String, String> FORM = Map.of( "date", "2024-03-11", "meeting_title", "Benchmark", "attendees", "Alice\nBob" );
+
+    public static void main( String[] args ) throws Exception
+    {
+        ObjectMapper mapper = new ObjectMapper();
+        String flaskUrl = System.getenv().getOrDefault( "FLASK_AI_URL", "http://localhost:5000" );
+        AiClient aiClient = new AiClient( HttpClient.newBuilder().connectTimeout( Duration.ofSeconds( 5 ) ).build(), mapper,
+                flaskUrl, Duration.ofMinutes( 10 ),
+                // A fixed limit, so the engines are measured rather than the limiter
+                new AdaptiveLimiter( CONCURRENCY, CONCURRENCY, RUNS, Duration.ofMinutes( 10 ) ) );
+        Path modelDir = Path.of( System.getenv().getOrDefault( "VOSK_MODEL_DIR", "vosk-model" ) );
+
+        System.out.printf( "%s (%,d KB), %d runs, %d at a time%n", FILE, Files.size( FILE ) / 1024, RUNS, CONCURRENCY );
+        for ( String engine : System.getProperty( "engines", "flask,local" ).split( "," ) ) {
+            if ( engine.equals( "local" ) ) {
+                if ( !Files.isDirectory( modelDir ) ) {
+                    System.out.println( "local: skipped, no Vosk model in " + modelDir );
+                    continue;
+                }
+                try ( LocalTranscriptionEngine local = new LocalTranscriptionEngine( modelDir, CONCURRENCY, "ffmpeg", aiClient, mapper ) ) {
+                    long start = System.nanoTime();
+                    LocalTranscriptionEngine.Transcript transcript = local.transcribe( FILE );
+                    double seconds = ( System.nanoTime() - start ) / 1e9;
+                    System.out.printf( "local: %.1f s of audio recognized in %.1f s (%.1fx real time), %d utterances%n",
+                            transcript.seconds(), seconds, transcript.seconds() / seconds, transcript.utterances().size() );
+                    run( "local", local );
+                } catch ( Exception e ) {
+                    System.out.println( "local: failed, " + e.getMessage() );
+                }
+            } else {
+                try {
+                    run( "flask", new FlaskTranscriptionEngine( aiClient ) );
+                } catch ( Exception e ) {
+                    System.out.println( "flask: failed against " + flaskUrl + ", " + e );
+                }
+            }
+        }
+    }
+
+    private static void run( String name, TranscriptionEngine engine ) throws Exception
+    {
+        engine.summarize( "video", FILE, "video/mp4", FORM );
+
+        ExecutorService clients = Executors.newFixedThreadPool( CONCURRENCY );
+        List<Future<Long>> runs = new ArrayList<>();
+        long start = System.nanoTime();
+        for ( int i = 0; i < RUNS; i++ ) {
+            runs.add( clients.submit( () -> {
+                long runStart = System.nanoTime();
+                engine.summarize( "video", FILE, "video/mp4", FORM );
+                return System.nanoTime() - runStart;
+            } ) );
+        }
+        List<Long> latencies = new ArrayList<>();
+        for ( Future<Long> run : runs ) {
+            latencies.add( run.get() );
+        }
+        double seconds = ( System.nanoTime() - start ) / 1e9;
+        clients.shutdown();
+
+        Collections.sort( latencies );
+        System.out.printf( "%-6s %6.1f recordings/min, latency p50 %6.2f s, max %6.2f s%n", name, RUNS / seconds * 60,
+                latencies.get( latencies.size() / 2 ) / 1e9, latencies.get( latencies.size() - 1 ) / 1e9 );
+    }
+}
@@ -0,0 +1,113 @@
+package org.example;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.example.todo.service.MeetingNotes;
+import org.example.todo.service.TodoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vaadin.flow.shared.Registration;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Turns the action items in meeting summaries into tasks. At startup it imports every meeting the backend has
+ * stored, then it imports each new summary the {@link SummaryFeed} delivers. Imports run one at a time on their
+ * own thread, so a meeting that arrives through the feed during the backfill is not imported twice.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.action-items.enabled", havingValue = "true", matchIfMissing = true)
+public class ActionItemImport {
+
+    private static final Logger log = LoggerFactory.getLogger(ActionItemImport.class);
+    // Meetings per transaction during the backfill
+    static final int BACKFILL_CHUNK = 500;
+
+    private final TodoService todoService;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "action-item-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Registration feedRegistration;
+
+    public ActionItemImport(TodoService todoService) {
+        this.todoService = todoService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Listen first, so nothing stored while the backfill runs is missed
+        feedRegistration = SummaryFeed.register(summary -> worker.execute(() -> importMeetings(List.of(summary))));
+        worker.execute(this::backfill);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (feedRegistration != null) {
+            feedRegistration.remove();
+        }
+        worker.shutdownNow();
+    }
+
+    private void backfill() {
+        try {
+            HttpRequest request = BackendClient.request("/summaries?view=list").GET().build();
+            HttpResponse<String> response = BackendClient.send(request);
+            if (response.statusCode() != 200) {
+                log.warn("Action item backfill skipped: backend answered {}", response.statusCode());
+                return;
+            }
+            List<MeetingSummary> meetings = Arrays.asList(
+                    new ObjectMapper().readValue(response.body(), MeetingSummary[].class));
+            long start = System.nanoTime();
+            int created = 0;
+            for (int from = 0; from < meetings.size(); from += BACKFILL_CHUNK) {
+                created += importMeetings(meetings.subList(from, Math.min(from + BACKFILL_CHUNK, meetings.size())));
+            }
+            log.info("Imported {} action items from {} meetings in {} ms", created, meetings.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Action item backfill failed: {}", e.getMessage());
+        }
+    }
+
+    private int importMeetings(List<MeetingSummary> meetings) {
+        List<MeetingNotes> notes = new ArrayList<>(meetings.size());
+        for (MeetingSummary meeting : meetings) {
+            if (meeting.getId() != null && meeting.getSummary() != null) {
+                notes.add(new MeetingNotes(meeting.getId(), meetingDate(meeting), meeting.getSummary()));
+            }
+        }
+        try {
+            return todoService.importActionItems(notes);
+        } catch (RuntimeException e) {
+            log.warn("Importing action items from {} meetings failed", notes.size(), e);
+            return 0;
+        }
+    }
+
+    private static LocalDate meetingDate(MeetingSummary meeting) {
+        try {
+            return meeting.getMeetingDate() == null ? null : LocalDate.parse(meeting.getMeetingDate());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+@Route(value = "audio", layout = MainView.class)
+@PageTitle("Audio Summary")
+public class AudioSummaryView extends MediaSummaryView {
+
+    public AudioSummaryView() {
+        super("audio", "audio/wav", ".wav", ".mp3", ".ogg");
+    }
+}
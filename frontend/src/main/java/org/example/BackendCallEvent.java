@@ -0,0 +1,29 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a call from a view to the backend, made
+ * through {@link BackendClient#send}. Its stack trace names the view. It
+ * pairs with the backend's stage events when both processes are recorded, and
+ * costs nothing unless a recording is running.
+ */
+@Name("org.example.BackendCall")
+@Label("Backend Call")
+@Category({"Summary App", "Frontend"})
+@Description("A request from the UI to the backend API")
+class BackendCallEvent extends jdk.jfr.Event {
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    @Description("Request path without the query string")
+    String path;
+
+    @Label("Status")
+    @Description("HTTP status, or 0 if no response arrived")
+    int status;
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import com.vaadin.flow.server.VaadinRequest;
+
+/**
+ * Shared HTTP client for the backend API. It negotiates HTTP/2 (h2c) so
+ * concurrent UI requests share one connection, and asks for gzip-compressed
+ * responses, which {@link #ofString()} decodes transparently.
+ */
+public final class BackendClient {
+
+    static final String BACKEND_URL = "http://localhost:5001";
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .build();
+
+    private BackendClient() {
+    }
+
+    public static HttpClient httpClient() {
+        return httpClient;
+    }
+
+    /** A request for {@code pathAndQuery} on the backend that accepts gzip responses. */
+    public static HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(BACKEND_URL + pathAndQuery))
+                .header("Accept-Encoding", "gzip");
+    }
+
+    /**
+     * Like {@link #request(String)}, on behalf of the browser at {@code clientAddress}; the backend
+     * rate-limits per client, so it is told which browser a request is for.
+     */
+    public static HttpRequest.Builder request(String pathAndQuery, String clientAddress) {
+        return request(pathAndQuery).header("X-Forwarded-For", clientAddress);
+    }
+
+    /** Address of the browser behind the current Vaadin request, for {@link #request(String, String)}. */
+    public static String clientAddress() {
+        VaadinRequest request = VaadinRequest.getCurrent();
+        return request != null ? request.getRemoteAddr() : "unknown";
+    }
+
+    /** Sends {@code request} and reads the body with {@link #ofString()}, recorded as a {@link BackendCallEvent}. */
+    public static HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        BackendCallEvent event = new BackendCallEvent();
+        event.begin();
+        try {
+            HttpResponse<String> response = httpClient.send(request, ofString());
+            event.status = response.statusCode();
+            return response;
+        } finally {
+            if (event.shouldCommit()) {
+                event.method = request.method();
+                event.path = request.uri().getPath();
+                event.commit();
+            }
+        }
+    }
+
+    /** Reads the body as UTF-8 text, inflating it first if the backend compressed it. */
+    public static HttpResponse.BodyHandler<String> ofString() {
+        return info -> {
+            boolean gzip = info.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+            if (!gzip) {
+                return HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+            }
+            return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(), BackendClient::gunzip);
+        };
+    }
+
+    private static String gunzip(byte[] body) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
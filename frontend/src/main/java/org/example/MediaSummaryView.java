@@ -0,0 +1,143 @@
+package org.example;
+
+import java.io.File;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.FileBuffer;
+
+/**
+ * Upload form for a recorded meeting, sent to the backend's
+ * {@code /video-summary} or {@code /audio-summary}.
+ *
+ * <p>The upload is buffered in a temporary file rather than in the session,
+ * and streamed from there to the backend, so a large recording does not sit
+ * in the heap for as long as the session lives.
+ */
+abstract class MediaSummaryView extends VerticalLayout {
+    private final String clientAddress = BackendClient.clientAddress();
+    private final FileBuffer buffer = new FileBuffer();
+    private File uploaded;
+
+    protected MediaSummaryView(String kind, String contentType, String... acceptedFileTypes) {
+        setPadding(false);
+        setSpacing(true);
+
+        String label = Character.toUpperCase(kind.charAt(0)) + kind.substring(1);
+
+        DatePicker datePicker = new DatePicker("Meeting Date");
+        datePicker.setRequiredIndicatorVisible(true);
+
+        TextField titleField = new TextField("Meeting Title");
+        titleField.setRequiredIndicatorVisible(true);
+
+        TextArea attendeesArea = new TextArea("Attendees");
+        attendeesArea.setPlaceholder("Enter one attendee per line");
+        attendeesArea.setRequiredIndicatorVisible(true);
+
+        Upload upload = new Upload(buffer);
+        upload.setAcceptedFileTypes(acceptedFileTypes);
+        upload.setDropLabel(new Span("Drop " + kind + " file here or click to browse"));
+        upload.setUploadButton(new Button("Upload " + label));
+
+        Button submitButton = new Button("Submit Summary");
+        submitButton.setEnabled(false);
+
+        // Store filename when upload succeeds
+        final String[] fileName = new String[1];
+        upload.addSucceededListener(event -> {
+            deleteUpload();
+            uploaded = buffer.getFileData().getFile();
+            fileName[0] = event.getFileName();
+            submitButton.setEnabled(true);
+            Notification.show(label + " ready for upload");
+        });
+
+        submitButton.addClickListener(event -> {
+            if (datePicker.isEmpty() || titleField.isEmpty() || attendeesArea.isEmpty()) {
+                Notification.show("Please fill all required fields", 3000, Notification.Position.MIDDLE);
+                return;
+            }
+
+            try {
+                String boundary = "----WebKitFormBoundary" + System.currentTimeMillis();
+
+                StringBuilder head = new StringBuilder();
+                head.append("--").append(boundary).append("\r\n");
+                head.append("Content-Disposition: form-data; name=\"file\"; filename=\"")
+                        .append(fileName[0]).append("\"\r\n");
+                head.append("Content-Type: ").append(contentType).append("\r\n\r\n");
+
+                StringBuilder tail = new StringBuilder("\r\n");
+                addFormField(tail, boundary, "date",
+                        Objects.requireNonNull(datePicker.getValue()).format(DateTimeFormatter.ISO_DATE));
+                addFormField(tail, boundary, "meeting_title", titleField.getValue());
+                addFormField(tail, boundary, "attendees", attendeesArea.getValue());
+                tail.append("--").append(boundary).append("--\r\n");
+
+                HttpRequest request = BackendClient.request("/" + kind + "-summary", clientAddress)
+                        .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                        .POST(HttpRequest.BodyPublishers.concat(
+                                HttpRequest.BodyPublishers.ofString(head.toString(), StandardCharsets.UTF_8),
+                                HttpRequest.BodyPublishers.ofFile(uploaded.toPath()),
+                                HttpRequest.BodyPublishers.ofString(tail.toString(), StandardCharsets.UTF_8)))
+                        .build();
+
+                HttpResponse<String> response = BackendClient.send(request);
+
+                if (response.statusCode() == 200) {
+                    Notification.show("Summary created successfully!");
+                    datePicker.clear();
+                    titleField.clear();
+                    attendeesArea.clear();
+                    submitButton.setEnabled(false);
+                    deleteUpload();
+                } else {
+                    Notification.show("Error: " + response.body(), 5000, Notification.Position.MIDDLE);
+                }
+            } catch (Exception e) {
+                Notification.show("Error: " + e.getMessage(), 5000, Notification.Position.MIDDLE);
+                e.printStackTrace();
+            }
+        });
+
+        add(datePicker, titleField, attendeesArea, upload, submitButton);
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        // Leaving the tab or closing the session discards an upload that was not submitted
+        deleteUpload();
+        super.onDetach(detachEvent);
+    }
+
+    private void deleteUpload() {
+        if (uploaded != null) {
+            try {
+                Files.deleteIfExists(uploaded.toPath());
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            uploaded = null;
+        }
+    }
+
+    private static void addFormField(StringBuilder body, String boundary, String name, String value) {
+        body.append("--").append(boundary).append("\r\n");
+        body.append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n");
+        body.append(value).append("\r\n");
+    }
+}
@@ -0,0 +1,51 @@
+package org.example;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+/**
+ * A stored meeting as returned by the backend's {@code /summaries} endpoints.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+public class MeetingSummary {
+    @JsonProperty("_id")
+    private String id;
+    private String meetingTitle;
+    private String meetingDate;
+    private String meetingDay;
+    private String transcription;
+    private String summary;
+    private String[] attendees;
+    private TimelineEntry[] timelines;
+
+    // Getters and setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getMeetingTitle() { return meetingTitle; }
+    public void setMeetingTitle(String meetingTitle) { this.meetingTitle = meetingTitle; }
+    public String getMeetingDate() { return meetingDate; }
+    public void setMeetingDate(String meetingDate) { this.meetingDate = meetingDate; }
+    public String getMeetingDay() { return meetingDay; }
+    public void setMeetingDay(String meetingDay) { this.meetingDay = meetingDay; }
+    public String getTranscription() { return transcription; }
+    public void setTranscription(String transcription) { this.transcription = transcription; }
+    public String getSummary() { return summary; }
+    public void setSummary(String summary) { this.summary = summary; }
+    public String[] getAttendees() { return attendees; }
+    public void setAttendees(String[] attendees) { this.attendees = attendees; }
+    public TimelineEntry[] getTimelines() { return timelines; }
+    public void setTimelines(TimelineEntry[] timelines) { this.timelines = timelines; }
+
+    /**
+     * A topic of the meeting: when it started and ended, in seconds ({@code end}
+     * is {@code null} for a last topic of unknown length), and where it starts
+     * in the transcription. {@code /summaries/{id}/transcript?from=&to=} returns
+     * the text of a time window.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record TimelineEntry(double start, Double end, String topic, int offset) {
+    }
+}
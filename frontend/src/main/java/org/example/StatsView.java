@@ -0,0 +1,102 @@
+package org.example;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H1;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.Menu;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+/**
+ * Simple bar charts over the backend's precomputed {@code /stats/*} rollups.
+ */
+@Route("stats")
+@PageTitle("Meeting Stats")
+@Menu(order = 1, icon = "vaadin:chart", title = "Meeting Stats")
+public class StatsView extends VerticalLayout {
+
+    public StatsView() {
+        setSizeFull();
+        setPadding(true);
+        setSpacing(true);
+
+        add(new H1("Meeting Stats"));
+        add(createChart("Meetings per week", "/stats/weekly"));
+        add(createChart("Meetings per weekday", "/stats/weekday"));
+        add(createChart("Top attendees", "/stats/attendees?limit=10"));
+    }
+
+    private VerticalLayout createChart(String title, String path) {
+        VerticalLayout chart = new VerticalLayout();
+        chart.setPadding(false);
+        chart.setSpacing(false);
+        chart.add(new H3(title));
+
+        try {
+            HttpRequest request = BackendClient.request(path)
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = BackendClient.send(request);
+
+            if (response.statusCode() == 200) {
+                StatBucket[] buckets = new ObjectMapper().readValue(response.body(), StatBucket[].class);
+                long max = 1;
+                for (StatBucket bucket : buckets) {
+                    max = Math.max(max, bucket.getCount());
+                }
+                for (StatBucket bucket : buckets) {
+                    chart.add(createBar(bucket, max));
+                }
+                if (buckets.length == 0) {
+                    chart.add(new Span("No meetings yet"));
+                }
+            } else {
+                Notification.show("Error fetching stats: " + response.body(), 5000, Notification.Position.MIDDLE);
+            }
+        } catch (Exception e) {
+            Notification.show("Error fetching stats: " + e.getMessage(), 5000, Notification.Position.MIDDLE);
+            e.printStackTrace();
+        }
+        return chart;
+    }
+
+    private HorizontalLayout createBar(StatBucket bucket, long max) {
+        Span label = new Span(bucket.getName() != null ? bucket.getName() : bucket.getBucket());
+        label.setWidth("10em");
+
+        Div bar = new Div();
+        bar.getStyle().set("background", "var(--lumo-primary-color)")
+                .set("height", "1em")
+                .set("border-radius", "var(--lumo-border-radius-s)");
+        bar.setWidth(Math.max(1, bucket.getCount() * 100 / max) + "%");
+
+        Div track = new Div(bar);
+        track.setWidth("30em");
+
+        HorizontalLayout row = new HorizontalLayout(label, track, new Span(Long.toString(bucket.getCount())));
+        row.setAlignItems(Alignment.CENTER);
+        return row;
+    }
+
+    public static class StatBucket {
+        private String bucket;
+        private String name;
+        private long count;
+
+        public String getBucket() { return bucket; }
+        public void setBucket(String bucket) { this.bucket = bucket; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public long getCount() { return count; }
+        public void setCount(long count) { this.count = count; }
+    }
+}
@@ -0,0 +1,220 @@
+package org.example;
+
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.dataview.GridListDataView;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Search over stored meetings. The unfiltered list is fetched when the view is
+ * first shown and then kept current by the {@link SummaryFeed}.
+ */
+@Route(value = "summaries", layout = MainView.class)
+@PageTitle("View Summaries")
+public class SummariesView extends VerticalLayout {
+    private final String clientAddress = BackendClient.clientAddress();
+    private final Grid<MeetingSummary> summaryGrid = new Grid<>(MeetingSummary.class, false);
+    private GridListDataView<MeetingSummary> summaryData;
+    // Pushed summaries are only merged while the unfiltered list is shown
+    private boolean showingAll;
+    private Registration feedRegistration;
+
+    public SummariesView() {
+        setPadding(false);
+        setSpacing(true);
+        setSizeFull();
+
+        // Search controls
+        DatePicker startDate = new DatePicker("Start Date");
+        DatePicker endDate = new DatePicker("End Date");
+        TextField titleSearch = new TextField("Meeting Title");
+        ComboBox<String> attendeeSearch = new ComboBox<>("Attendee");
+        attendeeSearch.setItems(query -> fetchAttendees(query.getFilter().orElse(""),
+                query.getOffset() + query.getLimit()).stream().skip(query.getOffset()));
+        attendeeSearch.setClearButtonVisible(true);
+        Button searchButton = new Button("Search");
+        Button clearButton = new Button("Clear");
+
+        // Configure grid
+        summaryGrid.addColumn(MeetingSummary::getMeetingTitle).setHeader("Title").setAutoWidth(true);
+        summaryGrid.addColumn(MeetingSummary::getMeetingDate).setHeader("Date").setAutoWidth(true);
+        summaryGrid.addColumn(MeetingSummary::getSummary).setHeader("Summary").setAutoWidth(true);
+        summaryGrid.setHeight("500px");
+        summaryGrid.setWidthFull();
+
+        // Create search controls layout
+        HorizontalLayout searchControls = new HorizontalLayout(
+            startDate,
+            endDate,
+            titleSearch,
+            attendeeSearch,
+            searchButton,
+            clearButton
+        );
+        searchControls.setSpacing(true);
+
+        add(searchControls);
+        add(summaryGrid);
+
+        // Search button handler
+        searchButton.addClickListener(event -> {
+            try {
+                String path = searchPath(titleSearch.getValue(), attendeeSearch.getValue(),
+                        startDate.getValue(), endDate.getValue());
+
+                HttpRequest request = BackendClient.request(path, clientAddress)
+                        .GET()
+                        .build();
+
+                HttpResponse<String> response = BackendClient.send(request);
+
+                if (response.statusCode() == 200) {
+                    MeetingSummary[] summaries = new ObjectMapper().readValue(response.body(), MeetingSummary[].class);
+                    summaryData = summaryGrid.setItems(new ArrayList<>(Arrays.asList(summaries)));
+                    showingAll = false;
+                } else {
+                    Notification.show("Error fetching summaries: " + response.body(), 5000, Notification.Position.MIDDLE);
+                }
+            } catch (Exception e) {
+                Notification.show("Error: " + e.getMessage(), 5000, Notification.Position.MIDDLE);
+                e.printStackTrace();
+            }
+        });
+
+        // Clear button handler
+        clearButton.addClickListener(event -> {
+            startDate.clear();
+            endDate.clear();
+            titleSearch.clear();
+            attendeeSearch.clear();
+            refreshSummaries();
+        });
+    }
+
+    /**
+     * The backend query for the search controls: by title, else by attendee,
+     * else by the date range, which defaults to the last month. Every value is
+     * URL-encoded, including the search method's name.
+     */
+    static String searchPath(String title, String attendee, LocalDate startDate, LocalDate endDate) {
+        StringBuilder url = new StringBuilder("/summaries?");
+        if (title != null && !title.isEmpty()) {
+            url.append("search_method=").append(encode("By Meeting Title"))
+               .append("&title=").append(encode(title));
+        } else if (attendee != null && !attendee.isEmpty()) {
+            url.append("search_method=").append(encode("By Attendee"))
+               .append("&attendee=").append(encode(attendee));
+        } else {
+            boolean range = startDate != null && endDate != null;
+            url.append("search_method=").append(encode("By Date Range"))
+               .append("&start_date=").append((range ? startDate : LocalDate.now().minusMonths(1)).format(DateTimeFormatter.ISO_DATE))
+               .append("&end_date=").append((range ? endDate : LocalDate.now()).format(DateTimeFormatter.ISO_DATE))
+               // Date-only searches are served from the backend's listing index
+               .append("&view=list");
+        }
+        return url.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void refreshSummaries() {
+        try {
+            HttpRequest request = BackendClient.request("/summaries?view=list", clientAddress)
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = BackendClient.send(request);
+
+            if (response.statusCode() == 200) {
+                MeetingSummary[] summaries = new ObjectMapper().readValue(response.body(), MeetingSummary[].class);
+                summaryData = summaryGrid.setItems(new ArrayList<>(Arrays.asList(summaries)));
+                showingAll = true;
+            } else {
+                Notification.show("Error refreshing summaries: " + response.body(), 5000, Notification.Position.MIDDLE);
+            }
+        } catch (Exception e) {
+            Notification.show("Error refreshing summaries: " + e.getMessage(), 5000, Notification.Position.MIDDLE);
+            e.printStackTrace();
+        }
+    }
+
+    private List<String> fetchAttendees(String prefix, int limit) {
+        try {
+            HttpRequest request = BackendClient.request("/attendees?prefix=" + URLEncoder.encode(prefix, StandardCharsets.UTF_8)
+                            + "&limit=" + limit, clientAddress)
+                    .GET()
+                    .build();
+
+            HttpResponse<String> response = BackendClient.send(request);
+
+            if (response.statusCode() == 200) {
+                List<String> names = new ArrayList<>();
+                new ObjectMapper().readTree(response.body()).forEach(node -> names.add(node.get("name").asText()));
+                return names;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return List.of();
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        UI ui = attachEvent.getUI();
+        feedRegistration = SummaryFeed.register(summary -> ui.access(() -> addPushedSummary(summary)));
+        // New meetings arrive through the summary feed, so the list is only fetched once per visit
+        if (summaryData == null) {
+            refreshSummaries();
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        if (feedRegistration != null) {
+            feedRegistration.remove();
+            feedRegistration = null;
+        }
+        super.onDetach(detachEvent);
+    }
+
+    private void addPushedSummary(MeetingSummary summary) {
+        if (summaryData == null || !showingAll) {
+            return;
+        }
+        List<MeetingSummary> items = summaryData.getItems().toList();
+        if (items.stream().anyMatch(item -> Objects.equals(item.getId(), summary.getId()))) {
+            return;
+        }
+        if (items.isEmpty()) {
+            summaryData.addItem(summary);
+        } else {
+            summaryData.addItemBefore(summary, items.get(0));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Keeps one server-sent events connection to the backend per frontend node and
+ * fans new summaries out to every open UI. Listeners are called from the feed
+ * thread, so UI code must wrap its changes in {@code UI.access}.
+ */
+public final class SummaryFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryFeed.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final HttpClient httpClient = BackendClient.httpClient();
+    private static final List<Consumer<MeetingSummary>> listeners = new CopyOnWriteArrayList<>();
+    private static Thread connection;
+
+    private SummaryFeed() {
+    }
+
+    public static synchronized Registration register(Consumer<MeetingSummary> listener) {
+        listeners.add(listener);
+        if (connection == null || !connection.isAlive()) {
+            connection = new Thread(SummaryFeed::run, "summary-feed");
+            connection.setDaemon(true);
+            connection.start();
+        }
+        return () -> listeners.remove(listener);
+    }
+
+    private static void run() {
+        long backoff = 1000;
+        while (!listeners.isEmpty()) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder()
+                        .uri(URI.create(BackendClient.BACKEND_URL + "/summaries/stream"))
+                        .header("Accept", "text/event-stream")
+                        .GET()
+                        .build();
+                HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+                if (response.statusCode() == 200) {
+                    backoff = 1000;
+                    try (Stream<String> lines = response.body()) {
+                        readEvents(lines);
+                    }
+                } else {
+                    response.body().close();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Summary feed disconnected: {}", e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, 30_000);
+        }
+    }
+
+    private static void readEvents(Stream<String> lines) {
+        StringBuilder data = new StringBuilder();
+        String[] event = new String[1];
+        lines.forEach(line -> {
+            if (line.isEmpty()) {
+                if ("summary".equals(event[0]) && data.length() > 0) {
+                    dispatch(data.toString());
+                }
+                data.setLength(0);
+                event[0] = null;
+            } else if (line.startsWith("event:")) {
+                event[0] = line.substring("event:".length()).trim();
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(line.substring("data:".length()).stripLeading());
+            }
+        });
+    }
+
+    private static void dispatch(String json) {
+        try {
+            MeetingSummary summary = mapper.readValue(json, MeetingSummary.class);
+            for (Consumer<MeetingSummary> listener : listeners) {
+                try {
+                    listener.accept(summary);
+                } catch (RuntimeException e) {
+                    log.warn("Summary listener failed", e);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed summary event: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import elemental.json.Json;
+
+@Route(value = "text", layout = MainView.class)
+@PageTitle("Text Summary")
+public class TextSummaryView extends VerticalLayout {
+    private final String clientAddress = BackendClient.clientAddress();
+
+    public TextSummaryView() {
+        setPadding(false);
+        setSpacing(true);
+
+        DatePicker datePicker = new DatePicker("Meeting Date");
+        datePicker.setRequiredIndicatorVisible(true);
+
+        TextField titleField = new TextField("Meeting Title");
+        titleField.setRequiredIndicatorVisible(true);
+
+        TextArea attendeesArea = new TextArea("Attendees");
+        attendeesArea.setPlaceholder("Enter one attendee per line");
+        attendeesArea.setRequiredIndicatorVisible(true);
+
+        TextArea transcriptArea = new TextArea("Meeting Transcript");
+        transcriptArea.setPlaceholder("Paste the meeting transcript here");
+        transcriptArea.setRequiredIndicatorVisible(true);
+        transcriptArea.setHeight("200px");
+
+        Button submitButton = new Button("Generate Summary");
+
+        submitButton.addClickListener(event -> {
+            if (datePicker.isEmpty() || titleField.isEmpty() || attendeesArea.isEmpty() || transcriptArea.isEmpty()) {
+                Notification.show("Please fill all required fields", 3000, Notification.Position.MIDDLE);
+                return;
+            }
+
+            try {
+                // Create JSON object properly
+                elemental.json.JsonObject jsonObject = Json.createObject();
+                jsonObject.put("text", transcriptArea.getValue());
+                jsonObject.put("date", Objects.requireNonNull(datePicker.getValue()).format(DateTimeFormatter.ISO_DATE));
+                jsonObject.put("meeting_title", titleField.getValue());
+                jsonObject.put("attendees", attendeesArea.getValue());
+
+                String requestBody = jsonObject.toJson();
+
+                HttpRequest request = BackendClient.request("/text-summary", clientAddress)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                        .build();
+
+                HttpResponse<String> response = BackendClient.send(request);
+
+                if (response.statusCode() == 200) {
+                    Notification.show("Summary created successfully!");
+                    datePicker.clear();
+                    titleField.clear();
+                    attendeesArea.clear();
+                    transcriptArea.clear();
+                } else {
+                    Notification.show("Error: " + response.body(), 5000, Notification.Position.MIDDLE);
+                }
+            } catch (Exception e) {
+                Notification.show("Error: " + e.getMessage(), 5000, Notification.Position.MIDDLE);
+                e.printStackTrace();
+            }
+        });
+
+        add(datePicker);
+        add(titleField);
+        add(attendeesArea);
+        add(transcriptArea);
+        add(submitButton);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+@Route(value = "", layout = MainView.class)
+@PageTitle("Video Summary")
+public class VideoSummaryView extends MediaSummaryView {
+
+    public VideoSummaryView() {
+        super("video", "video/mp4", ".mp4", ".mov", ".avi");
+    }
+}
@@ -9,13 +9,18 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "todo")
+@Table(name = "todo", indexes = {
+        @Index(name = "todo_creation_date_idx", columnList = "creation_date, todo_id"),
+        @Index(name = "todo_meeting_id_idx", columnList = "meeting_id") })
 public class Todo extends AbstractEntity<Long> {
 
     public static final int DESCRIPTION_MAX_LENGTH = 255;
 
+    // A sequence rather than an identity column, so Hibernate knows the ids before inserting and can batch the
+    // inserts. Each round trip to the sequence reserves ids for a whole batch.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+    @SequenceGenerator(name = "todo_seq", sequenceName = "todo_seq", allocationSize = 50)
     @Column(name = "todo_id")
     private Long id;
 
@@ -30,6 +35,11 @@ public class Todo extends AbstractEntity<Long> {
     @Nullable
     private LocalDate dueDate;
 
+    // Set for action items taken from a meeting summary
+    @Column(name = "meeting_id", length = 24)
+    @Nullable
+    private String meetingId;
+
     @Override
     public @Nullable Long getId() {
         return id;
@@ -58,4 +68,12 @@ public class Todo extends AbstractEntity<Long> {
     public void setDueDate(@Nullable LocalDate dueDate) {
         this.dueDate = dueDate;
     }
+
+    public @Nullable String getMeetingId() {
+        return meetingId;
+    }
+
+    public void setMeetingId(@Nullable String meetingId) {
+        this.meetingId = meetingId;
+    }
 }
@@ -1,12 +1,34 @@
 package org.example.todo.domain;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 public interface TodoRepository extends JpaRepository<Todo, Long>, JpaSpecificationExecutor<Todo> {
 
     // If you don't need a total row count, Slice is better than Page.
     Slice<Todo> findAllBy(Pageable pageable);
+
+    // Keyset pagination in (creation_date, todo_id) order. Unlike an offset, seeking past the last row of the
+    // previous page costs the same however deep the page is, since it starts from todo_creation_date_idx.
+    @Query("select t from Todo t order by t.creationDate, t.id")
+    List<Todo> findFirstPage(Limit limit);
+
+    // The first condition is redundant but lets the database use the index for a range scan.
+    @Query("""
+            select t from Todo t
+            where t.creationDate >= :creationDate and (t.creationDate > :creationDate or t.id > :id)
+            order by t.creationDate, t.id""")
+    List<Todo> findPageAfter(Instant creationDate, Long id, Limit limit);
+
+    @Query("select distinct t.meetingId from Todo t where t.meetingId in :meetingIds")
+    Set<String> findMeetingIdsIn(Collection<String> meetingIds);
 }
@@ -0,0 +1,161 @@
+package org.example.todo.service;
+
+import org.example.todo.domain.Todo;
+import org.jspecify.annotations.Nullable;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the action items in a meeting summary: the lines under an "Action items", "Next steps", "To-dos" or
+ * "Follow-ups" heading, or the text after such a label on the same line, with a due date when the item names
+ * one.
+ */
+final class ActionItems {
+
+    record ActionItem(String description, @Nullable LocalDate dueDate) {
+    }
+
+    private static final Pattern HEADING = Pattern.compile(
+            "(?i)^[#>*_\\s]*(action items?|next steps|to-?dos?|follow[- ]?ups?)[*_\\s]*(?::|$)\\s*(.*)$");
+    private static final Pattern BULLET = Pattern.compile("^\\s*(?:[-*+•]|\\d+[.)]|\\[[ xX]?\\])\\s+(.*)$");
+    // A line ending in a colon or a markdown heading starts the next section
+    private static final Pattern OTHER_HEADING = Pattern.compile("^\\s*(?:#.*|[^-*+•\\d].{0,60}:\\s*)$");
+
+    private static final String MONTHS = "jan(?:uary)?|feb(?:ruary)?|mar(?:ch)?|apr(?:il)?|may|june?|july?"
+            + "|aug(?:ust)?|sep(?:t(?:ember)?)?|oct(?:ober)?|nov(?:ember)?|dec(?:ember)?";
+    private static final Pattern ISO_DATE = Pattern.compile("\\b(\\d{4})-(\\d{2})-(\\d{2})\\b");
+    private static final Pattern MONTH_DAY = Pattern.compile(
+            "(?i)\\b(" + MONTHS + ")\\.?\\s+(\\d{1,2})(?:st|nd|rd|th)?\\b(?:,?\\s+(\\d{4}))?");
+    private static final Pattern DAY_MONTH = Pattern.compile(
+            "(?i)\\b(\\d{1,2})(?:st|nd|rd|th)?\\s+(?:of\\s+)?(" + MONTHS + ")\\b\\.?(?:,?\\s+(\\d{4}))?");
+    private static final Pattern WEEKDAY = Pattern.compile(
+            "(?i)\\b(?:by|before|due|on|until|next)\\s+(?:next\\s+|this\\s+)?(monday|tuesday|wednesday|thursday"
+                    + "|friday|saturday|sunday)\\b");
+    private static final Pattern RELATIVE = Pattern.compile(
+            "(?i)\\b(tomorrow|end of (?:the )?week|next week|end of (?:the )?month|eow|eom)\\b");
+
+    private ActionItems() {
+    }
+
+    static List<ActionItem> extract(MeetingNotes notes) {
+        var items = new ArrayList<ActionItem>();
+        var inSection = false;
+        // A bulleted section ends at the first line that is not a bullet, an unbulleted one at a blank line
+        var bulleted = false;
+        var sectionItems = 0;
+        for (var line : notes.summary().split("\\R")) {
+            var text = line.strip();
+            Matcher heading = HEADING.matcher(text);
+            if (heading.matches()) {
+                inSection = true;
+                bulleted = false;
+                sectionItems = 0;
+                // "Action items: send the deck; book the room"
+                for (var item : heading.group(2).split(";")) {
+                    sectionItems += add(items, item, notes.meetingDate());
+                }
+                continue;
+            }
+            if (!inSection) {
+                continue;
+            }
+            Matcher bullet = BULLET.matcher(text);
+            if (text.isEmpty()) {
+                inSection = bulleted || sectionItems == 0;
+            } else if (bullet.matches()) {
+                bulleted = true;
+                sectionItems += add(items, bullet.group(1), notes.meetingDate());
+            } else if (bulleted || OTHER_HEADING.matcher(text).matches()) {
+                inSection = false;
+            } else {
+                sectionItems += add(items, text, notes.meetingDate());
+            }
+        }
+        return items;
+    }
+
+    private static int add(List<ActionItem> items, String text, @Nullable LocalDate meetingDate) {
+        var description = text.replace("**", "").replace("__", "").strip();
+        if (description.endsWith(".")) {
+            description = description.substring(0, description.length() - 1);
+        }
+        if (description.isEmpty() || description.equalsIgnoreCase("none")) {
+            return 0;
+        }
+        if (description.length() > Todo.DESCRIPTION_MAX_LENGTH) {
+            description = description.substring(0, Todo.DESCRIPTION_MAX_LENGTH - 1) + "…";
+        }
+        items.add(new ActionItem(description, dueDate(description, meetingDate)));
+        return 1;
+    }
+
+    static @Nullable LocalDate dueDate(String text, @Nullable LocalDate meetingDate) {
+        try {
+            Matcher iso = ISO_DATE.matcher(text);
+            if (iso.find()) {
+                return LocalDate.of(Integer.parseInt(iso.group(1)), Integer.parseInt(iso.group(2)),
+                        Integer.parseInt(iso.group(3)));
+            }
+            Matcher monthDay = MONTH_DAY.matcher(text);
+            if (monthDay.find()) {
+                return onOrAfter(month(monthDay.group(1)), Integer.parseInt(monthDay.group(2)), monthDay.group(3),
+                        meetingDate);
+            }
+            Matcher dayMonth = DAY_MONTH.matcher(text);
+            if (dayMonth.find()) {
+                return onOrAfter(month(dayMonth.group(2)), Integer.parseInt(dayMonth.group(1)), dayMonth.group(3),
+                        meetingDate);
+            }
+        } catch (DateTimeException | NumberFormatException e) {
+            // Not a real date, e.g. "Feb 30"; fall through to the relative forms
+        }
+        if (meetingDate == null) {
+            return null;
+        }
+        Matcher weekday = WEEKDAY.matcher(text);
+        if (weekday.find()) {
+            var day = DayOfWeek.valueOf(weekday.group(1).toUpperCase(Locale.ROOT));
+            return meetingDate.with(TemporalAdjusters.next(day));
+        }
+        Matcher relative = RELATIVE.matcher(text);
+        if (relative.find()) {
+            return switch (relative.group(1).toLowerCase(Locale.ROOT).replace("the ", "")) {
+                case "tomorrow" -> meetingDate.plusDays(1);
+                case "end of week", "eow" -> meetingDate.with(TemporalAdjusters.next(DayOfWeek.FRIDAY));
+                case "next week" -> meetingDate.plusWeeks(1);
+                default -> meetingDate.with(TemporalAdjusters.lastDayOfMonth());
+            };
+        }
+        return null;
+    }
+
+    private static Month month(String name) {
+        var prefix = name.substring(0, 3).toLowerCase(Locale.ROOT);
+        for (var month : Month.values()) {
+            if (month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toLowerCase(Locale.ROOT).equals(prefix)) {
+                return month;
+            }
+        }
+        throw new DateTimeException("Unknown month " + name);
+    }
+
+    // Without a year, "March 3" means the next March 3 from the meeting
+    private static LocalDate onOrAfter(Month month, int day, @Nullable String year, @Nullable LocalDate meetingDate) {
+        if (year != null) {
+            return LocalDate.of(Integer.parseInt(year), month, day);
+        }
+        var reference = meetingDate != null ? meetingDate : LocalDate.now();
+        var date = LocalDate.of(reference.getYear(), month, day);
+        return date.isBefore(reference) ? date.plusYears(1) : date;
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.todo.service;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * The parts of a stored meeting that action items are taken from. The date resolves due dates such as "by
+ * Friday"; without it only explicit dates are recognized.
+ */
+public record MeetingNotes(String meetingId, @Nullable LocalDate meetingDate, String summary) {
+}
@@ -3,23 +3,39 @@ package org.example.todo.service;
 import org.example.todo.domain.Todo;
 import org.example.todo.domain.TodoRepository;
 import org.jspecify.annotations.Nullable;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional(propagation = Propagation.REQUIRES_NEW)
 public class TodoService {
 
+    // Pages are shared between sessions for a few seconds, so a burst of grid scrolling in several browsers
+    // does not query the same rows again. createTodo clears them, so a session sees its own new task at once.
+    static final Duration PAGE_TTL = Duration.ofSeconds(5);
+    static final int MAX_CACHED_PAGES = 1000;
+
     private final TodoRepository todoRepository;
 
     private final Clock clock;
 
+    private final Map<PageKey, CachedPage> pages = new ConcurrentHashMap<>();
+
     TodoService(TodoRepository todoRepository, Clock clock) {
         this.todoRepository = todoRepository;
         this.clock = clock;
@@ -34,10 +50,77 @@ public class TodoService {
         todo.setCreationDate(clock.instant());
         todo.setDueDate(dueDate);
         todoRepository.saveAndFlush(todo);
+        clearPagesAfterCommit();
     }
 
-    public List<Todo> list(Pageable pageable) {
-        return todoRepository.findAllBy(pageable).toList();
+    /**
+     * Adds the action items found in each meeting's summary as todos linked to the meeting, skipping meetings
+     * whose action items were imported before. The todos are written in JDBC batches rather than one insert
+     * each.
+     *
+     * @return the number of todos created
+     */
+    public int importActionItems(Collection<MeetingNotes> meetings) {
+        var imported = new HashSet<>(
+                todoRepository.findMeetingIdsIn(meetings.stream().map(MeetingNotes::meetingId).toList()));
+        var now = clock.instant();
+        var todos = new ArrayList<Todo>();
+        for (var meeting : meetings) {
+            if (!imported.add(meeting.meetingId())) {
+                continue;
+            }
+            for (var item : ActionItems.extract(meeting)) {
+                var todo = new Todo();
+                todo.setDescription(item.description());
+                todo.setCreationDate(now);
+                todo.setDueDate(item.dueDate());
+                todo.setMeetingId(meeting.meetingId());
+                todos.add(todo);
+            }
+        }
+        if (!todos.isEmpty()) {
+            todoRepository.saveAll(todos);
+            todoRepository.flush();
+            clearPagesAfterCommit();
+        }
+        return todos.size();
     }
 
+    // Clearing before the commit would let a concurrent list cache the pages without the new rows
+    private void clearPagesAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pages.clear();
+            }
+        });
+    }
+
+    /**
+     * Lists todos in creation order, starting after the given todo, which is normally the last one of the
+     * previous page. Pass {@code null} for the first page.
+     */
+    @Transactional(readOnly = true)
+    public List<Todo> list(@Nullable Todo after, int limit) {
+        var key = after == null ? new PageKey(null, null, limit)
+                : new PageKey(after.getCreationDate(), after.getId(), limit);
+        var now = clock.instant();
+        var cached = pages.get(key);
+        if (cached != null && cached.expires().isAfter(now)) {
+            return cached.todos();
+        }
+        var todos = List.copyOf(key.id() == null ? todoRepository.findFirstPage(Limit.of(limit))
+                : todoRepository.findPageAfter(key.creationDate(), key.id(), Limit.of(limit)));
+        if (pages.size() >= MAX_CACHED_PAGES) {
+            pages.clear();
+        }
+        pages.put(key, new CachedPage(todos, now.plus(PAGE_TTL)));
+        return todos;
+    }
+
+    private record PageKey(@Nullable Instant creationDate, @Nullable Long id, int limit) {
+    }
+
+    private record CachedPage(List<Todo> todos, Instant expires) {
+    }
 }
@@ -19,11 +19,12 @@ import com.vaadin.flow.theme.lumo.LumoUtility;
 import java.time.Clock;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.List;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.TreeMap;
 
-import static com.vaadin.flow.spring.data.VaadinSpringDataHelpers.toSpringPageRequest;
-
-@Route("")
+@Route("todo")
 @PageTitle("Task List")
 @Menu(order = 0, icon = "vaadin:clipboard-check", title = "Task List")
 public class TodoView extends Main {
@@ -35,6 +36,9 @@ public class TodoView extends Main {
     final Button createBtn;
     final Grid<Todo> todoGrid;
 
+    // Last row of each page the grid has loaded, by position
+    private final NavigableMap<Integer, Todo> lastRows = new TreeMap<>();
+
     public TodoView(TodoService todoService, Clock clock) {
         this.todoService = todoService;
 
@@ -56,7 +60,7 @@ public class TodoView extends Main {
         var dateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(getLocale());
 
         todoGrid = new Grid<>();
-        todoGrid.setItems(query -> todoService.list(toSpringPageRequest(query)).stream());
+        todoGrid.setItems(query -> fetch(query.getOffset(), query.getLimit()).stream());
         todoGrid.addColumn(Todo::getDescription).setHeader("Description");
         todoGrid.addColumn(todo -> Optional.ofNullable(todo.getDueDate()).map(dateFormatter::format).orElse("Never"))
                 .setHeader("Due Date");
@@ -71,8 +75,23 @@ public class TodoView extends Main {
         add(todoGrid);
     }
 
+    private List<Todo> fetch(int offset, int limit) {
+        // The grid asks for rows by offset, so seek from the nearest row it has already been given and skip the
+        // rest. Scrolling down continues exactly where the last page ended; a jump ahead reads the gap once.
+        var known = lastRows.floorEntry(offset - 1);
+        var after = known == null ? null : known.getValue();
+        var skip = offset - (known == null ? 0 : known.getKey() + 1);
+        var todos = todoService.list(after, skip + limit);
+        var page = todos.subList(Math.min(skip, todos.size()), todos.size());
+        if (!page.isEmpty()) {
+            lastRows.put(offset + page.size() - 1, page.get(page.size() - 1));
+        }
+        return page;
+    }
+
     private void createTodo() {
         todoService.createTodo(description.getValue(), dueDate.getValue());
+        // New tasks sort last, so the rows already seen keep their positions and lastRows stays valid
         todoGrid.getDataProvider().refreshAll();
         description.clear();
         dueDate.clear();
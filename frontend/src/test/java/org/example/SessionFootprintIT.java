@@ -0,0 +1,63 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.flow.component.Component;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap held per UI session by the summary pages, for {@value #DEFAULT_SESSIONS}
+ * concurrent sessions (override with {@code -Dsessions=N}).
+ *
+ * <p>Compares what a session holds when it opens the app, now that each tab is
+ * a route built on navigation, against the old layout that built all four tabs
+ * up front. Only the component trees are counted, not the Vaadin session
+ * bookkeeping, which is the same for both.
+ * Run with {@code mvn -Pintegration-test verify -Dit.test=SessionFootprintIT}.
+ */
+class SessionFootprintIT {
+
+    private static final int DEFAULT_SESSIONS = 200;
+
+    @Test
+    void route_per_tab_holds_less_per_session_than_building_every_tab() {
+        int sessions = Integer.getInteger("sessions", DEFAULT_SESSIONS);
+
+        long lazy = bytesPerSession(sessions, () -> List.of(new MainView(), new VideoSummaryView()));
+        long eager = bytesPerSession(sessions, () -> List.of(new MainView(), new VideoSummaryView(),
+                new AudioSummaryView(), new TextSummaryView(), new SummariesView()));
+
+        System.out.printf("Summary pages, %d sessions: %,d bytes/session with one tab built, %,d with all tabs%n",
+                sessions, lazy, eager);
+        assertThat(lazy).isLessThan(eager);
+    }
+
+    private static long bytesPerSession(int sessions, Supplier<List<Component>> session) {
+        // Warm up class loading and static state so it is not charged to the sessions
+        session.get();
+        long before = usedHeap();
+        List<List<Component>> live = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            live.add(session.get());
+        }
+        long after = usedHeap();
+        assertThat(live).hasSize(sessions);
+        return (after - before) / sessions;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Several rounds, since one System.gc() does not always collect everything unreachable
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example;
+
+import java.net.URI;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummariesViewTest {
+
+    @Test
+    void every_search_builds_a_valid_backend_uri() {
+        URI byTitle = BackendClient.request(SummariesView.searchPath("Q3 planning & budget", null, null, null))
+                .build().uri();
+        assertThat(byTitle.getRawQuery()).isEqualTo("search_method=By+Meeting+Title&title=Q3+planning+%26+budget");
+
+        URI byAttendee = BackendClient.request(SummariesView.searchPath("", "Zoë Müller", null, null)).build().uri();
+        assertThat(byAttendee.getRawQuery()).isEqualTo("search_method=By+Attendee&attendee=Zo%C3%AB+M%C3%BCller");
+
+        URI byDates = BackendClient.request(SummariesView.searchPath(null, null,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 3, 31))).build().uri();
+        assertThat(byDates.getRawQuery())
+                .isEqualTo("search_method=By+Date+Range&start_date=2025-01-01&end_date=2025-03-31&view=list");
+
+        URI lastMonth = BackendClient.request(SummariesView.searchPath(null, null, LocalDate.of(2025, 1, 1), null))
+                .build().uri();
+        assertThat(lastMonth.getRawQuery()).startsWith("search_method=By+Date+Range&start_date=")
+                .contains("&end_date=" + LocalDate.now()).endsWith("&view=list");
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.todo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActionItemsTest {
+
+    // A Wednesday
+    static final LocalDate MEETING = LocalDate.of(2025, 3, 5);
+
+    @Test
+    public void items_are_taken_from_the_bullets_under_an_action_items_heading() {
+        var summary = """
+                The team reviewed the Q1 roadmap.
+
+                **Action Items:**
+                - Alice to send the updated deck by Friday.
+                * Bob will book the venue before March 20
+
+                1. Carol to follow up with legal on 2025-04-01
+                Overall the meeting was productive.
+                """;
+        assertThat(ActionItems.extract(new MeetingNotes("m1", MEETING, summary))).containsExactly(
+                new ActionItems.ActionItem("Alice to send the updated deck by Friday", LocalDate.of(2025, 3, 7)),
+                new ActionItems.ActionItem("Bob will book the venue before March 20", LocalDate.of(2025, 3, 20)),
+                new ActionItems.ActionItem("Carol to follow up with legal on 2025-04-01", LocalDate.of(2025, 4, 1)));
+    }
+
+    @Test
+    public void items_can_follow_the_label_on_the_same_line() {
+        var summary = "Summary of the call. Next steps: send the contract tomorrow; schedule a demo next week";
+        assertThat(ActionItems.extract(new MeetingNotes("m1", MEETING, "Notes\n" + summary))).isEmpty();
+        assertThat(ActionItems.extract(new MeetingNotes("m1", MEETING, "Next steps: send the contract tomorrow;"
+                + " schedule a demo next week"))).containsExactly(
+                new ActionItems.ActionItem("send the contract tomorrow", LocalDate.of(2025, 3, 6)),
+                new ActionItems.ActionItem("schedule a demo next week", LocalDate.of(2025, 3, 12)));
+    }
+
+    @Test
+    public void an_unbulleted_section_ends_at_a_blank_line_or_the_next_heading() {
+        var summary = """
+                Follow-ups
+                Dave to share the budget by end of month
+                Erin to review the draft
+
+                Decisions:
+                Launch moves to May
+                """;
+        assertThat(ActionItems.extract(new MeetingNotes("m1", MEETING, summary))).containsExactly(
+                new ActionItems.ActionItem("Dave to share the budget by end of month", LocalDate.of(2025, 3, 31)),
+                new ActionItems.ActionItem("Erin to review the draft", null));
+    }
+
+    @Test
+    public void dates_without_a_year_are_the_next_such_date_after_the_meeting() {
+        assertThat(ActionItems.dueDate("renew by 3rd of January", MEETING)).isEqualTo(LocalDate.of(2026, 1, 3));
+        assertThat(ActionItems.dueDate("renew by Jan 3, 2027", MEETING)).isEqualTo(LocalDate.of(2027, 1, 3));
+        assertThat(ActionItems.dueDate("renew by Feb 30", MEETING)).isNull();
+        assertThat(ActionItems.dueDate("renew by Friday", null)).isNull();
+    }
+}
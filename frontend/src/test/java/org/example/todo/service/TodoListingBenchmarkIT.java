@@ -0,0 +1,98 @@
+package org.example.todo.service;
+
+import org.example.todo.domain.Todo;
+import org.example.todo.domain.TodoRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * First-page and deep-page latency of offset and keyset listing over {@code -Dtodos=N} rows (default one million).
+ * Run with {@code mvn -Pintegration-test verify -Dit.test=TodoListingBenchmarkIT}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TodoListingBenchmarkIT {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int ROUNDS = 21;
+
+    @Autowired
+    TodoRepository todoRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    int todos;
+
+    @BeforeAll
+    void insertTodos() {
+        todos = Integer.getInteger("todos", 1_000_000);
+        // Spread over a year, with every tenth row sharing its creation date with the next so ties are exercised
+        jdbcTemplate.update("""
+                insert into todo (todo_id, description, creation_date, due_date)
+                select next value for todo_seq, 'Task ' || x,
+                        timestamp '2025-01-01 00:00:00' + (x / 10 * 10) * interval '31' second, null
+                from system_range(1, ?)""", todos);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("delete from todo");
+    }
+
+    @Test
+    void keyset_pages_stay_as_fast_as_the_first_page() {
+        var order = Sort.by("creationDate", "id");
+        var deepPage = todos / PAGE_SIZE - 1;
+        var lastOfPreviousPage = todoRepository.findAllBy(PageRequest.of(deepPage * PAGE_SIZE - 1, 1, order))
+                .getContent().get(0);
+
+        var offsetFirst = median(() -> todoRepository.findAllBy(PageRequest.of(0, PAGE_SIZE, order)).getContent());
+        var offsetDeep = median(
+                () -> todoRepository.findAllBy(PageRequest.of(deepPage, PAGE_SIZE, order)).getContent());
+        var keysetFirst = median(() -> todoRepository.findFirstPage(Limit.of(PAGE_SIZE)));
+        var keysetDeep = median(() -> todoRepository.findPageAfter(lastOfPreviousPage.getCreationDate(),
+                lastOfPreviousPage.getId(), Limit.of(PAGE_SIZE)));
+
+        System.out.printf("Listing %,d todos, median of %d: offset first %.2f ms, deep %.2f ms;"
+                + " keyset first %.2f ms, deep %.2f ms%n", todos, ROUNDS, offsetFirst, offsetDeep, keysetFirst,
+                keysetDeep);
+        assertThat(todoRepository.findPageAfter(lastOfPreviousPage.getCreationDate(), lastOfPreviousPage.getId(),
+                Limit.of(PAGE_SIZE))).isEqualTo(todoRepository.findAllBy(PageRequest.of(deepPage, PAGE_SIZE, order))
+                .getContent());
+        assertThat(keysetDeep).isLessThan(offsetDeep);
+    }
+
+    private static double median(Supplier<List<Todo>> page) {
+        var millis = new double[ROUNDS];
+        // Warm up the JIT and the query plan cache first
+        for (var i = 0; i < ROUNDS; i++) {
+            page.get();
+        }
+        for (var i = 0; i < ROUNDS; i++) {
+            var start = System.nanoTime();
+            assertThat(page.get()).hasSize(PAGE_SIZE);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        return millis[ROUNDS / 2];
+    }
+}
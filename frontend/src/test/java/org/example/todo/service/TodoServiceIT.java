@@ -7,15 +7,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Clock;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
 @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -40,11 +41,54 @@ class TodoServiceIT {
         var now = clock.instant();
         var due = LocalDate.of(2025, 2, 7);
         todoService.createTodo("Do this", due);
-        assertThat(todoService.list(PageRequest.ofSize(1))).singleElement()
+        assertThat(todoService.list(null, 1)).singleElement()
                 .matches(todo -> todo.getDescription().equals("Do this") && due.equals(todo.getDueDate())
                         && todo.getCreationDate().isAfter(now));
     }
 
+    @Test
+    public void todos_are_listed_in_creation_order_one_page_after_another() {
+        for (var i = 0; i < 5; i++) {
+            todoService.createTodo("Task " + i, null);
+        }
+        var first = todoService.list(null, 2);
+        var second = todoService.list(first.get(1), 2);
+        var last = todoService.list(second.get(1), 2);
+        assertThat(first).extracting(Todo::getDescription).containsExactly("Task 0", "Task 1");
+        assertThat(second).extracting(Todo::getDescription).containsExactly("Task 2", "Task 3");
+        assertThat(last).extracting(Todo::getDescription).containsExactly("Task 4");
+    }
+
+    @Test
+    public void creating_a_todo_refreshes_cached_pages() {
+        todoService.createTodo("First", null);
+        assertThat(todoService.list(null, 10)).hasSize(1);
+        todoService.createTodo("Second", null);
+        assertThat(todoService.list(null, 10)).extracting(Todo::getDescription).containsExactly("First", "Second");
+    }
+
+    @Test
+    public void action_items_are_imported_once_per_meeting() {
+        var meetings = List.of(
+                new MeetingNotes("65f000000000000000000001", LocalDate.of(2025, 3, 5), """
+                        Discussed the launch.
+
+                        Action items:
+                        - Alice to send the deck by Friday
+                        - Bob to book the venue before March 20
+                        """),
+                new MeetingNotes("65f000000000000000000002", null, "Next steps: update the roadmap"));
+        assertThat(todoService.importActionItems(meetings)).isEqualTo(3);
+        assertThat(todoService.importActionItems(meetings)).isEqualTo(0);
+        assertThat(todoService.list(null, 10))
+                .extracting(Todo::getDescription, Todo::getDueDate, Todo::getMeetingId)
+                .containsExactly(
+                        tuple("Alice to send the deck by Friday", LocalDate.of(2025, 3, 7), "65f000000000000000000001"),
+                        tuple("Bob to book the venue before March 20", LocalDate.of(2025, 3, 20),
+                                "65f000000000000000000001"),
+                        tuple("update the roadmap", null, "65f000000000000000000002"));
+    }
+
     @Test
     public void todos_are_validated_before_they_are_stored() {
         assertThatThrownBy(() -> todoService.createTodo("X".repeat(Todo.DESCRIPTION_MAX_LENGTH + 1), null))